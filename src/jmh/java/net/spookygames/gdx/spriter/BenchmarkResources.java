@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterCharacterMap;
+import net.spookygames.gdx.spriter.data.SpriterCurveType;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterEntity;
+import net.spookygames.gdx.spriter.data.SpriterFileInfo;
+import net.spookygames.gdx.spriter.data.SpriterFolder;
+import net.spookygames.gdx.spriter.data.SpriterMainline;
+import net.spookygames.gdx.spriter.data.SpriterMainlineKey;
+import net.spookygames.gdx.spriter.data.SpriterMapInstruction;
+import net.spookygames.gdx.spriter.data.SpriterObject;
+import net.spookygames.gdx.spriter.data.SpriterObjectRef;
+import net.spookygames.gdx.spriter.data.SpriterObjectType;
+import net.spookygames.gdx.spriter.data.SpriterTimeline;
+import net.spookygames.gdx.spriter.data.SpriterTimelineKey;
+import net.spookygames.gdx.spriter.io.ScmlReader;
+import net.spookygames.gdx.spriter.io.SconReader;
+import net.spookygames.gdx.spriter.io.SpriterReader;
+
+/**
+ * Spriter test resources and fixtures shared by benchmarks.
+ */
+public class BenchmarkResources {
+
+	public static final String GreyGuy = "GreyGuy";
+	public static final String Variable = "Variable";
+	public static final String BoxTagVariable = "BoxTagVariable";
+	public static final String Synthetic = "Synthetic";
+
+	public static String getPath(String resource, String extension) {
+		if (GreyGuy.equals(resource))
+			return "/GreyGuy/player." + extension;
+		if (Variable.equals(resource))
+			return "/Variable/LetterBot." + extension;
+		if (BoxTagVariable.equals(resource))
+			return "/BoxTagVariable/player." + extension;
+		throw new IllegalArgumentException("Unknown resource " + resource);
+	}
+
+	public static SpriterReader getReader(String extension) {
+		if ("scml".equals(extension))
+			return new ScmlReader();
+		if ("scon".equals(extension))
+			return new SconReader();
+		throw new IllegalArgumentException("Unknown extension " + extension);
+	}
+
+	public static String readContent(String resource, String extension) {
+		InputStream input = BenchmarkResources.class.getResourceAsStream(getPath(resource, extension));
+		return SpriterTestUtils.readResourceContent(input, "UTF-8");
+	}
+
+	public static SpriterData load(String resource) throws IOException {
+		SpriterData data = Synthetic.equals(resource) ? generate()
+				: new ScmlReader().load(readContent(resource, "scml"));
+		return SpriterTestAssetProvider.attach(data);
+	}
+
+	/**
+	 * Generate a synthetic Spriter project several times bigger than test
+	 * resources, with every curve type.
+	 */
+	public static SpriterData generate() {
+		SpriterDataGenerator generator = new SpriterDataGenerator();
+		generator.bones = 32;
+		generator.objects = 64;
+		generator.files = 64;
+		generator.keys = 32;
+		generator.curveWeights = SpriterDataGenerator.curveWeights(SpriterCurveType.values());
+		return generator.generate();
+	}
+
+	/**
+	 * Add given count of character maps to given entity, each map swapping
+	 * every file of every folder with the next file of the same folder.
+	 */
+	public static void addCharacterMaps(SpriterEntity entity, int count) {
+		SpriterData data = entity.data;
+		for (int i = 0; i < count; i++) {
+			SpriterCharacterMap map = new SpriterCharacterMap();
+			map.id = entity.characterMaps.size;
+			map.name = "map" + map.id;
+			for (SpriterFolder folder : data.folders) {
+				int size = folder.files.size;
+				for (int f = 0; f < size; f++) {
+					SpriterMapInstruction instruction = new SpriterMapInstruction();
+					instruction.file = fileInfo(folder.id, f);
+					instruction.target = fileInfo(folder.id, (f + i + 1) % size);
+					map.maps.add(instruction);
+				}
+			}
+			entity.characterMaps.add(map);
+		}
+	}
+
+	/**
+	 * Add to given data a new entity with a single animation that displays
+	 * given animation as a nested entity, over the same length.
+	 */
+	public static SpriterAnimation nest(SpriterData data, SpriterAnimation nested) {
+		SpriterEntity entity = new SpriterEntity();
+		entity.id = data.entities.size;
+		entity.name = "nesting " + nested.name;
+		entity.data = data;
+		data.entities.add(entity);
+
+		SpriterAnimation animation = new SpriterAnimation();
+		animation.name = nested.name;
+		animation.length = nested.length;
+		animation.looping = false;
+		animation.entity = entity;
+		entity.animations.add(animation);
+
+		animation.mainline = new SpriterMainline();
+
+		SpriterTimeline timeline = new SpriterTimeline();
+		timeline.name = "nested";
+		timeline.objectType = SpriterObjectType.Entity;
+
+		for (int i = 0; i < 2; i++) {
+			SpriterObjectRef ref = new SpriterObjectRef();
+			ref.timelineId = 0;
+			ref.keyId = i;
+
+			SpriterMainlineKey mainlineKey = new SpriterMainlineKey();
+			mainlineKey.id = i;
+			mainlineKey.time = i * nested.length;
+			mainlineKey.objectRefs.add(ref);
+			animation.mainline.keys.add(mainlineKey);
+
+			SpriterTimelineKey key = new SpriterTimelineKey();
+			key.id = i;
+			key.time = i * nested.length;
+			key.objectInfo = new SpriterObject();
+			key.objectInfo.entityId = nested.entity.id;
+			key.objectInfo.animationId = nested.id;
+			key.objectInfo.file = new SpriterFileInfo();
+			key.objectInfo.t = i;
+			timeline.keys.add(key);
+		}
+		animation.timelines.add(timeline);
+
+		return animation;
+	}
+
+	private static SpriterFileInfo fileInfo(int folderId, int fileId) {
+		SpriterFileInfo info = new SpriterFileInfo();
+		info.folderId = folderId;
+		info.fileId = fileId;
+		return info;
+	}
+
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterEntity;
+
+/**
+ * Benchmarks of {@link FrameData} updates: single animation, blend of two
+ * animations and animation nested as an entity object.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameDataBenchmark {
+
+	private static final float deltaTime = 1000f / 60f;
+
+	@Param({ BenchmarkResources.GreyGuy, BenchmarkResources.Variable, BenchmarkResources.BoxTagVariable,
+			BenchmarkResources.Synthetic })
+	public String resource;
+
+	private final FrameDataUpdateConfiguration configuration = new FrameDataUpdateConfiguration();
+	private final FrameData frameData = new FrameData();
+
+	private SpriterAnimation first;
+	private SpriterAnimation second;
+	private SpriterAnimation nesting;
+	private float time;
+
+	@Setup
+	public void setup() throws IOException {
+		SpriterData data = BenchmarkResources.load(resource);
+		SpriterEntity entity = data.entities.first();
+		first = entity.animations.first();
+		// Single-animation entities blend with themselves, that is not at all
+		second = entity.animations.peek();
+		nesting = BenchmarkResources.nest(data, first);
+		time = 0f;
+	}
+
+	private float nextTime(float length) {
+		time += deltaTime;
+		if (time >= length)
+			time %= length;
+		return time;
+	}
+
+	@Benchmark
+	public FrameData single() {
+		FrameData.update(frameData, configuration, first, nextTime(first.length), deltaTime);
+		return frameData;
+	}
+
+	@Benchmark
+	public FrameData blended() {
+		FrameData.update(frameData, configuration, first, second, nextTime(first.length), deltaTime, 0.5f);
+		return frameData;
+	}
+
+	@Benchmark
+	public FrameData nested() {
+		FrameData.update(frameData, configuration, nesting, nextTime(nesting.length), deltaTime);
+		return frameData;
+	}
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterData;
+
+/**
+ * Benchmarks of a crowd playing the same animation at different times:
+ * {@link FrameData} updated per instance against one {@link SpriterPoseBatch}
+ * sampling.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoseBatchBenchmark {
+
+	private static final int instances = 1000;
+
+	@Param({ BenchmarkResources.GreyGuy, BenchmarkResources.Synthetic })
+	public String resource;
+
+	private final FrameDataUpdateConfiguration configuration = new FrameDataUpdateConfiguration();
+	private final FrameData frameData = new FrameData();
+	private final SpriterPoseBatch batch = new SpriterPoseBatch();
+	private final float[] times = new float[instances];
+
+	private SpriterAnimation animation;
+
+	@Setup
+	public void setup() throws IOException {
+		SpriterData data = BenchmarkResources.load(resource);
+		animation = data.entities.first().animations.first();
+		configuration.events = false;
+		configuration.sounds = false;
+		configuration.tagsAndVariables = false;
+		for (int i = 0; i < instances; ++i)
+			times[i] = animation.length * i / instances;
+	}
+
+	@Benchmark
+	public FrameData perInstance() {
+		for (int i = 0; i < instances; ++i)
+			FrameData.update(frameData, configuration, animation, times[i], 0f);
+		return frameData;
+	}
+
+	@Benchmark
+	public SpriterPoseBatch batched() {
+		batch.sample(animation, times, instances);
+		return batch;
+	}
+
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.spookygames.gdx.spriter.data.SpriterCharacterMap;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterEntity;
+
+/**
+ * Benchmarks of {@link SpriterAnimator} update and draw against a
+ * {@link NoOpBatch}, with a varying number of character maps.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpriterAnimatorBenchmark {
+
+	private static final float deltaTime = 1f / 60f;
+
+	@Param({ BenchmarkResources.GreyGuy, BenchmarkResources.Variable, BenchmarkResources.BoxTagVariable,
+			BenchmarkResources.Synthetic })
+	public String resource;
+
+	@Param({ "0", "1", "4" })
+	public int characterMaps;
+
+	private final NoOpBatch batch = new NoOpBatch();
+
+	private SpriterAnimator animator;
+
+	@Setup
+	public void setup() throws IOException {
+		SpriterData data = BenchmarkResources.load(resource);
+		SpriterEntity entity = data.entities.first();
+		BenchmarkResources.addCharacterMaps(entity, characterMaps);
+
+		animator = new SpriterAnimator(entity);
+		for (SpriterCharacterMap map : entity.characterMaps)
+			animator.addCharacterMap(map);
+		animator.play(entity.animations.first());
+		animator.update(0f);
+	}
+
+	@Benchmark
+	public SpriterAnimator update() {
+		animator.update(deltaTime);
+		return animator;
+	}
+
+	@Benchmark
+	public NoOpBatch draw() {
+		animator.draw(batch);
+		return batch;
+	}
+
+	@Benchmark
+	public NoOpBatch updateAndDraw() {
+		animator.update(deltaTime);
+		animator.draw(batch);
+		return batch;
+	}
+
+}
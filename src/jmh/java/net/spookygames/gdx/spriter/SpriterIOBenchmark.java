@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.io.ScmlWriter;
+import net.spookygames.gdx.spriter.io.SpriterReader;
+
+/**
+ * Benchmarks of Spriter file reading ({@code ScmlReader} and
+ * {@code SconReader}) and writing ({@link ScmlWriter}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpriterIOBenchmark {
+
+	@Param({ BenchmarkResources.GreyGuy, BenchmarkResources.Variable, BenchmarkResources.BoxTagVariable })
+	public String resource;
+
+	@Param({ "scml", "scon" })
+	public String format;
+
+	private final ScmlWriter writer = new ScmlWriter();
+	private final ByteArrayOutputStream output = new ByteArrayOutputStream(1 << 20);
+
+	private String content;
+	private SpriterReader reader;
+	private SpriterData data;
+
+	@Setup
+	public void setup() throws IOException {
+		content = BenchmarkResources.readContent(resource, format);
+		reader = BenchmarkResources.getReader(format);
+		data = reader.load(content);
+	}
+
+	@Benchmark
+	public SpriterData read() throws IOException {
+		return reader.load(content);
+	}
+
+	@Benchmark
+	public int write() throws IOException {
+		output.reset();
+		writer.write(data, output);
+		return output.size();
+	}
+
+}
@@ -20,16 +20,23 @@
 
 package net.spookygames.gdx.spriter;
 
+import java.util.Arrays;
+
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.IntMap;
 import com.badlogic.gdx.utils.ObjectMap;
 
 import net.spookygames.gdx.spriter.data.SpriterAnimation;
 import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterDrawSequence;
 import net.spookygames.gdx.spriter.data.SpriterElement;
+import net.spookygames.gdx.spriter.data.SpriterEntity;
 import net.spookygames.gdx.spriter.data.SpriterEventline;
 import net.spookygames.gdx.spriter.data.SpriterFileInfo;
 import net.spookygames.gdx.spriter.data.SpriterKey;
@@ -38,6 +45,8 @@ import net.spookygames.gdx.spriter.data.SpriterMeta;
 import net.spookygames.gdx.spriter.data.SpriterObject;
 import net.spookygames.gdx.spriter.data.SpriterObjectInfo;
 import net.spookygames.gdx.spriter.data.SpriterObjectRef;
+import net.spookygames.gdx.spriter.data.SpriterObjectType;
+import net.spookygames.gdx.spriter.data.SpriterPackedKeys;
 import net.spookygames.gdx.spriter.data.SpriterRef;
 import net.spookygames.gdx.spriter.data.SpriterSound;
 import net.spookygames.gdx.spriter.data.SpriterSoundline;
@@ -107,70 +116,98 @@ public class FrameData {
 
 		float targetTimeSecond = targetTime / first.length * second.length;
 
-		SpriterMainlineKey[] keys = getMainlineKeys(first.mainline.keys, targetTime);
-		SpriterMainlineKey firstKeyA = keys[0];
-		SpriterMainlineKey firstKeyB = keys[1];
-
-		keys = getMainlineKeys(second.mainline.keys, targetTimeSecond);
-		SpriterMainlineKey secondKeyA = keys[0];
-		SpriterMainlineKey secondKeyB = keys[1];
+		SpriterMainlineKey firstKeyA = lastKeyForTime(first.mainline.keys, targetTime);
+		SpriterMainlineKey firstKeyB = getNextMainlineKey(first.mainline.keys, firstKeyA);
 
-		if (firstKeyA.boneRefs.size != secondKeyA.boneRefs.size || firstKeyB.boneRefs.size != secondKeyB.boneRefs.size
-				|| firstKeyA.objectRefs.size != secondKeyA.objectRefs.size
-				|| firstKeyB.objectRefs.size != secondKeyB.objectRefs.size) {
-			// Cannot blend if the two animations are not blendable
-			update(frameData, configuration, first, targetTime, deltaTime);
-			return;
-		}
+		SpriterMainlineKey secondKeyA = lastKeyForTime(second.mainline.keys, targetTimeSecond);
+		SpriterMainlineKey secondKeyB = getNextMainlineKey(second.mainline.keys, secondKeyA);
 
 		frameData.clear();
 
-		// Define reference animation
-		SpriterAnimation currentAnimation = factor < 0.5f ? first : second;
+		// Define reference animation, the other one is matched by timeline name
+		boolean firstIsBase = factor < 0.5f;
+		SpriterAnimation currentAnimation = firstIsBase ? first : second;
+		SpriterAnimation otherAnimation = firstIsBase ? second : first;
+		float otherFactor = firstIsBase ? factor : 1f - factor;
 
 		if (configuration.spatial) {
 			float adjustedTimeFirst = adjustTime(firstKeyA, firstKeyB, first.length, targetTime);
 			float adjustedTimeSecond = adjustTime(secondKeyA, secondKeyB, second.length, targetTimeSecond);
 
-			SpriterSpatial[] boneInfosA = getBoneInfos(firstKeyA, first, adjustedTimeFirst);
-			SpriterSpatial[] boneInfosB = getBoneInfos(secondKeyA, second, adjustedTimeSecond);
-			SpriterSpatial[] boneInfos = null;
-
-			if (boneInfosA != null && boneInfosB != null) {
-				boneInfos = new SpriterSpatial[boneInfosA.length];
-				for (int i = 0; i < boneInfosA.length; ++i) {
-					SpriterSpatial boneA = boneInfosA[i];
-					SpriterSpatial boneB = boneInfosB[i];
-					SpriterSpatial interpolated = interpolate(boneA, boneB, factor, 1);
-					interpolated.angle = MathHelper.closerAngleLinear(boneA.angle, boneB.angle, factor);
+			SpriterMainlineKey baseKey = firstIsBase ? firstKeyA : secondKeyA;
+			SpriterMainlineKey otherKey = firstIsBase ? secondKeyA : firstKeyA;
+			float baseTime = firstIsBase ? adjustedTimeFirst : adjustedTimeSecond;
+			float otherTime = firstIsBase ? adjustedTimeSecond : adjustedTimeFirst;
+
+			int[] remap = getTimelineRemap(currentAnimation, otherAnimation);
+
+			boolean masked = configuration.isMasked();
+			boolean[] requiredBones = masked ? getRequiredBones(baseKey, currentAnimation, configuration) : null;
+
+			SpriterSpatial[] boneInfos = getBoneInfos(baseKey, currentAnimation, baseTime, null, requiredBones);
+			SpriterSpatial[] otherBoneInfos = getBoneInfos(otherKey, otherAnimation, otherTime, null, null);
+
+			if (boneInfos != null && otherBoneInfos != null) {
+				int[] otherRefs = getRefIndices(otherKey.boneRefs, otherAnimation.timelines.size);
+				for (int i = 0; i < baseKey.boneRefs.size; ++i) {
+					SpriterSpatial boneA = boneInfos[i];
+					int otherTimeline = remap[baseKey.boneRefs.get(i).timelineId];
+					if (boneA == null || otherTimeline < 0 || otherRefs[otherTimeline] < 0)
+						continue;
+					SpriterSpatial boneB = otherBoneInfos[otherRefs[otherTimeline]];
+					SpriterSpatial interpolated = interpolate(boneA, boneB, otherFactor, 1);
+					interpolated.angle = MathHelper.closerAngleLinear(boneA.angle, boneB.angle, otherFactor);
 					boneInfos[i] = interpolated;
+					Pools.spatials.free(boneA);
 				}
 			}
 
-			SpriterMainlineKey baseKey = factor < 0.5f ? firstKeyA : firstKeyB;
+			freeBoneInfos(otherBoneInfos);
+
+			int[] otherRefs = getRefIndices(otherKey.objectRefs, otherAnimation.timelines.size);
 
 			for (int i = 0; i < baseKey.objectRefs.size; ++i) {
-				SpriterObjectRef objectRefFirst = baseKey.objectRefs.get(i);
-				SpriterObject interpolatedFirst = getObjectInfo(objectRefFirst, first, adjustedTimeFirst);
+				SpriterObjectRef objectRef = baseKey.objectRefs.get(i);
+				SpriterTimeline timeline = currentAnimation.timelines.get(objectRef.timelineId);
+
+				if (masked && !configuration.isSampled(timeline))
+					continue;
+
+				// Blended alpha may be visible, only hidden files are skipped
+				if (!configuration.invisible && timeline.objectType == SpriterObjectType.Sprite
+						&& isHidden(getFile(timeline, objectRef.keyId), configuration)) {
+					countSkipped();
+					continue;
+				}
+
+				SpriterObject info = getObjectInfo(objectRef, currentAnimation, baseTime);
 
-				SpriterObjectRef objectRefSecond = secondKeyA.objectRefs.get(i);
-				SpriterObject interpolatedSecond = getObjectInfo(objectRefSecond, second, adjustedTimeSecond);
+				int otherTimeline = remap[objectRef.timelineId];
+				if (otherTimeline >= 0 && otherRefs[otherTimeline] >= 0) {
+					SpriterObjectRef otherRef = otherKey.objectRefs.get(otherRefs[otherTimeline]);
+					SpriterObject other = getObjectInfo(otherRef, otherAnimation, otherTime);
 
-				SpriterObject info = interpolate(interpolatedFirst, interpolatedSecond, factor, 1);
-				info.angle = MathHelper.closerAngleLinear(interpolatedFirst.angle, interpolatedSecond.angle, factor);
-				info.pivotX = MathHelper.linear(interpolatedFirst.pivotX, interpolatedSecond.pivotX, factor);
-				info.pivotY = MathHelper.linear(interpolatedFirst.pivotY, interpolatedSecond.pivotY, factor);
+					SpriterObject interpolated = interpolate(info, other, otherFactor, 1);
+					interpolated.angle = MathHelper.closerAngleLinear(info.angle, other.angle, otherFactor);
+					interpolated.pivotX = MathHelper.linear(info.pivotX, other.pivotX, otherFactor);
+					interpolated.pivotY = MathHelper.linear(info.pivotY, other.pivotY, otherFactor);
+
+					Pools.objects.free(info);
+					Pools.objects.free(other);
+					info = interpolated;
+				}
 
-				if (boneInfos != null && objectRefFirst.parentId >= 0)
-					applyParentTransform(info, boneInfos[objectRefFirst.parentId]);
+				if (boneInfos != null && objectRef.parentId >= 0)
+					applyParentTransform(info, boneInfos[objectRef.parentId]);
 
-				frameData.addSpatialData(configuration, info, currentAnimation.timelines.get(objectRefFirst.timelineId),
-						currentAnimation.entity.data, deltaTime);
+				frameData.addSpatialData(configuration, info, timeline, currentAnimation, deltaTime);
 			}
+
+			freeBoneInfos(boneInfos);
 		}
 
 		if (configuration.tagsAndVariables)
-			frameData.addVariableAndTagData(currentAnimation, targetTime);
+			frameData.addVariableAndTagData(configuration, currentAnimation, targetTime);
 
 		if (configuration.events)
 			frameData.addEventData(currentAnimation, targetTime, deltaTime);
@@ -231,27 +268,135 @@ public class FrameData {
 
 		if (configuration.spatial) {
 			Array<SpriterMainlineKey> keys = animation.mainline.keys;
-			SpriterMainlineKey[] someKeys = getMainlineKeys(keys, targetTime);
-			SpriterMainlineKey keyA = someKeys[0];
-			SpriterMainlineKey keyB = someKeys[1];
+			SpriterMainlineKey keyA = lastKeyForTime(keys, targetTime);
+			SpriterMainlineKey keyB = getNextMainlineKey(keys, keyA);
 
 			float adjustedTime = adjustTime(keyA, keyB, animation.length, targetTime);
 
-			SpriterSpatial[] boneInfos = getBoneInfos(keyA, animation, adjustedTime, parentInfo);
+			boolean masked = configuration.isMasked();
+			boolean[] requiredBones = masked ? getRequiredBones(keyA, animation, configuration) : null;
+
+			SpriterSpatial[] boneInfos = getBoneInfos(keyA, animation, adjustedTime, parentInfo, requiredBones);
+
+			SpriterDrawSequence sequence = getDrawSequence(keyA, animation);
+			int[] timelineIds = sequence.timelineIds;
+			int[] keyIds = sequence.keyIds;
+			int[] parentIds = sequence.parentIds;
+			SpriterData spriter = animation.entity.data;
+			boolean skipInvisible = !configuration.invisible;
+
+			for (int i = 0; i < sequence.size; ++i) {
+				if (masked && !configuration.isSampled(animation.timelines.get(timelineIds[i])))
+					continue;
+
+				if (skipInvisible && i < sequence.spriteEnd
+						&& isInvisible(animation, timelineIds[i], keyIds[i], sequence.entities[i], configuration))
+					continue;
+
+				SpriterObject interpolated = getObjectInfo(timelineIds[i], keyIds[i], animation, adjustedTime);
+
+				int parentId = parentIds[i];
+				if (boneInfos != null && parentId >= 0)
+					applyParentTransform(interpolated, boneInfos[parentId]);
+
+				if (i >= sequence.pointEnd)
+					frameData.boxData.put(sequence.objectIds[i], interpolated);
+				else if (i >= sequence.spriteEnd)
+					frameData.addPointData(interpolated, animation, animation.timelines.get(timelineIds[i]));
+				else if (sequence.entities[i])
+					frameData.addEntityData(configuration, interpolated, animation.timelines.get(timelineIds[i]),
+							spriter, deltaTime);
+				else
+					frameData.addSpriteData(interpolated, animation.timelines.get(timelineIds[i]));
+			}
 
-			for (SpriterObjectRef objectRef : keyA.objectRefs) {
-				SpriterObject interpolated = getObjectInfo(objectRef, animation, adjustedTime);
+			freeBoneInfos(boneInfos);
+		}
 
-				if (boneInfos != null && objectRef.parentId >= 0)
-					applyParentTransform(interpolated, boneInfos[objectRef.parentId]);
+		if (configuration.tagsAndVariables)
+			frameData.addVariableAndTagData(configuration, animation, targetTime);
+		if (configuration.events)
+			frameData.addEventData(animation, targetTime, deltaTime);
+		if (configuration.sounds)
+			frameData.addSoundData(animation, targetTime, deltaTime);
+	}
 
-				frameData.addSpatialData(configuration, interpolated, animation.timelines.get(objectRef.timelineId),
-						animation.entity.data, deltaTime);
-			}
+	/**
+	 * Copy sampled data (sprites, points, boxes, variables and tags) of an
+	 * instance of {@code FrameData} into another one. Events and sounds of the
+	 * target are left as is, see
+	 * {@link #updateEventsAndSounds(FrameData, FrameDataUpdateConfiguration, SpriterAnimation, float, float)}
+	 * .
+	 * 
+	 * File information of copied objects is shared and must not be modified.
+	 * 
+	 * @param source
+	 *            Instance of {@code FrameData} to copy
+	 * @param target
+	 *            Instance of {@code FrameData} to fill
+	 */
+	static void copy(FrameData source, FrameData target) {
+		target.clearPose();
+
+		for (SpriterObject object : source.spriteData)
+			target.spriteData.add(copy(object));
+		target.spriteTimelines.addAll(source.spriteTimelines);
+
+		for (int i = 0; i < source.pointTimelines.size; ++i)
+			target.addPointData(copy(source.points.get(i)), source.pointAnimations.get(i),
+					source.pointTimelines.get(i));
+
+		for (IntMap.Entry<SpriterObject> entry : source.boxData)
+			target.boxData.put(entry.key, copy(entry.value));
+
+		for (int i = 0; i < source.variableHandles.size; ++i) {
+			SpriterVarValue value = copy(source.variables.get(i));
+			target.animationVars.put(source.variableNames.get(i), value);
+			target.variableHandles.add(source.variableHandles.get(i));
+			target.variableNames.add(source.variableNames.get(i));
+			target.variables.add(value);
 		}
 
-		if (configuration.tagsAndVariables)
-			frameData.addVariableAndTagData(animation, targetTime);
+		for (ObjectMap.Entry<String, ObjectMap<String, SpriterVarValue>> entry : source.objectVars)
+			for (ObjectMap.Entry<String, SpriterVarValue> var : entry.value)
+				target.addObjectVar(entry.key, var.key, copy(var.value));
+
+		target.animationTags.addAll(source.animationTags);
+		target.animationTagBits = source.animationTagBits;
+		target.ensureObjectTagCapacity(source.objectTagBits.length);
+		System.arraycopy(source.objectTagBits, 0, target.objectTagBits, 0, source.objectTagBits.length);
+
+		for (ObjectMap.Entry<String, Array<String>> entry : source.objectTags)
+			for (String tag : entry.value)
+				target.addObjectTag(entry.key, tag);
+	}
+
+	/**
+	 * Update events and sounds of an instance of {@code FrameData} for given
+	 * {@link SpriterAnimation} at given time, leaving other data as is.
+	 * 
+	 * @param frameData
+	 *            Instance of {@code FrameData} to update
+	 * @param configuration
+	 *            Update configuration, specifying whether events and sounds
+	 *            should actually be updated
+	 * @param animation
+	 *            Animation to display
+	 * @param targetTime
+	 *            Target animation time (Spriter time)
+	 * @param deltaTime
+	 *            Spriter time elapsed since previous update, events and sounds
+	 *            crossed in between are triggered
+	 */
+	static void updateEventsAndSounds(FrameData frameData, FrameDataUpdateConfiguration configuration,
+			SpriterAnimation animation, float targetTime, float deltaTime) {
+		frameData.events.clear();
+		frameData.eventCounts.clear();
+		frameData.eventAnimations.clear();
+		frameData.eventlineIndices.clear();
+		while (frameData.sounds.size > 0)
+			Pools.sounds.free(frameData.sounds.pop());
+
 		if (configuration.events)
 			frameData.addEventData(animation, targetTime, deltaTime);
 		if (configuration.sounds)
@@ -268,6 +413,9 @@ public class FrameData {
 	 */
 	public final Array<SpriterObject> spriteData = new Array<SpriterObject>();
 
+	// Timeline id of each sprite, negative for sprites of nested entities
+	private final IntArray spriteTimelines = new IntArray();
+
 	/**
 	 * Frame data related to points.
 	 * 
@@ -277,6 +425,11 @@ public class FrameData {
 	 */
 	public final ObjectMap<String, SpriterObject> pointData = new ObjectMap<String, SpriterObject>();
 
+	// Points along with their animation and timeline, for handle resolution
+	final Array<SpriterAnimation> pointAnimations = new Array<SpriterAnimation>();
+	final Array<SpriterTimeline> pointTimelines = new Array<SpriterTimeline>();
+	final Array<SpriterObject> points = new Array<SpriterObject>();
+
 	/**
 	 * Frame data related to boxes.
 	 * 
@@ -293,6 +446,11 @@ public class FrameData {
 	 */
 	public final ObjectMap<String, SpriterVarValue> animationVars = new ObjectMap<String, SpriterVarValue>();
 
+	// Animation variables along with their handle, index of their definition
+	final IntArray variableHandles = new IntArray();
+	final Array<String> variableNames = new Array<String>();
+	final Array<SpriterVarValue> variables = new Array<SpriterVarValue>();
+
 	/**
 	 * Object-related variables, indexed by object name and variable name.
 	 * 
@@ -315,12 +473,27 @@ public class FrameData {
 	 */
 	public final ObjectMap<String, Array<String>> objectTags = new ObjectMap<String, Array<String>>();
 
+	// Tag bitsets are shared with tagline keys, object ones indexed by object
+	private Bits animationTagBits = null;
+	private Bits[] objectTagBits = new Bits[0];
+
 	/**
 	 * Events are triggered by {@link SpriterAnimator} and can be caught with a
 	 * {@link SpriterAnimationListener}.
 	 */
 	public final Array<String> events = new Array<String>();
 
+	/**
+	 * Number of times each event of {@link #events} was crossed since
+	 * previous update, more than 1 when a large delta time covers several
+	 * loops.
+	 */
+	public final IntArray eventCounts = new IntArray();
+
+	// Animation and eventline index of each event, for handle resolution
+	final Array<SpriterAnimation> eventAnimations = new Array<SpriterAnimation>();
+	final IntArray eventlineIndices = new IntArray();
+
 	/**
 	 * Sounds are automatically played by
 	 * {@link SpriterAnimator#draw(Batch batch, ShapeRenderer renderer)}.
@@ -328,12 +501,28 @@ public class FrameData {
 	public final Array<SpriterSound> sounds = new Array<SpriterSound>();
 
 	private void clear() {
+		clearPose();
+
+		events.clear();
+		eventCounts.clear();
+		eventAnimations.clear();
+		eventlineIndices.clear();
+
+		while (sounds.size > 0)
+			Pools.sounds.free(sounds.pop());
+	}
+
+	private void clearPose() {
 		while (spriteData.size > 0)
 			Pools.objects.free(spriteData.pop());
+		spriteTimelines.clear();
 
 		for (SpriterObject object : pointData.values())
 			Pools.objects.free(object);
 		pointData.clear();
+		pointAnimations.clear();
+		pointTimelines.clear();
+		points.clear();
 
 		for (SpriterObject object : boxData.values())
 			Pools.objects.free(object);
@@ -342,6 +531,9 @@ public class FrameData {
 		for (SpriterVarValue value : animationVars.values())
 			Pools.varValues.free(value);
 		animationVars.clear();
+		variableHandles.clear();
+		variableNames.clear();
+		variables.clear();
 
 		for (ObjectMap<String, SpriterVarValue> map : objectVars.values()) {
 			for (SpriterVarValue value : map.values()) {
@@ -360,10 +552,8 @@ public class FrameData {
 		}
 		objectTags.clear();
 
-		events.clear();
-
-		while (sounds.size > 0)
-			Pools.sounds.free(sounds.pop());
+		animationTagBits = null;
+		Arrays.fill(objectTagBits, null);
 	}
 
 	private void addObjectVar(String objectName, String varName, SpriterVarValue value) {
@@ -375,6 +565,53 @@ public class FrameData {
 		values.put(varName, value);
 	}
 
+	/**
+	 * Check whether current animation has given tag.
+	 * 
+	 * @param tag
+	 *            Index of the tag in {@link SpriterData#tags}
+	 * @return True if the tag is set
+	 */
+	public boolean hasTag(int tag) {
+		return animationTagBits != null && animationTagBits.get(tag);
+	}
+
+	/**
+	 * Check whether given object has given tag.
+	 * 
+	 * @param object
+	 *            Index of the object in {@link SpriterEntity#objectInfos}
+	 * @param tag
+	 *            Index of the tag in {@link SpriterData#tags}
+	 * @return True if the tag is set
+	 */
+	public boolean hasObjectTag(int object, int tag) {
+		if (object < 0 || object >= objectTagBits.length)
+			return false;
+		Bits bits = objectTagBits[object];
+		return bits != null && bits.get(tag);
+	}
+
+	private void ensureObjectTagCapacity(int capacity) {
+		if (objectTagBits.length < capacity) {
+			Bits[] bits = new Bits[capacity];
+			System.arraycopy(objectTagBits, 0, bits, 0, objectTagBits.length);
+			objectTagBits = bits;
+		}
+	}
+
+	private static Bits getTagBits(SpriterTaglineKey key) {
+		Bits bits = key.bits;
+		if (bits == null) {
+			bits = new Bits();
+			if (key.tags != null)
+				for (SpriterTag tag : key.tags)
+					bits.set(tag.tagId);
+			key.bits = bits;
+		}
+		return bits;
+	}
+
 	private void addObjectTag(String objectName, String tag) {
 		Array<String> tags = objectTags.get(objectName);
 		if (tags == null) {
@@ -384,24 +621,36 @@ public class FrameData {
 		tags.add(tag);
 	}
 
-	private void addVariableAndTagData(SpriterAnimation animation, float targetTime) {
+	private void addVariableAndTagData(FrameDataUpdateConfiguration configuration, SpriterAnimation animation,
+			float targetTime) {
 		if (animation.meta == null)
 			return;
 
 		for (SpriterVarline varline : animation.meta.varlines) {
 			SpriterVarDef variable = animation.entity.variables.get(varline.def);
-			this.animationVars.put(variable.name, getVariableValue(animation, variable, varline, targetTime));
+			SpriterVarValue value = getVariableValue(animation, variable, varline, targetTime);
+			this.animationVars.put(variable.name, value);
+			this.variableHandles.add(varline.def);
+			this.variableNames.add(variable.name);
+			this.variables.add(value);
 		}
 
 		Array<SpriterElement> tags = animation.entity.data.tags;
 		SpriterTagline tagline = animation.meta.tagline;
 
+		boolean tagNames = configuration.tagNames;
+
+		ensureObjectTagCapacity(animation.entity.objectInfos.size);
+
 		if (tagline != null) {
 			SpriterTaglineKey key = lastKeyForTime(tagline.keys, targetTime);
 
-			if (key != null)
-				for (SpriterTag tag : key.tags)
-					this.animationTags.add(tags.get(tag.tagId).name);
+			if (key != null) {
+				this.animationTagBits = getTagBits(key);
+				if (tagNames)
+					for (SpriterTag tag : key.tags)
+						this.animationTags.add(tags.get(tag.tagId).name);
+			}
 		}
 
 		for (SpriterTimeline timeline : animation.timelines) {
@@ -410,11 +659,16 @@ public class FrameData {
 			if (meta == null)
 				continue;
 
-			SpriterObjectInfo objInfo = getObjectInfo(animation, timeline.name);
+			if (configuration.names.size > 0 && !configuration.names.contains(timeline.name))
+				continue;
+
+			int objectIndex = getObjectInfoIndex(animation, timeline);
 
-			if (objInfo == null)
+			if (objectIndex < 0)
 				continue;
 
+			SpriterObjectInfo objInfo = animation.entity.objectInfos.get(objectIndex);
+
 			if (meta.varlines != null) {
 				for (SpriterVarline varline : timeline.meta.varlines) {
 					SpriterVarDef variable = objInfo.variables.get(varline.def);
@@ -424,11 +678,14 @@ public class FrameData {
 			}
 
 			if (meta.tagline != null) {
-				SpriterTaglineKey key = lastKeyForTime(tagline.keys, targetTime);
+				SpriterTaglineKey key = lastKeyForTime(meta.tagline.keys, targetTime);
 
-				if (key != null && key.tags != null)
-					for (SpriterTag tag : key.tags)
-						this.addObjectTag(objInfo.name, tags.get(tag.tagId).name);
+				if (key != null) {
+					this.objectTagBits[objectIndex] = getTagBits(key);
+					if (tagNames && key.tags != null)
+						for (SpriterTag tag : key.tags)
+							this.addObjectTag(objInfo.name, tags.get(tag.tagId).name);
+				}
 			}
 		}
 	}
@@ -438,7 +695,7 @@ public class FrameData {
 		Array<SpriterVarlineKey> keys = varline.keys;
 
 		if (keys == null)
-			return varDef.variableValue;
+			return copy(varDef.variableValue);
 
 		SpriterVarlineKey keyA = lastKeyForTime(keys, targetTime);
 
@@ -446,12 +703,12 @@ public class FrameData {
 			keyA = keys.peek();
 
 		if (keyA == null)
-			return varDef.variableValue;
+			return copy(varDef.variableValue);
 
 		SpriterVarlineKey keyB = getNextXLineKey(keys, keyA, animation.looping);
 
 		if (keyB == null)
-			return keyA.variableValue;
+			return copy(keyA.variableValue);
 
 		float adjustedTime = keyA.time == keyB.time ? targetTime : adjustTime(keyA, keyB, animation.length, targetTime);
 		float factor = getFactor(keyA, keyB, animation.length, adjustedTime);
@@ -463,22 +720,30 @@ public class FrameData {
 		if (animation.eventlines == null)
 			return;
 
-		float previousTime = targetTime - deltaTime;
-		for (SpriterEventline eventline : animation.eventlines)
-			for (SpriterKey key : eventline.keys)
-				if (isTriggered(key, targetTime, previousTime, animation.length))
+		// One entry per crossed key, however many times crossed
+		for (int i = 0; i < animation.eventlines.size; ++i) {
+			SpriterEventline eventline = animation.eventlines.get(i);
+			for (SpriterKey key : eventline.keys) {
+				int count = getTriggerCount(key, animation, targetTime, deltaTime);
+				if (count > 0) {
 					this.events.add(eventline.name);
+					this.eventCounts.add(count);
+					this.eventAnimations.add(animation);
+					this.eventlineIndices.add(i);
+				}
+			}
+		}
 	}
 
 	private void addSoundData(SpriterAnimation animation, float targetTime, float deltaTime) {
 		if (animation.soundlines.size == 0)
 			return;
 
-		float previousTime = targetTime - deltaTime;
 		for (SpriterSoundline soundline : animation.soundlines) {
 			for (SpriterSoundlineKey key : soundline.keys) {
 				SpriterSound sound = key.soundObject;
-				if (sound.trigger && isTriggered(key, targetTime, previousTime, animation.length)) {
+				// Played once at most, however many times crossed
+				if (sound.trigger && getTriggerCount(key, animation, targetTime, deltaTime) > 0) {
 					SpriterSound copy = Pools.sounds.obtain();
 					copy.fill(sound);
 					this.sounds.add(copy);
@@ -487,29 +752,87 @@ public class FrameData {
 		}
 	}
 
-	private static boolean isTriggered(SpriterKey key, float targetTime, float previousTime, float animationLength) {
-		float min = Math.min(previousTime, targetTime);
-		float max = Math.max(previousTime, targetTime);
-
-		if (min > max) {
-			if (min < key.time)
-				max += animationLength;
+	/**
+	 * Count how many times given key is crossed when moving to given time by
+	 * given delta time, in constant time whatever the number of loops.
+	 * 
+	 * Crossed range starts at previous time, included, and ends at target
+	 * time, excluded unless a non-looping animation reaches its bound. It is
+	 * therefore empty for a null delta time.
+	 * 
+	 * @param key
+	 *            Event or sound key
+	 * @param animation
+	 *            Animation the key belongs to
+	 * @param targetTime
+	 *            Target animation time (Spriter time)
+	 * @param deltaTime
+	 *            Signed Spriter time elapsed since previous time
+	 * @return Number of times the key is crossed
+	 */
+	static int getTriggerCount(SpriterKey key, SpriterAnimation animation, float targetTime, float deltaTime) {
+		if (deltaTime == 0f)
+			return 0;
+
+		// Double precision, delta time may span many loops
+		double length = animation.length;
+		double previousTime = (double) targetTime - deltaTime;
+		double time = key.time;
+
+		if (!animation.looping || length <= 0f) {
+			if (deltaTime > 0f)
+				return previousTime <= time && (time < targetTime || (time == targetTime && targetTime >= length)) ? 1 : 0;
 			else
-				min -= animationLength;
+				return previousTime >= time && (time > targetTime || (time == targetTime && targetTime <= 0f)) ? 1 : 0;
 		}
-		return min <= key.time && max >= key.time;
+
+		if (deltaTime > 0f)
+			return (int) (Math.ceil((targetTime - time) / length) - Math.ceil((previousTime - time) / length));
+		else
+			return (int) (Math.floor((previousTime - time) / length) - Math.floor((targetTime - time) / length));
 	}
 
-	private static SpriterObjectInfo getObjectInfo(SpriterAnimation animation, String name) {
-		SpriterObjectInfo objInfo = null;
-		for (SpriterObjectInfo info : animation.entity.objectInfos) {
-			if (info.name.equals(name)) {
-				objInfo = info;
+	private static int getObjectInfoIndex(SpriterAnimation animation, SpriterTimeline timeline) {
+		if (timeline.objectIndex != -2)
+			return timeline.objectIndex;
+
+		// Resolved once per timeline
+		int index = -1;
+		Array<SpriterObjectInfo> objectInfos = animation.entity.objectInfos;
+		for (int i = 0; i < objectInfos.size; ++i) {
+			if (objectInfos.get(i).name.equals(timeline.name)) {
+				index = i;
 				break;
 			}
 		}
 
-		return objInfo;
+		timeline.objectIndex = index;
+		return index;
+	}
+
+	private static SpriterObject copy(SpriterObject val) {
+		SpriterObject object = Pools.objects.obtain();
+
+		object.fill((SpriterSpatial) val);
+		object.animationId = val.animationId;
+		object.entityId = val.entityId;
+		object.file = val.file;
+		object.pivotX = val.pivotX;
+		object.pivotY = val.pivotY;
+		object.t = val.t;
+
+		return object;
+	}
+
+	private static SpriterVarValue copy(SpriterVarValue val) {
+		SpriterVarValue value = Pools.varValues.obtain();
+
+		value.type = val.type;
+		value.stringValue = val.stringValue;
+		value.floatValue = val.floatValue;
+		value.intValue = val.intValue;
+
+		return value;
 	}
 
 	private static SpriterVarValue interpolate(SpriterVarValue valA, SpriterVarValue valB, float factor) {
@@ -524,19 +847,16 @@ public class FrameData {
 	}
 
 	private void addSpatialData(FrameDataUpdateConfiguration configuration, SpriterObject info,
-			SpriterTimeline timeline, SpriterData spriter, float deltaTime) {
+			SpriterTimeline timeline, SpriterAnimation animation, float deltaTime) {
 		switch (timeline.objectType) {
 		case Sprite:
-			this.spriteData.add(info);
+			addSpriteData(info, timeline);
 			break;
 		case Entity:
-			SpriterAnimation newAnim = spriter.entities.get(info.entityId).animations.get(info.animationId);
-			float newTargetTime = info.t * newAnim.length;
-			FrameData.update(tempData, configuration, newAnim, newTargetTime, deltaTime, info);
-			this.spriteData.addAll(tempData.spriteData);
+			addEntityData(configuration, info, timeline, animation.entity.data, deltaTime);
 			break;
 		case Point:
-			this.pointData.put(timeline.name, info);
+			addPointData(info, animation, timeline);
 			break;
 		case Box:
 			this.boxData.put(timeline.objectId, info);
@@ -546,18 +866,187 @@ public class FrameData {
 		}
 	}
 
-	private static SpriterSpatial[] getBoneInfos(SpriterMainlineKey key, SpriterAnimation animation, float targetTime) {
-		return getBoneInfos(key, animation, targetTime, null);
+	private void addPointData(SpriterObject info, SpriterAnimation animation, SpriterTimeline timeline) {
+		this.pointData.put(timeline.name, info);
+		this.pointAnimations.add(animation);
+		this.pointTimelines.add(timeline);
+		this.points.add(info);
+	}
+
+	private void addSpriteData(SpriterObject info, SpriterTimeline timeline) {
+		this.spriteData.add(info);
+		this.spriteTimelines.add(timeline.id);
+	}
+
+	private void addEntityData(FrameDataUpdateConfiguration configuration, SpriterObject info,
+			SpriterTimeline timeline, SpriterData spriter, float deltaTime) {
+		SpriterAnimation newAnim = spriter.entities.get(info.entityId).animations.get(info.animationId);
+		SpriterAnimator.prepare(spriter, newAnim);
+		float newTargetTime = info.t * newAnim.length;
+		FrameData.update(tempData, configuration, newAnim, newTargetTime, deltaTime, info);
+		// Sprites now belong to this frame data, they must not be freed twice
+		this.spriteData.addAll(tempData.spriteData);
+		for (int i = 0; i < tempData.spriteData.size; ++i)
+			this.spriteTimelines.add(-1 - timeline.id);
+		tempData.spriteData.clear();
+		Pools.objects.free(info);
+	}
+
+	/**
+	 * Find the sprite of given previous {@code FrameData} matching given
+	 * sprite of current one: sampled from the same timeline, with the same
+	 * rank among sprites of this timeline.
+	 * 
+	 * @return Index of the matching sprite in previous frame data, or -1
+	 */
+	static int getMatchingSprite(FrameData previous, FrameData current, int index) {
+		IntArray previousTimelines = previous.spriteTimelines;
+		IntArray currentTimelines = current.spriteTimelines;
+		int timeline = currentTimelines.get(index);
+
+		// Stable z-order is the common case, sprites of nested entities share
+		// their timeline though
+		if (timeline >= 0 && index < previousTimelines.size && previousTimelines.get(index) == timeline)
+			return index;
+
+		int rank = 0;
+		for (int i = 0; i < index; ++i)
+			if (currentTimelines.get(i) == timeline)
+				rank++;
+
+		for (int i = 0; i < previousTimelines.size; ++i)
+			if (previousTimelines.get(i) == timeline && rank-- == 0)
+				return i;
+
+		return -1;
+	}
+
+	/**
+	 * Interpolate sprites of two consecutive frames, taking angles the short
+	 * way round. Other information comes from the second frame.
+	 */
+	static void interpolate(SpriterObject previous, SpriterObject current, float f, SpriterObject out) {
+		out.fill(current);
+		out.angle = MathHelper.closerAngleLinear(previous.angle, current.angle, f);
+		out.alpha = MathHelper.linear(previous.alpha, current.alpha, f);
+		out.x = MathHelper.linear(previous.x, current.x, f);
+		out.y = MathHelper.linear(previous.y, current.y, f);
+		out.scaleX = MathHelper.linear(previous.scaleX, current.scaleX, f);
+		out.scaleY = MathHelper.linear(previous.scaleY, current.scaleY, f);
+	}
+
+	/**
+	 * Check whether given object is invisible at its current key, before any
+	 * interpolation: either fully transparent at both ends of the key or, for
+	 * sprites, hidden.
+	 */
+	private static boolean isInvisible(SpriterAnimation animation, int timelineId, int keyId, boolean entity,
+			FrameDataUpdateConfiguration configuration) {
+		SpriterTimeline timeline = animation.timelines.get(timelineId);
+		SpriterPackedKeys packed = timeline.packedKeys;
+
+		float alphaA, alphaB;
+		if (packed != null) {
+			int keyB = getNextXLineKey(packed, keyId, animation.looping);
+			alphaA = packed.alpha.get(keyId);
+			alphaB = keyB < 0 ? alphaA : packed.alpha.get(keyB);
+		} else {
+			SpriterTimelineKey keyA = timeline.keys.get(keyId);
+			SpriterTimelineKey keyB = getNextXLineKey(timeline.keys, keyA, animation.looping);
+			alphaA = keyA.objectInfo.alpha;
+			alphaB = keyB == null ? alphaA : keyB.objectInfo.alpha;
+		}
+
+		boolean invisible = (alphaA <= 0f && alphaB <= 0f)
+				|| (!entity && isHidden(getFile(timeline, keyId), configuration));
+		if (invisible)
+			countSkipped();
+
+		return invisible;
+	}
+
+	private static SpriterFileInfo getFile(SpriterTimeline timeline, int keyId) {
+		SpriterPackedKeys packed = timeline.packedKeys;
+		return packed != null ? packed.files[keyId] : timeline.keys.get(keyId).objectInfo.file;
+	}
+
+	private static boolean isHidden(SpriterFileInfo file, FrameDataUpdateConfiguration configuration) {
+		// Negative id means "don't display"
+		return file.folderId < 0 || file.fileId < 0
+				|| (configuration.hiddenFiles.size > 0 && configuration.hiddenFiles.contains(file));
+	}
+
+	private static void countSkipped() {
+		SpriterMetrics metrics = SpriterProfiler.current;
+		if (metrics != null)
+			metrics.objectsSkipped++;
+	}
+
+	private static boolean isConstant(SpriterTimeline timeline, int keyId) {
+		// Flagged by SpriterConstantFolder, value can be copied as is
+		boolean[] constantKeys = timeline.constantKeys;
+		if (constantKeys == null || !constantKeys[keyId])
+			return false;
+		SpriterMetrics metrics = SpriterProfiler.current;
+		if (metrics != null)
+			metrics.objectsFolded++;
+		return true;
+	}
+
+	private static SpriterDrawSequence getDrawSequence(SpriterMainlineKey key, SpriterAnimation animation) {
+		SpriterDrawSequence sequence = key.drawSequence;
+		if (sequence == null) {
+			sequence = SpriterDrawSequence.compile(key, animation);
+			key.drawSequence = sequence;
+		}
+		return sequence;
+	}
+
+	private static boolean[] requiredBonesBuffer = new boolean[16];
+
+	private static boolean[] getRequiredBones(SpriterMainlineKey key, SpriterAnimation animation,
+			FrameDataUpdateConfiguration configuration) {
+		int boneCount = key.boneRefs.size;
+		if (boneCount == 0)
+			return null;
+
+		if (requiredBonesBuffer.length < boneCount)
+			requiredBonesBuffer = new boolean[boneCount];
+		boolean[] required = requiredBonesBuffer;
+		for (int i = 0; i < boneCount; ++i)
+			required[i] = false;
+
+		// Bones directly holding sampled objects
+		for (SpriterObjectRef objectRef : key.objectRefs) {
+			if (objectRef.parentId >= 0 && configuration.isSampled(animation.timelines.get(objectRef.timelineId)))
+				required[objectRef.parentId] = true;
+		}
+
+		addRequiredParentBones(required, key);
+
+		return required;
+	}
+
+	private static void addRequiredParentBones(boolean[] required, SpriterMainlineKey key) {
+		// Parents always come first, a single backward pass is enough
+		for (int i = key.boneRefs.size - 1; i >= 0; --i) {
+			int parentId = key.boneRefs.get(i).parentId;
+			if (required[i] && parentId >= 0)
+				required[parentId] = true;
+		}
 	}
 
 	private static SpriterSpatial[] getBoneInfos(SpriterMainlineKey key, SpriterAnimation animation, float targetTime,
-			SpriterSpatial parentInfo) {
+			SpriterSpatial parentInfo, boolean[] requiredBones) {
 		if (key.boneRefs.size == 0)
 			return null;
 
-		SpriterSpatial[] ret = new SpriterSpatial[key.boneRefs.size];
+		SpriterSpatial[] ret = obtainBoneInfos(key.boneRefs.size);
 
 		for (int i = 0; i < key.boneRefs.size; ++i) {
+			if (requiredBones != null && !requiredBones[i])
+				continue;
+
 			SpriterRef boneRef = key.boneRefs.get(i);
 			SpriterSpatial interpolated = getBoneInfo(boneRef, animation, targetTime);
 
@@ -571,19 +1060,61 @@ public class FrameData {
 		return ret;
 	}
 
-	private static SpriterMainlineKey[] getMainlineKeys(Array<SpriterMainlineKey> keys, float targetTime) {
-		SpriterMainlineKey keyA = lastKeyForTime(keys, targetTime);
+	// Bone buffers are stacked, nested entities and blends use several at once
+	private static SpriterSpatial[][] boneBuffers = new SpriterSpatial[4][];
+	private static int boneDepth = 0;
+
+	private static SpriterSpatial[] obtainBoneInfos(int size) {
+		if (boneDepth == boneBuffers.length) {
+			SpriterSpatial[][] buffers = new SpriterSpatial[boneDepth * 2][];
+			System.arraycopy(boneBuffers, 0, buffers, 0, boneDepth);
+			boneBuffers = buffers;
+		}
+
+		SpriterSpatial[] buffer = boneBuffers[boneDepth];
+		if (buffer == null || buffer.length < size)
+			boneBuffers[boneDepth] = buffer = new SpriterSpatial[size];
+		boneDepth++;
+		return buffer;
+	}
 
+	private static void freeBoneInfos(SpriterSpatial[] boneInfos) {
+		if (boneInfos == null)
+			return;
+		for (int i = 0; i < boneInfos.length; ++i) {
+			if (boneInfos[i] != null) {
+				Pools.spatials.free(boneInfos[i]);
+				boneInfos[i] = null;
+			}
+		}
+		boneDepth--;
+	}
+
+	private static SpriterMainlineKey getNextMainlineKey(Array<SpriterMainlineKey> keys, SpriterMainlineKey keyA) {
 		int nextKey = keyA.id + 1;
 		if (nextKey >= keys.size)
 			nextKey = 0;
-		SpriterMainlineKey keyB = keys.get(nextKey);
-
-		return new SpriterMainlineKey[] { keyA, keyB };
+		return keys.get(nextKey);
 	}
 
 	private static SpriterSpatial getBoneInfo(SpriterRef spriterRef, SpriterAnimation animation, float targetTime) {
+		SpriterMetrics metrics = SpriterProfiler.current;
+		if (metrics != null)
+			metrics.objectsSampled++;
+
 		SpriterTimeline timeline = animation.timelines.get(spriterRef.timelineId);
+		if (isConstant(timeline, spriterRef.keyId)) {
+			SpriterSpatial spatial = Pools.spatials.obtain();
+			if (timeline.packedKeys != null)
+				timeline.packedKeys.fill(spriterRef.keyId, spatial);
+			else
+				spatial.fill(timeline.keys.get(spriterRef.keyId).boneInfo);
+			return spatial;
+		}
+
+		if (timeline.packedKeys != null)
+			return getBoneInfo(timeline.packedKeys, spriterRef.keyId, animation, targetTime);
+
 		Array<SpriterTimelineKey> keys = timeline.keys;
 		SpriterTimelineKey keyA = keys.get(spriterRef.keyId);
 		SpriterTimelineKey keyB = getNextXLineKey(keys, keyA, animation.looping);
@@ -599,8 +1130,30 @@ public class FrameData {
 	}
 
 	private static SpriterObject getObjectInfo(SpriterRef spriterRef, SpriterAnimation animation, float targetTime) {
-		Array<SpriterTimelineKey> keys = animation.timelines.get(spriterRef.timelineId).keys;
-		SpriterTimelineKey keyA = keys.get(spriterRef.keyId);
+		return getObjectInfo(spriterRef.timelineId, spriterRef.keyId, animation, targetTime);
+	}
+
+	private static SpriterObject getObjectInfo(int timelineId, int keyId, SpriterAnimation animation,
+			float targetTime) {
+		SpriterMetrics metrics = SpriterProfiler.current;
+		if (metrics != null)
+			metrics.objectsSampled++;
+
+		SpriterTimeline timeline = animation.timelines.get(timelineId);
+		if (isConstant(timeline, keyId)) {
+			SpriterObject object = Pools.objects.obtain();
+			if (timeline.packedKeys != null)
+				timeline.packedKeys.fill(keyId, object);
+			else
+				object.fill(timeline.keys.get(keyId).objectInfo);
+			return object;
+		}
+
+		if (timeline.packedKeys != null)
+			return getObjectInfo(timeline.packedKeys, keyId, animation, targetTime);
+
+		Array<SpriterTimelineKey> keys = timeline.keys;
+		SpriterTimelineKey keyA = keys.get(keyId);
 		SpriterTimelineKey keyB = getNextXLineKey(keys, keyA, animation.looping);
 
 		if (keyB == null) {
@@ -613,6 +1166,59 @@ public class FrameData {
 		return interpolate(keyA.objectInfo, keyB.objectInfo, factor, keyA.spin);
 	}
 
+	private static SpriterSpatial getBoneInfo(SpriterPackedKeys keys, int keyA, SpriterAnimation animation,
+			float targetTime) {
+		int keyB = getNextXLineKey(keys, keyA, animation.looping);
+
+		SpriterSpatial spatial = Pools.spatials.obtain();
+
+		if (keyB < 0) {
+			keys.fill(keyA, spatial);
+			return spatial;
+		}
+
+		float f = getFactor(keys, keyA, keyB, animation.length, targetTime);
+		int spin = keys.getSpin(keyA);
+
+		spatial.angle = MathHelper.angleLinear(keys.angle.get(keyA), keys.angle.get(keyB), spin, f);
+		spatial.x = MathHelper.linear(keys.x[keyA], keys.x[keyB], f);
+		spatial.y = MathHelper.linear(keys.y[keyA], keys.y[keyB], f);
+		spatial.scaleX = MathHelper.linear(keys.scaleX.get(keyA), keys.scaleX.get(keyB), f);
+		spatial.scaleY = MathHelper.linear(keys.scaleY.get(keyA), keys.scaleY.get(keyB), f);
+
+		return spatial;
+	}
+
+	private static SpriterObject getObjectInfo(SpriterPackedKeys keys, int keyA, SpriterAnimation animation,
+			float targetTime) {
+		int keyB = getNextXLineKey(keys, keyA, animation.looping);
+
+		SpriterObject object = Pools.objects.obtain();
+
+		if (keyB < 0) {
+			keys.fill(keyA, object);
+			return object;
+		}
+
+		float f = getFactor(keys, keyA, keyB, animation.length, targetTime);
+		int spin = keys.getSpin(keyA);
+
+		object.angle = MathHelper.angleLinear(keys.angle.get(keyA), keys.angle.get(keyB), spin, f);
+		object.alpha = MathHelper.linear(keys.alpha.get(keyA), keys.alpha.get(keyB), f);
+		object.x = MathHelper.linear(keys.x[keyA], keys.x[keyB], f);
+		object.y = MathHelper.linear(keys.y[keyA], keys.y[keyB], f);
+		object.scaleX = MathHelper.linear(keys.scaleX.get(keyA), keys.scaleX.get(keyB), f);
+		object.scaleY = MathHelper.linear(keys.scaleY.get(keyA), keys.scaleY.get(keyB), f);
+		object.pivotX = keys.pivotX == null ? Float.NaN : keys.pivotX[keyA];
+		object.pivotY = keys.pivotY == null ? Float.NaN : keys.pivotY[keyA];
+		object.file = keys.files[keyA];
+		object.entityId = keys.entityIds == null ? 0 : keys.entityIds[keyA];
+		object.animationId = keys.animationIds == null ? 0 : keys.animationIds[keyA];
+		object.t = keys.t == null ? 0f : MathHelper.linear(keys.t[keyA], keys.t[keyB], f);
+
+		return object;
+	}
+
 	private static SpriterSpatial interpolate(SpriterSpatial a, SpriterSpatial b, float f, int spin) {
 		SpriterSpatial spatial = Pools.spatials.obtain();
 
@@ -636,7 +1242,7 @@ public class FrameData {
 		object.scaleY = MathHelper.linear(a.scaleY, b.scaleY, f);
 		object.pivotX = a.pivotX;
 		object.pivotY = a.pivotY;
-		object.file = new SpriterFileInfo(a.file);
+		object.file = a.file;
 		object.entityId = a.entityId;
 		object.animationId = a.animationId;
 		object.t = MathHelper.linear(a.t, b.t, f);
@@ -644,39 +1250,53 @@ public class FrameData {
 		return object;
 	}
 
-	private static float adjustTime(SpriterKey keyA, SpriterKey keyB, float animationLength, float targetTime) {
+	static float adjustTime(SpriterKey keyA, SpriterKey keyB, float animationLength, float targetTime) {
 		float nextTime = keyB.time > keyA.time ? keyB.time : animationLength;
 		float factor = getFactor(keyA, keyB, animationLength, targetTime);
 		return MathHelper.linear(keyA.time, nextTime, factor);
 	}
 
-	private static float getFactor(SpriterKey keyA, SpriterKey keyB, float animationLength, float targetTime) {
-		float timeA = keyA.time;
-		float timeB = keyB.time;
+	static float getFactor(SpriterKey keyA, SpriterKey keyB, float animationLength, float targetTime) {
+		float factor = getFactor(keyA.time, keyB.time, animationLength, targetTime);
+		factor = keyA.curveType.applySpeedCurve(keyA, factor);
+		return factor;
+	}
+
+	static float getFactor(SpriterPackedKeys keys, int keyA, int keyB, float animationLength,
+			float targetTime) {
+		float factor = getFactor(keys.times[keyA], keys.times[keyB], animationLength, targetTime);
+		factor = keys.applySpeedCurve(keyA, factor);
+		return factor;
+	}
 
+	private static float getFactor(float timeA, float timeB, float animationLength, float targetTime) {
 		if (timeA > timeB) {
 			timeB += animationLength;
 			if (targetTime < timeA)
 				targetTime += animationLength;
 		}
 
-		float factor = MathHelper.reverseLinear(timeA, timeB, targetTime);
-		factor = keyA.curveType.applySpeedCurve(keyA, factor);
-		return factor;
+		return MathHelper.reverseLinear(timeA, timeB, targetTime);
 	}
 
-	private static <T extends SpriterKey> T lastKeyForTime(Array<T> keys, float targetTime) {
+	static <T extends SpriterKey> T lastKeyForTime(Array<T> keys, float targetTime) {
 		T current = keys.peek();
+		int searched = 0;
 		for (T key : keys) {
+			searched++;
 			if (key.time > targetTime)
 				break;
 			current = key;
 		}
 
+		SpriterMetrics metrics = SpriterProfiler.current;
+		if (metrics != null)
+			metrics.keysSearched += searched;
+
 		return current;
 	}
 
-	private static <T extends SpriterKey> T getNextXLineKey(Array<T> keys, T firstKey, boolean looping) {
+	static <T extends SpriterKey> T getNextXLineKey(Array<T> keys, T firstKey, boolean looping) {
 		if (keys.size < 2)
 			return null;
 
@@ -690,6 +1310,78 @@ public class FrameData {
 		return keys.get(keyBId);
 	}
 
+	static int getNextXLineKey(SpriterPackedKeys keys, int firstKey, boolean looping) {
+		if (keys.size < 2)
+			return -1;
+
+		int keyBId = firstKey + 1;
+		if (keyBId >= keys.size) {
+			if (!looping)
+				return -1;
+			keyBId = 0;
+		}
+
+		return keyBId;
+	}
+
+	/**
+	 * Get the remap table from timelines of an animation to timelines of
+	 * another one, matching timelines by name and object type. Tables are
+	 * computed once per pair of animations and cached in the source
+	 * animation.
+	 * 
+	 * @param from
+	 *            Source animation
+	 * @param to
+	 *            Target animation
+	 * @return Remap table, giving for each timeline id of source animation the
+	 *         matching timeline id of target animation or -1
+	 */
+	static int[] getTimelineRemap(SpriterAnimation from, SpriterAnimation to) {
+		IdentityMap<SpriterAnimation, int[]> remaps = from.timelineRemaps;
+		if (remaps == null) {
+			remaps = new IdentityMap<SpriterAnimation, int[]>();
+			from.timelineRemaps = remaps;
+		}
+
+		int[] remap = remaps.get(to);
+		if (remap == null) {
+			remap = new int[from.timelines.size];
+			for (int i = 0; i < remap.length; ++i) {
+				SpriterTimeline timeline = from.timelines.get(i);
+				remap[i] = -1;
+				for (int j = 0; j < to.timelines.size; ++j) {
+					SpriterTimeline candidate = to.timelines.get(j);
+					if (candidate.objectType == timeline.objectType && candidate.name != null
+							&& candidate.name.equals(timeline.name)) {
+						remap[i] = j;
+						break;
+					}
+				}
+			}
+			remaps.put(to, remap);
+		}
+
+		return remap;
+	}
+
+	private static int[] refIndicesBuffer = new int[16];
+
+	private static int[] getRefIndices(Array<? extends SpriterRef> refs, int timelineCount) {
+		int[] indices = refIndicesBuffer;
+		if (indices.length < timelineCount) {
+			indices = new int[timelineCount];
+			refIndicesBuffer = indices;
+		}
+
+		for (int i = 0; i < timelineCount; ++i)
+			indices[i] = -1;
+		for (int i = 0; i < refs.size; ++i)
+			indices[refs.get(i).timelineId] = i;
+
+		return indices;
+	}
+
 	static void applyParentTransform(SpriterSpatial child, SpriterSpatial parent) {
 		float px = parent.scaleX * child.x;
 		float py = parent.scaleY * child.y;
@@ -710,7 +1402,7 @@ public class FrameData {
 		return "FrameData [spriteData=" + this.spriteData + ", pointData=" + this.pointData + ", boxData="
 				+ this.boxData + ", animationVars=" + this.animationVars + ", objectVars=" + this.objectVars
 				+ ", animationTags=" + this.animationTags + ", objectTags=" + this.objectTags + ", events="
-				+ this.events + ", sounds=" + this.sounds + "]";
+				+ this.events + ", eventCounts=" + this.eventCounts + ", sounds=" + this.sounds + "]";
 	}
 
 }
@@ -20,6 +20,12 @@
 
 package net.spookygames.gdx.spriter;
 
+import com.badlogic.gdx.utils.ObjectSet;
+
+import net.spookygames.gdx.spriter.data.SpriterFileInfo;
+import net.spookygames.gdx.spriter.data.SpriterObjectType;
+import net.spookygames.gdx.spriter.data.SpriterTimeline;
+
 /**
  * The {@code FrameDataUpdateConfiguration} class specifies which part of a
  * {@link FrameData} should be updated during a call to
@@ -41,6 +47,57 @@ public class FrameDataUpdateConfiguration {
 	 */
 	public boolean spatial = true;
 
+	/**
+	 * Defines whether {@link FrameData#spriteData} should be updated, provided
+	 * spatial data is.
+	 */
+	public boolean sprites = true;
+
+	/**
+	 * Defines whether {@link FrameData#pointData} should be updated, provided
+	 * spatial data is.
+	 */
+	public boolean points = true;
+
+	/**
+	 * Defines whether {@link FrameData#boxData} should be updated, provided
+	 * spatial data is.
+	 */
+	public boolean boxes = true;
+
+	/**
+	 * Defines whether nested entities should be updated, provided spatial
+	 * data is.
+	 */
+	public boolean entities = true;
+
+	/**
+	 * Names of the only timelines (and objects) that should be updated. Every
+	 * timeline is updated if empty.
+	 * 
+	 * Restricting names applies to spatial data, object variables and object
+	 * tags, including those of nested entities. Bones that named objects
+	 * depend on are evaluated anyway.
+	 */
+	public final ObjectSet<String> names = new ObjectSet<String>();
+
+	/**
+	 * Defines whether invisible sprites and nested entities should be
+	 * updated, provided spatial data is. Invisible objects are either hidden
+	 * (their file is negative or in {@link #hiddenFiles}) or fully
+	 * transparent at both ends of their current key.
+	 * 
+	 * Points and boxes are always updated.
+	 */
+	public boolean invisible = false;
+
+	/**
+	 * Files of sprites that are not displayed, typically mapped to nothing by
+	 * character maps. {@link SpriterAnimator} maintains this set from its
+	 * current character maps.
+	 */
+	public final ObjectSet<SpriterFileInfo> hiddenFiles = new ObjectSet<SpriterFileInfo>();
+
 	/**
 	 * Defines whether {@link FrameData#animationTags},
 	 * {@link FrameData#animationVars}, {@link FrameData#objectTags} and
@@ -49,6 +106,15 @@ public class FrameDataUpdateConfiguration {
 	 */
 	public boolean tagsAndVariables = true;
 
+	/**
+	 * Defines whether {@link FrameData#animationTags} and
+	 * {@link FrameData#objectTags} should be filled with tag names, provided
+	 * tags and variables are updated. Tags are available through
+	 * {@link FrameData#hasTag(int)} and {@link FrameData#hasObjectTag(int, int)}
+	 * anyway.
+	 */
+	public boolean tagNames = true;
+
 	/**
 	 * Defines whether {@link FrameData#events} should be updated during a call
 	 * to {@link SpriterAnimator#update(float)}.
@@ -61,10 +127,59 @@ public class FrameDataUpdateConfiguration {
 	 */
 	public boolean sounds = true;
 
+	/**
+	 * Check whether given timeline should be updated according to object type
+	 * and name masks. Bones are only evaluated when required by another
+	 * object, so they are not masked.
+	 * 
+	 * @param timeline
+	 *            Timeline to check
+	 * @return True if timeline should be updated, false otherwise
+	 */
+	public boolean isSampled(SpriterTimeline timeline) {
+		if (!isSampled(timeline.objectType))
+			return false;
+		return names.size == 0 || names.contains(timeline.name);
+	}
+
+	/**
+	 * Check whether timelines of given object type should be updated.
+	 * 
+	 * @param type
+	 *            Object type to check
+	 * @return True if objects of given type should be updated, false otherwise
+	 */
+	public boolean isSampled(SpriterObjectType type) {
+		switch (type) {
+		case Sprite:
+			return sprites;
+		case Point:
+			return points;
+		case Box:
+			return boxes;
+		case Entity:
+			return entities;
+		default:
+			return true;
+		}
+	}
+
+	/**
+	 * Check whether some timelines may be skipped during update.
+	 * 
+	 * @return True if any object type or name mask applies, false otherwise
+	 */
+	public boolean isMasked() {
+		return !sprites || !points || !boxes || !entities || names.size > 0;
+	}
+
 	@Override
 	public String toString() {
-		return "FrameDataUpdateConfiguration [spatial=" + this.spatial + ", tagsAndVariables=" + this.tagsAndVariables
-				+ ", events=" + this.events + ", sounds=" + this.sounds + "]";
+		return "FrameDataUpdateConfiguration [spatial=" + this.spatial + ", sprites=" + this.sprites + ", points="
+				+ this.points + ", boxes=" + this.boxes + ", entities=" + this.entities + ", names=" + this.names
+				+ ", invisible=" + this.invisible + ", hiddenFiles=" + this.hiddenFiles
+				+ ", tagsAndVariables=" + this.tagsAndVariables + ", tagNames=" + this.tagNames + ", events=" + this.events + ", sounds="
+				+ this.sounds + "]";
 	}
 
 }
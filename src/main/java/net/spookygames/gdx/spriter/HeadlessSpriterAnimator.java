@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import com.badlogic.gdx.graphics.g2d.Sprite;
+
+import net.spookygames.gdx.spriter.data.SpriterAssetProvider;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterEntity;
+
+/**
+ * The {@code HeadlessSpriterAnimator} class is a {@link SpriterAnimator} that
+ * does not rely on any libGDX graphics or audio backend, for instance to run
+ * animations on a dedicated server.
+ * 
+ * It does not require any {@link SpriterAssetProvider}, never touches
+ * {@link Sprite}s nor sounds and cannot be drawn. Boxes, points, tags and
+ * variables are available from {@link #getCurrentFrameData()} as usual and
+ * events are dispatched to registered {@link SpriterAnimationListener}s during
+ * {@link #update(float)}. The bounding box is computed from file dimensions
+ * found in {@link SpriterData}.
+ * 
+ * @see SpriterAnimator
+ * 
+ * @author thorthur
+ * 
+ */
+public class HeadlessSpriterAnimator extends SpriterAnimator {
+
+	/**
+	 * Initialize a new {@code HeadlessSpriterAnimator} with given
+	 * {@link SpriterEntity}.
+	 * 
+	 * @param spriterEntity
+	 *            Entity to create an animator for
+	 */
+	public HeadlessSpriterAnimator(SpriterEntity spriterEntity) {
+		super(spriterEntity, true);
+	}
+
+}
@@ -21,6 +21,7 @@
 package net.spookygames.gdx.spriter;
 
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.Pool;
 
@@ -33,53 +34,326 @@ import net.spookygames.gdx.spriter.data.SpriterVarValue;
  * The {@code Pools} class contains several {@link Pool} instances for various
  * objects used by {@link FrameData}.
  * 
+ * Each pool keeps track of obtained, freed and outstanding objects, may be
+ * bounded in size and trimmed at will. A debug mode records where every
+ * object still outstanding has been obtained, in order to help finding leaks.
+ * 
  * @see FrameData
  * 
  * @author thorthur
  * 
  */
-class Pools {
+public class Pools {
 
-	static final Pool<SpriterObject> objects = new Pool<SpriterObject>() {
+	static final TrackedPool<SpriterObject> objects = new TrackedPool<SpriterObject>("objects") {
 		@Override
 		protected SpriterObject newObject() {
 			return new SpriterObject();
 		}
 	};
 
-	static final Pool<SpriterSpatial> spatials = new Pool<SpriterSpatial>() {
+	static final TrackedPool<SpriterSpatial> spatials = new TrackedPool<SpriterSpatial>("spatials") {
 		@Override
 		protected SpriterSpatial newObject() {
 			return new SpriterSpatial();
 		}
 	};
 
-	static final Pool<SpriterVarValue> varValues = new Pool<SpriterVarValue>() {
+	static final TrackedPool<SpriterVarValue> varValues = new TrackedPool<SpriterVarValue>("varValues") {
 		@Override
 		protected SpriterVarValue newObject() {
 			return new SpriterVarValue();
 		}
 	};
 
-	static final Pool<ObjectMap<String, SpriterVarValue>> varValuesMaps = new Pool<ObjectMap<String, SpriterVarValue>>() {
+	static final TrackedPool<ObjectMap<String, SpriterVarValue>> varValuesMaps = new TrackedPool<ObjectMap<String, SpriterVarValue>>(
+			"varValuesMaps") {
 		@Override
 		protected ObjectMap<String, SpriterVarValue> newObject() {
 			return new ObjectMap<String, SpriterVarValue>();
 		}
 	};
 
-	static final Pool<Array<String>> stringArrays = new Pool<Array<String>>() {
+	static final TrackedPool<Array<String>> stringArrays = new TrackedPool<Array<String>>("stringArrays") {
 		@Override
 		protected Array<String> newObject() {
 			return new Array<String>();
 		}
 	};
 
-	static final Pool<SpriterSound> sounds = new Pool<SpriterSound>() {
+	static final TrackedPool<SpriterSound> sounds = new TrackedPool<SpriterSound>("sounds") {
 		@Override
 		protected SpriterSound newObject() {
 			return new SpriterSound();
 		}
 	};
 
+	private static final TrackedPool<?>[] all = { objects, spatials, varValues, varValuesMaps, stringArrays, sounds };
+
+	private static boolean leakTracking = false;
+
+	private Pools() {
+	}
+
+	/**
+	 * Get all pools used by {@link FrameData}.
+	 * 
+	 * @param out
+	 *            Array to fill with pools
+	 * @return The given array, for chaining
+	 */
+	public static Array<TrackedPool<?>> getPools(Array<TrackedPool<?>> out) {
+		out.addAll(all);
+		return out;
+	}
+
+	/**
+	 * Get the pool of given name.
+	 * 
+	 * @param name
+	 *            Name of the pool
+	 * @return The pool with given name, or null if there is none
+	 */
+	public static TrackedPool<?> getPool(String name) {
+		for (TrackedPool<?> pool : all) {
+			if (pool.name.equals(name))
+				return pool;
+		}
+		return null;
+	}
+
+	/**
+	 * Set the maximum number of free objects kept by every pool.
+	 * 
+	 * @param maximumSize
+	 *            Maximum number of free objects per pool
+	 */
+	public static void setMaximumSize(int maximumSize) {
+		for (TrackedPool<?> pool : all)
+			pool.setMaximumSize(maximumSize);
+	}
+
+	/**
+	 * Discard free objects of every pool so that at most given number of
+	 * objects remain in each of them.
+	 * 
+	 * @param retained
+	 *            Number of free objects to keep per pool
+	 * @return Number of discarded objects
+	 */
+	public static int trim(int retained) {
+		int trimmed = 0;
+		for (TrackedPool<?> pool : all)
+			trimmed += pool.trim(retained);
+		return trimmed;
+	}
+
+	/**
+	 * Reset obtained, freed and peak counters of every pool.
+	 */
+	public static void resetStatistics() {
+		for (TrackedPool<?> pool : all)
+			pool.resetStatistics();
+	}
+
+	public static boolean isLeakTracking() {
+		return leakTracking;
+	}
+
+	/**
+	 * Enable or disable leak tracking. When enabled, every object obtained
+	 * from a pool records its call site until it is freed, which is costly.
+	 * Disabling leak tracking forgets recorded call sites.
+	 * 
+	 * @param leakTracking
+	 *            True to record call sites of obtained objects
+	 */
+	public static void setLeakTracking(boolean leakTracking) {
+		Pools.leakTracking = leakTracking;
+		if (!leakTracking) {
+			for (TrackedPool<?> pool : all)
+				pool.callSites.clear();
+		}
+	}
+
+	/**
+	 * Get call sites of objects obtained while leak tracking was enabled and
+	 * never freed since, for every pool.
+	 * 
+	 * @param out
+	 *            Array to fill with call sites
+	 * @return The given array, for chaining
+	 */
+	public static Array<Throwable> getLeaks(Array<Throwable> out) {
+		for (TrackedPool<?> pool : all)
+			pool.getLeaks(out);
+		return out;
+	}
+
+	/**
+	 * Pool keeping statistics about its usage, counting obtained and freed
+	 * objects into {@link SpriterMetrics} being recorded, if any.
+	 */
+	public abstract static class TrackedPool<T> extends Pool<T> {
+
+		private final String name;
+
+		private int maximumSize = Integer.MAX_VALUE;
+
+		private long obtained = 0;
+		private long freed = 0;
+		private int outstanding = 0;
+		private int peakOutstanding = 0;
+
+		private final IdentityMap<T, Throwable> callSites = new IdentityMap<T, Throwable>();
+
+		TrackedPool(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getMaximumSize() {
+			return maximumSize;
+		}
+
+		/**
+		 * Set the maximum number of free objects kept by this pool. Objects
+		 * freed once this size is reached are discarded. Free objects in
+		 * excess are discarded immediately.
+		 * 
+		 * @param maximumSize
+		 *            Maximum number of free objects
+		 */
+		public void setMaximumSize(int maximumSize) {
+			if (maximumSize < 0)
+				throw new IllegalArgumentException("Maximum size must be positive");
+			this.maximumSize = maximumSize;
+			trim(maximumSize);
+		}
+
+		/**
+		 * Get the number of objects obtained since last statistics reset.
+		 * 
+		 * @return Number of obtained objects
+		 */
+		public long getObtained() {
+			return obtained;
+		}
+
+		/**
+		 * Get the number of objects freed since last statistics reset.
+		 * 
+		 * @return Number of freed objects
+		 */
+		public long getFreed() {
+			return freed;
+		}
+
+		/**
+		 * Get the number of objects currently obtained and not freed yet.
+		 * 
+		 * @return Number of outstanding objects
+		 */
+		public int getOutstanding() {
+			return outstanding;
+		}
+
+		/**
+		 * Get the highest number of outstanding objects since last statistics
+		 * reset.
+		 * 
+		 * @return Peak number of outstanding objects
+		 */
+		public int getPeakOutstanding() {
+			return peakOutstanding;
+		}
+
+		/**
+		 * Reset obtained, freed and peak counters. Outstanding objects are
+		 * still accounted for.
+		 */
+		public void resetStatistics() {
+			obtained = 0;
+			freed = 0;
+			peakOutstanding = outstanding;
+			peak = getFree();
+		}
+
+		/**
+		 * Discard free objects so that at most given number of objects remain
+		 * in this pool.
+		 * 
+		 * @param retained
+		 *            Number of free objects to keep
+		 * @return Number of discarded objects
+		 */
+		public int trim(int retained) {
+			int trimmed = 0;
+			while (getFree() > retained) {
+				super.obtain();
+				trimmed++;
+			}
+			return trimmed;
+		}
+
+		/**
+		 * Get call sites of objects obtained while leak tracking was enabled
+		 * and never freed since.
+		 * 
+		 * @param out
+		 *            Array to fill with call sites
+		 * @return The given array, for chaining
+		 */
+		public Array<Throwable> getLeaks(Array<Throwable> out) {
+			for (Throwable callSite : callSites.values())
+				out.add(callSite);
+			return out;
+		}
+
+		@Override
+		public T obtain() {
+			SpriterMetrics metrics = SpriterProfiler.current;
+			if (metrics != null)
+				metrics.poolObtains++;
+			obtained++;
+			if (++outstanding > peakOutstanding)
+				peakOutstanding = outstanding;
+			T object = super.obtain();
+			if (leakTracking)
+				callSites.put(object, new Throwable(name + " object obtained here was never freed"));
+			return object;
+		}
+
+		@Override
+		public void free(T object) {
+			if (object == null)
+				throw new IllegalArgumentException("object cannot be null.");
+			SpriterMetrics metrics = SpriterProfiler.current;
+			if (metrics != null)
+				metrics.poolFrees++;
+			freed++;
+			outstanding--;
+			if (leakTracking)
+				callSites.remove(object);
+			if (getFree() < maximumSize)
+				super.free(object);
+		}
+
+		@Override
+		public void freeAll(Array<T> objects) {
+			for (int i = 0; i < objects.size; ++i)
+				free(objects.get(i));
+		}
+
+		@Override
+		public String toString() {
+			return "TrackedPool [name=" + name + ", obtained=" + obtained + ", freed=" + freed + ", outstanding="
+					+ outstanding + ", peakOutstanding=" + peakOutstanding + ", free=" + getFree()
+					+ ", maximumSize=" + maximumSize + "]";
+		}
+	}
+
 }
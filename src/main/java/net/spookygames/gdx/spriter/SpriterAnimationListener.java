@@ -50,6 +50,9 @@ public interface SpriterAnimationListener {
 	 * Triggered once an event happens in a {@link SpriterAnimation} played by a
 	 * {@link SpriterAnimator}.
 	 * 
+	 * An event key crossed several times by a single update is only
+	 * triggered once, see {@link FrameData#eventCounts}.
+	 * 
 	 * @param animator
 	 *            Animator playing the animation
 	 * @param event
@@ -20,15 +20,20 @@
 
 package net.spookygames.gdx.spriter;
 
+import java.util.Arrays;
+
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.IntMap;
 import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
 import com.badlogic.gdx.utils.SnapshotArray;
 
 import net.spookygames.gdx.spriter.data.SpriterAnimation;
@@ -43,6 +48,7 @@ import net.spookygames.gdx.spriter.data.SpriterObject;
 import net.spookygames.gdx.spriter.data.SpriterObjectInfo;
 import net.spookygames.gdx.spriter.data.SpriterSound;
 import net.spookygames.gdx.spriter.data.SpriterSpatial;
+import net.spookygames.gdx.spriter.data.SpriterVarValue;
 
 /**
  * The {@code SpriterAnimator} class is a central piece of gdx-spriter as it
@@ -69,13 +75,18 @@ public class SpriterAnimator {
 	private final SpriterData spriterData;
 	private final SpriterEntity entity;
 	private final SpriterAssetProvider assets;
+	private final boolean headless;
 	private final ObjectMap<String, SpriterAnimation> animations = new ObjectMap<String, SpriterAnimation>();
 
 	private SpriterAnimation currentAnimation = null;
 	private SpriterAnimation nextAnimation = null;
 	private final Array<SpriterCharacterMap> characterMaps = new Array<SpriterCharacterMap>(true, 12);
+	private final Array<SpriterCharacterMap> remappedCharacterMaps = new Array<SpriterCharacterMap>(true, 12);
+	private final ObjectMap<SpriterFileInfo, SpriterFileInfo> characterMapRemap = new ObjectMap<SpriterFileInfo, SpriterFileInfo>();
 	private final SnapshotArray<SpriterAnimationListener> listeners = new SnapshotArray<SpriterAnimationListener>(true,
 			12, SpriterAnimationListener.class);
+	private final SnapshotArray<SpriterEventListener> eventListeners = new SnapshotArray<SpriterEventListener>(true,
+			4, SpriterEventListener.class);
 
 	// This one will be used for all things geometric
 	private final SpriterSpatial spatial = new SpriterSpatial();
@@ -90,13 +101,37 @@ public class SpriterAnimator {
 	private float factor = 0f;
 
 	private final FrameDataUpdateConfiguration frameUpdateConfiguration = new FrameDataUpdateConfiguration();
-	private final FrameData frameData = new FrameData();
+	private FrameData frameData = new FrameData();
+
+	// Pose of the sampling cache, read in place of frameData until modified
+	private FrameData sharedPose = null;
+
+	// Fixed-step mode keeps the pose of previous simulation step
+	private FrameData previousFrameData = null;
+	private boolean continuous = false;
+	private boolean interpolable = false;
+	private final SpriterObject stepTmp = new SpriterObject();
 
 	private final Rectangle boundingBox = new Rectangle();
 	private boolean dirtyBoundingBox = true;
 
+	private final IntMap<SpriterHitbox> hitboxCache = new IntMap<SpriterHitbox>();
+	private final Array<SpriterHitbox> hitboxes = new Array<SpriterHitbox>();
+	private boolean dirtyHitboxes = true;
+
+	private SpriterHandles handles = null;
+	private SpriterObject[] handlePoints = null;
+	private SpriterVarValue[] handleVariables = null;
+	private boolean dirtyHandles = true;
+
 	private final SpriterObject tmp = new SpriterObject();
 
+	private SpriterMetrics metrics = null;
+
+	private SpriterVertexCache vertexCache = null;
+
+	private SpriterSamplingCache samplingCache = null;
+
 	/**
 	 * Initialize a new {@code SpriterAnimator} with given {@link SpriterEntity}
 	 * .
@@ -108,13 +143,36 @@ public class SpriterAnimator {
 	 *            Entity to create an animator for
 	 */
 	public SpriterAnimator(SpriterEntity spriterEntity) {
+		this(spriterEntity, false);
+	}
+
+	/**
+	 * Initialize a new {@code SpriterAnimator} with given {@link SpriterEntity}
+	 * , headless or not.
+	 * 
+	 * A headless animator does not require any {@link SpriterAssetProvider},
+	 * never plays sounds, cannot be drawn and dispatches events during
+	 * {@link #update(float)}.
+	 * 
+	 * @param spriterEntity
+	 *            Entity to create an animator for
+	 * @param headless
+	 *            True to create a headless animator
+	 * 
+	 * @see HeadlessSpriterAnimator
+	 */
+	protected SpriterAnimator(SpriterEntity spriterEntity, boolean headless) {
 		entity = spriterEntity;
 		spriterData = spriterEntity.data;
 
-		if (spriterData.assetProvider == null)
+		if (!headless && spriterData.assetProvider == null)
 			throw new IllegalArgumentException("Asset provider of SpriterData cannot be null");
 
-		assets = spriterData.assetProvider;
+		this.headless = headless;
+		assets = headless ? null : spriterData.assetProvider;
+
+		if (headless)
+			frameUpdateConfiguration.sounds = false;
 
 		for (SpriterAnimation animation : spriterEntity.animations)
 			animations.put(animation.name, animation);
@@ -138,6 +196,16 @@ public class SpriterAnimator {
 		return entity;
 	}
 
+	/**
+	 * Check whether this {@link SpriterAnimator} is headless, that is it does
+	 * not rely on any graphics or audio backend.
+	 * 
+	 * @return True if this animator is headless, false otherwise
+	 */
+	public boolean isHeadless() {
+		return headless;
+	}
+
 	/**
 	 * Get names of all {@link SpriterAnimation}s available for current
 	 * {@link SpriterEntity}.
@@ -292,6 +360,41 @@ public class SpriterAnimator {
 		return listeners.removeValue(listener, true);
 	}
 
+	/**
+	 * Add a {@link SpriterEventListener} to this {@link SpriterAnimator}. It
+	 * is triggered after {@link SpriterAnimationListener}s.
+	 * 
+	 * @param listener
+	 *            Event listener to add
+	 */
+	public void addEventListener(SpriterEventListener listener) {
+		eventListeners.add(listener);
+	}
+
+	/**
+	 * Remove a {@link SpriterEventListener} from this {@link SpriterAnimator}.
+	 * 
+	 * @param listener
+	 *            Event listener to remove
+	 * @return True if the listener was effectively removed, false otherwise.
+	 */
+	public boolean removeEventListener(SpriterEventListener listener) {
+		return eventListeners.removeValue(listener, true);
+	}
+
+	/**
+	 * Get the {@link SpriterHandles} resolving names of the
+	 * {@link SpriterEntity} behind this {@link SpriterAnimator} to integer
+	 * handles. Handle values are the same for all animators of the entity.
+	 * 
+	 * @return Handles of current entity
+	 */
+	public SpriterHandles getHandles() {
+		if (handles == null)
+			handles = new SpriterHandles(entity);
+		return handles;
+	}
+
 	/**
 	 * Get the name of the {@link SpriterAnimation} currently playing.
 	 * 
@@ -352,6 +455,7 @@ public class SpriterAnimator {
 	 */
 	public void setProgress(float progress) {
 		this.time = progress * currentAnimation.length;
+		this.continuous = false;
 	}
 
 	/**
@@ -373,6 +477,7 @@ public class SpriterAnimator {
 	 */
 	public void setTime(float time) {
 		this.time = time;
+		this.continuous = false;
 	}
 
 	/**
@@ -393,6 +498,7 @@ public class SpriterAnimator {
 	public void setX(float x) {
 		this.spatial.x = x;
 		dirtyBoundingBox = true;
+		dirtyHitboxes = true;
 	}
 
 	/**
@@ -413,6 +519,7 @@ public class SpriterAnimator {
 	public void setY(float y) {
 		this.spatial.y = y;
 		dirtyBoundingBox = true;
+		dirtyHitboxes = true;
 	}
 
 	/**
@@ -427,6 +534,7 @@ public class SpriterAnimator {
 		this.spatial.x = x;
 		this.spatial.y = y;
 		dirtyBoundingBox = true;
+		dirtyHitboxes = true;
 	}
 
 	/**
@@ -447,6 +555,7 @@ public class SpriterAnimator {
 	public void setPivotX(float pivotX) {
 		this.pivotX = pivotX;
 		dirtyBoundingBox = true;
+		dirtyHitboxes = true;
 	}
 
 	/**
@@ -467,6 +576,7 @@ public class SpriterAnimator {
 	public void setPivotY(float pivotY) {
 		this.pivotY = pivotY;
 		dirtyBoundingBox = true;
+		dirtyHitboxes = true;
 	}
 
 	/**
@@ -481,6 +591,7 @@ public class SpriterAnimator {
 		this.pivotX = pivotX;
 		this.pivotY = pivotY;
 		dirtyBoundingBox = true;
+		dirtyHitboxes = true;
 	}
 
 	/**
@@ -501,6 +612,7 @@ public class SpriterAnimator {
 	public void setScaleX(float scaleX) {
 		this.spatial.scaleX = scaleX;
 		dirtyBoundingBox = true;
+		dirtyHitboxes = true;
 	}
 
 	/**
@@ -521,6 +633,7 @@ public class SpriterAnimator {
 	public void setScaleY(float scaleY) {
 		this.spatial.scaleY = scaleY;
 		dirtyBoundingBox = true;
+		dirtyHitboxes = true;
 	}
 
 	/**
@@ -535,6 +648,7 @@ public class SpriterAnimator {
 		this.spatial.scaleX = scaleX;
 		this.spatial.scaleY = scaleY;
 		dirtyBoundingBox = true;
+		dirtyHitboxes = true;
 	}
 
 	/**
@@ -555,6 +669,7 @@ public class SpriterAnimator {
 	public void setAngle(float angle) {
 		this.spatial.angle = angle;
 		dirtyBoundingBox = true;
+		dirtyHitboxes = true;
 	}
 
 	/**
@@ -581,6 +696,7 @@ public class SpriterAnimator {
 	public void setAlpha(float alpha) {
 		this.spatial.alpha = alpha;
 		dirtyBoundingBox = true;
+		dirtyHitboxes = true;
 	}
 
 	/**
@@ -598,12 +714,153 @@ public class SpriterAnimator {
 	 * Get current {@link FrameData} of this {@link SpriterAnimator}, as
 	 * generated by last call to {@link #update(float)}.
 	 * 
+	 * When the pose comes from a {@link SpriterSamplingCache}, it is copied
+	 * into this animator's own frame data first so that it may be modified.
+	 * 
 	 * @return Current frame data
 	 */
 	public FrameData getCurrentFrameData() {
+		if (sharedPose != null) {
+			FrameData.copy(sharedPose, frameData);
+			sharedPose = null;
+		}
 		return frameData;
 	}
 
+	/**
+	 * Check whether this {@link SpriterAnimator} records its own
+	 * {@link SpriterMetrics}.
+	 * 
+	 * @return True if metrics are recorded, false otherwise
+	 */
+	public boolean isMetricsEnabled() {
+		return metrics != null;
+	}
+
+	/**
+	 * Define whether this {@link SpriterAnimator} should record its own
+	 * {@link SpriterMetrics}. Recorded metrics are also aggregated by
+	 * {@link SpriterProfiler}. Disabling metrics discards recorded ones.
+	 * 
+	 * @param enabled
+	 *            True to record metrics, false otherwise (default)
+	 */
+	public void setMetricsEnabled(boolean enabled) {
+		if (!enabled)
+			metrics = null;
+		else if (metrics == null)
+			metrics = new SpriterMetrics();
+	}
+
+	/**
+	 * Get a snapshot of {@link SpriterMetrics} recorded by this
+	 * {@link SpriterAnimator} since metrics were enabled or last reset.
+	 * 
+	 * @param out
+	 *            Metrics to copy recorded metrics to
+	 * @return out, or null if metrics are not enabled
+	 * @see #setMetricsEnabled(boolean)
+	 */
+	public SpriterMetrics getMetrics(SpriterMetrics out) {
+		if (metrics == null)
+			return null;
+		out.set(metrics);
+		return out;
+	}
+
+	/**
+	 * Reset {@link SpriterMetrics} recorded by this {@link SpriterAnimator}.
+	 */
+	public void resetMetrics() {
+		if (metrics != null)
+			metrics.reset();
+	}
+
+	/**
+	 * Get the {@link SpriterVertexCache} used to draw this
+	 * {@link SpriterAnimator}, if any.
+	 * 
+	 * @return Current vertex cache, null if none
+	 */
+	public SpriterVertexCache getVertexCache() {
+		return vertexCache;
+	}
+
+	/**
+	 * Set the {@link SpriterVertexCache} used to draw this
+	 * {@link SpriterAnimator}. Vertex caching is disabled by default.
+	 * 
+	 * @param vertexCache
+	 *            Vertex cache to use, null to disable caching
+	 */
+	public void setVertexCache(SpriterVertexCache vertexCache) {
+		this.vertexCache = vertexCache;
+	}
+
+	/**
+	 * Get the {@link SpriterSamplingCache} shared by this
+	 * {@link SpriterAnimator}, if any.
+	 * 
+	 * @return Current sampling cache, null if none
+	 */
+	public SpriterSamplingCache getSamplingCache() {
+		return samplingCache;
+	}
+
+	/**
+	 * Set the {@link SpriterSamplingCache} this {@link SpriterAnimator} should
+	 * take its poses from. When set, time is quantized to the animation
+	 * interval and the frame update configuration of this animator only
+	 * applies to events and sounds: masks, {@code tagsAndVariables},
+	 * {@code hiddenFiles} and {@code invisible} are those of
+	 * {@link SpriterSamplingCache#getConfiguration()}. Character maps of this
+	 * animator still apply when drawing.
+	 * 
+	 * Shared poses are read in place until {@link #getCurrentFrameData()}
+	 * is called, and are only copied in fixed-step mode.
+	 * 
+	 * @param samplingCache
+	 *            Sampling cache to use, null to sample poses independently
+	 */
+	public void setSamplingCache(SpriterSamplingCache samplingCache) {
+		this.samplingCache = samplingCache;
+	}
+
+	/**
+	 * Check whether this {@link SpriterAnimator} runs in fixed-step mode.
+	 * 
+	 * @return True if fixed-step mode is enabled
+	 * @see #setFixedStep(boolean)
+	 */
+	public boolean isFixedStep() {
+		return previousFrameData != null;
+	}
+
+	/**
+	 * Enable or disable fixed-step mode. Defaults to false.
+	 * 
+	 * In fixed-step mode, {@link #update(float)} is meant to be called at a
+	 * fixed simulation rate, possibly lower than the render rate. The pose of
+	 * previous simulation step is kept and sprites are interpolated between
+	 * previous and current poses at draw time, see
+	 * {@link #draw(Batch, ShapeRenderer, float)}. Sounds are played and events
+	 * dispatched by {@link #update(float)}, once per simulation step, rather
+	 * than by draws.
+	 * 
+	 * Playing another animation, setting time or seeking breaks continuity:
+	 * the next step is drawn as is.
+	 * 
+	 * @param fixedStep
+	 *            True to enable fixed-step mode
+	 */
+	public void setFixedStep(boolean fixedStep) {
+		if (fixedStep == isFixedStep())
+			return;
+		previousFrameData = fixedStep ? new FrameData() : null;
+		continuous = false;
+		interpolable = false;
+	}
+
 	/**
 	 * Get current bounding {@link Rectangle} of this {@link SpriterAnimator}.
 	 * 
@@ -617,6 +874,99 @@ public class SpriterAnimator {
 		return boundingBox;
 	}
 
+	/**
+	 * Get world-space {@link SpriterHitbox}es of the boxes in current
+	 * {@link FrameData}. Position, scale, angle and pivot of this
+	 * {@link SpriterAnimator} apply.
+	 * 
+	 * Returned array and hitboxes are owned by this animator and reused from
+	 * one update to another.
+	 * 
+	 * @return Current hitboxes
+	 */
+	public Array<SpriterHitbox> getHitboxes() {
+		if (dirtyHitboxes) {
+			updateHitboxes();
+			dirtyHitboxes = false;
+		}
+		return hitboxes;
+	}
+
+	/**
+	 * Get world-space {@link SpriterHitbox} of given box in current
+	 * {@link FrameData}.
+	 * 
+	 * @param boxId
+	 *            Id of the box object
+	 * @return Current hitbox, or null if the box is not displayed
+	 */
+	public SpriterHitbox getHitbox(int boxId) {
+		Array<SpriterHitbox> hitboxes = getHitboxes();
+		for (int i = 0; i < hitboxes.size; ++i) {
+			SpriterHitbox hitbox = hitboxes.get(i);
+			if (hitbox.boxId == boxId)
+				return hitbox;
+		}
+		return null;
+	}
+
+	/**
+	 * Get world-space position of given point in current {@link FrameData}.
+	 * Position, scale, angle and pivot of this {@link SpriterAnimator} apply.
+	 * 
+	 * @param name
+	 *            Name of the point timeline
+	 * @param out
+	 *            Vector to store point position
+	 * @return The given vector, or null if the point is not displayed
+	 */
+	public Vector2 getPoint(String name, Vector2 out) {
+		return getPoint(getPose().pointData.get(name), out);
+	}
+
+	/**
+	 * Get world-space position of given point in current {@link FrameData},
+	 * given its handle. Position, scale, angle and pivot of this
+	 * {@link SpriterAnimator} apply.
+	 * 
+	 * @param point
+	 *            Point handle
+	 * @param out
+	 *            Vector to store point position
+	 * @return The given vector, or null if the point is not displayed
+	 * @see SpriterHandles#getPoint(String)
+	 */
+	public Vector2 getPoint(int point, Vector2 out) {
+		updateHandles();
+		return getPoint(handlePoints[point], out);
+	}
+
+	/**
+	 * Get the value of given animation variable in current {@link FrameData},
+	 * given its handle. The value is owned by the frame data and valid until
+	 * next update.
+	 * 
+	 * @param variable
+	 *            Variable handle
+	 * @return Current value, or null if the variable is not defined by current
+	 *         animation
+	 * @see SpriterHandles#getVariable(String)
+	 */
+	public SpriterVarValue getVariable(int variable) {
+		updateHandles();
+		return handleVariables[variable];
+	}
+
+	private Vector2 getPoint(SpriterObject info, Vector2 out) {
+		if (info == null)
+			return null;
+
+		SpriterObject object = tmp;
+		object.fill(info);
+		FrameData.applyParentTransform(object, spatial);
+		return out.set(object.x - this.pivotX, object.y - this.pivotY);
+	}
+
 	/**
 	 * Play given {@link SpriterAnimation} given its name. It becomes the
 	 * current animation of this {@link SpriterAnimator}.
@@ -629,6 +979,18 @@ public class SpriterAnimator {
 		play(animation);
 	}
 
+	/**
+	 * Play given {@link SpriterAnimation} given its handle. It becomes the
+	 * current animation of this {@link SpriterAnimator}.
+	 * 
+	 * @param animation
+	 *            Handle of the animation to play
+	 * @see SpriterHandles#getAnimation(String)
+	 */
+	public void play(int animation) {
+		play(entity.animations.get(animation));
+	}
+
 	/**
 	 * Play given {@link SpriterAnimation}. It becomes the current animation of
 	 * this {@link SpriterAnimator}.
@@ -637,7 +999,10 @@ public class SpriterAnimator {
 	 *            Animation to play
 	 */
 	public void play(SpriterAnimation animation) {
+		prepare(animation);
+
 		time = 0;
+		continuous = false;
 
 		SpriterAnimation former = currentAnimation;
 		currentAnimation = animation;
@@ -663,6 +1028,20 @@ public class SpriterAnimator {
 		transition(animations.get(animationName), totalTransitionTime);
 	}
 
+	/**
+	 * Play given {@link SpriterAnimation} next given its handle, progressively
+	 * blending from current animation to given one.
+	 * 
+	 * @param animation
+	 *            Handle of the animation to play next
+	 * @param totalTransitionTime
+	 *            Time before next animation is the only one being played
+	 * @see SpriterHandles#getAnimation(String)
+	 */
+	public void transition(int animation, float totalTransitionTime) {
+		transition(entity.animations.get(animation), totalTransitionTime);
+	}
+
 	/**
 	 * Play given {@link SpriterAnimation} next, progressively blending from
 	 * current animation to given one.
@@ -673,6 +1052,7 @@ public class SpriterAnimator {
 	 *            Time before next animation is the only one being played
 	 */
 	public void transition(SpriterAnimation animation, float totalTransitionTime) {
+		prepare(animation);
 		this.totalTransitionTime = totalTransitionTime;
 		transitionTime = 0;
 		nextAnimation = animation;
@@ -696,6 +1076,23 @@ public class SpriterAnimator {
 		blend(animations.get(first), animations.get(second), factor);
 	}
 
+	/**
+	 * Play two {@link SpriterAnimation}s given their handle, blending them
+	 * together with given weight factor.
+	 * 
+	 * @param first
+	 *            Handle of the first animation to display
+	 * @param second
+	 *            Handle of the second animation to display
+	 * @param factor
+	 *            Weight factor between first and second, should be between 0
+	 *            (display first only) and 1 (display second only)
+	 * @see SpriterHandles#getAnimation(String)
+	 */
+	public void blend(int first, int second, float factor) {
+		blend(entity.animations.get(first), entity.animations.get(second), factor);
+	}
+
 	/**
 	 * Play two {@link SpriterAnimation}s, blending them together with given
 	 * weight factor.
@@ -712,11 +1109,107 @@ public class SpriterAnimator {
 	 */
 	public void blend(SpriterAnimation first, SpriterAnimation second, float factor) {
 		play(first);
+		prepare(second);
 		nextAnimation = second;
 		totalTransitionTime = 0;
 		this.factor = factor;
 	}
 
+	/**
+	 * Store the whole playback state of this {@link SpriterAnimator} into
+	 * given {@link SpriterAnimatorState}, without allocation.
+	 * 
+	 * @param out
+	 *            State to fill
+	 * @return The given state, for chaining
+	 * @throws IllegalArgumentException
+	 *             If given state cannot hold all current character maps
+	 * @throws IllegalStateException
+	 *             If a current animation or character map does not belong to
+	 *             this animator's {@link SpriterEntity}, as it could not be
+	 *             restored; given state is then left untouched
+	 */
+	public SpriterAnimatorState snapshot(SpriterAnimatorState out) {
+		if (characterMaps.size > out.characterMaps.length)
+			throw new IllegalArgumentException("State cannot hold more than " + out.characterMaps.length
+					+ " character maps");
+
+		int current = indexOfAnimation(currentAnimation);
+		int next = indexOfAnimation(nextAnimation);
+		for (int i = 0; i < characterMaps.size; ++i) {
+			SpriterCharacterMap map = characterMaps.get(i);
+			if (!entity.characterMaps.contains(map, true))
+				throw new IllegalStateException("Character map " + map.name + " does not belong to entity "
+						+ entity.name);
+		}
+
+		out.currentAnimation = current;
+		out.nextAnimation = next;
+		out.time = time;
+		out.speed = speed;
+		out.totalTransitionTime = totalTransitionTime;
+		out.transitionTime = transitionTime;
+		out.factor = factor;
+		out.x = spatial.x;
+		out.y = spatial.y;
+		out.angle = spatial.angle;
+		out.scaleX = spatial.scaleX;
+		out.scaleY = spatial.scaleY;
+		out.alpha = spatial.alpha;
+		out.pivotX = pivotX;
+		out.pivotY = pivotY;
+		out.characterMapCount = characterMaps.size;
+		for (int i = 0; i < characterMaps.size; ++i)
+			out.characterMaps[i] = entity.characterMaps.indexOf(characterMaps.get(i), true);
+		return out;
+	}
+
+	private int indexOfAnimation(SpriterAnimation animation) {
+		if (animation == null)
+			return -1;
+		int index = entity.animations.indexOf(animation, true);
+		if (index < 0)
+			throw new IllegalStateException("Animation " + animation.name + " does not belong to entity "
+					+ entity.name);
+		return index;
+	}
+
+	/**
+	 * Restore the whole playback state of this {@link SpriterAnimator} from
+	 * given {@link SpriterAnimatorState}, without allocation. Listeners are
+	 * not notified.
+	 * 
+	 * Current {@link FrameData} is left as is, a call to
+	 * {@link #update(float)} resumes playback exactly as it went from the
+	 * moment the state was taken.
+	 * 
+	 * @param state
+	 *            State to restore
+	 */
+	public void restore(SpriterAnimatorState state) {
+		currentAnimation = state.currentAnimation < 0 ? null : entity.animations.get(state.currentAnimation);
+		nextAnimation = state.nextAnimation < 0 ? null : entity.animations.get(state.nextAnimation);
+		time = state.time;
+		continuous = false;
+		speed = state.speed;
+		totalTransitionTime = state.totalTransitionTime;
+		transitionTime = state.transitionTime;
+		factor = state.factor;
+		spatial.x = state.x;
+		spatial.y = state.y;
+		spatial.angle = state.angle;
+		spatial.scaleX = state.scaleX;
+		spatial.scaleY = state.scaleY;
+		spatial.alpha = state.alpha;
+		pivotX = state.pivotX;
+		pivotY = state.pivotY;
+		characterMaps.clear();
+		for (int i = 0; i < state.characterMapCount; ++i)
+			characterMaps.add(entity.characterMaps.get(state.characterMaps[i]));
+		dirtyBoundingBox = true;
+		dirtyHitboxes = true;
+	}
+
 	/**
 	 * Update current {@link SpriterAnimation} with given delta time.
 	 * 
@@ -734,12 +1227,125 @@ public class SpriterAnimator {
 		if (currentAnimation == null)
 			return;
 
+		updateCharacterMapRemap();
+
+		if (spriterData.animationSource != null) {
+			// Keep lazily loaded animations marked as used
+			prepare(currentAnimation);
+			prepare(nextAnimation);
+		}
+
+		boolean profiled = metrics != null || SpriterProfiler.isEnabled();
+		if (profiled)
+			SpriterProfiler.beginUpdate();
+
+		float elapsed = step(deltaTime, null);
+
+		if (previousFrameData != null) {
+			// Current pose becomes previous one, sampling overwrites the other
+			FrameData swap = previousFrameData;
+			previousFrameData = frameData;
+			frameData = swap;
+			interpolable = continuous;
+			continuous = true;
+		}
+
+		if (profiled)
+			SpriterProfiler.beginSample();
+
+		sharedPose = null;
+		if (nextAnimation == null && samplingCache != null) {
+			FrameData pose = samplingCache.get(currentAnimation, time);
+			if (previousFrameData == null) {
+				sharedPose = pose;
+			} else {
+				// Interpolation needs poses outliving the cache frame
+				FrameData.copy(pose, frameData);
+			}
+			FrameData.updateEventsAndSounds(frameData, frameUpdateConfiguration, currentAnimation, time, elapsed);
+		} else if (nextAnimation == null) {
+			FrameData.update(frameData, frameUpdateConfiguration, currentAnimation, time, elapsed);
+		} else {
+			FrameData.update(frameData, frameUpdateConfiguration, currentAnimation, nextAnimation, time, elapsed,
+					factor);
+		}
+
+		if (profiled)
+			SpriterProfiler.endSample();
+
+		if (previousFrameData != null) {
+			// Several steps may run between two draws, none should be lost
+			playSounds();
+			dispatchEvents(profiled);
+		} else if (headless) {
+			dispatchEvents(profiled);
+		}
+
+		if (profiled)
+			SpriterProfiler.endUpdate(currentAnimation, metrics);
+
+		dirtyBoundingBox = true;
+		dirtyHitboxes = true;
+		dirtyHandles = true;
+	}
+
+	/**
+	 * Move current {@link SpriterAnimation} by given delta time without
+	 * sampling skipped frames, whatever the number of loops.
+	 * 
+	 * Events and sounds crossed on the way are reported in given
+	 * {@link SpriterSeekResult} along with the number of times each key was
+	 * crossed, for both animations during a transition. They are neither
+	 * dispatched nor played. Transitions progress
+	 * and {@link SpriterAnimationListener}s are notified as in
+	 * {@link #update(float)}.
+	 * 
+	 * Current {@link FrameData} is left as is, call {@link #update(float)}
+	 * with a null delta time to sample the pose reached.
+	 * 
+	 * @param deltaTime
+	 *            Time (GDX time) to move by, may be negative
+	 * @param result
+	 *            Result to fill, cleared first
+	 * @return The given result, for chaining
+	 */
+	public SpriterSeekResult seek(float deltaTime, SpriterSeekResult result) {
+		result.clear();
+
+		if (currentAnimation == null)
+			return result;
+
+		if (spriterData.animationSource != null) {
+			prepare(currentAnimation);
+			prepare(nextAnimation);
+		}
+
+		float elapsed = step(deltaTime, result);
+		result.animation = currentAnimation;
+		result.add(currentAnimation, time, elapsed);
+		if (nextAnimation != null && currentAnimation.length > 0f) {
+			// Transition target moves along, as sampled by blending
+			float ratio = nextAnimation.length / currentAnimation.length;
+			result.nextAnimation = nextAnimation;
+			result.add(nextAnimation, time * ratio, elapsed * ratio);
+		}
+		continuous = false;
+
+		return result;
+	}
+
+	/**
+	 * Advance time and transition by given delta time, in constant time.
+	 * 
+	 * @return Spriter time actually elapsed, clamped for non-looping
+	 *         animations
+	 */
+	private float step(float deltaTime, SpriterSeekResult result) {
 		deltaTime *= 1000f; // We're talking milliseconds here
 		float elapsed = deltaTime * speed;
-		float length = currentAnimation.length;
 
 		if (nextAnimation != null && totalTransitionTime != 0.0f) {
-			elapsed += elapsed * factor * length / nextAnimation.length;
+			elapsed += elapsed * factor * currentAnimation.length / nextAnimation.length;
 
 			transitionTime += Math.abs(elapsed);
 			factor = transitionTime / totalTransitionTime;
@@ -751,46 +1357,35 @@ public class SpriterAnimator {
 			}
 		}
 
+		float length = currentAnimation.length;
+		float previousTime = time;
 		time += elapsed;
 
-		if (time < 0.0f) {
-			if (currentAnimation.looping) {
-				do {
+		if (time < 0.0f || time >= length) {
+			int loops = 1;
+
+			if (currentAnimation.looping && length > 0.0f) {
+				loops = Math.max(1, (int) Math.abs(Math.floor((double) time / length)));
+				time %= length;
+				if (time < 0.0f)
 					time += length;
-				} while (time < 0.0f);
+				if (time >= length) // Rounding
+					time = 0.0f;
 			} else {
-				time = 0.0f;
+				time = time < 0.0f ? 0.0f : length;
+				elapsed = time - previousTime;
 			}
 
-			SpriterAnimationListener[] items = listeners.begin();
-			for (int i = 0, n = listeners.size; i < n; i++)
-				items[i].onAnimationFinished(this, currentAnimation);
-			listeners.end();
-
-		} else if (time >= length) {
+			if (result != null)
+				result.loops = loops;
 
-			if (currentAnimation.looping) {
-				do {
-					time -= length;
-				} while (time >= length);
-			} else {
-				time = length;
-			}
-			
 			SpriterAnimationListener[] items = listeners.begin();
 			for (int i = 0, n = listeners.size; i < n; i++)
 				items[i].onAnimationFinished(this, currentAnimation);
 			listeners.end();
 		}
 
-		if (nextAnimation == null) {
-			FrameData.update(frameData, frameUpdateConfiguration, currentAnimation, time, deltaTime);
-		} else {
-			FrameData.update(frameData, frameUpdateConfiguration, currentAnimation, nextAnimation, time, deltaTime,
-					factor);
-		}
-
-		dirtyBoundingBox = true;
+		return elapsed;
 	}
 
 	/**
@@ -829,25 +1424,103 @@ public class SpriterAnimator {
 	 *            Renderer to draw points and boxes, no render if null
 	 */
 	public void draw(Batch batch, ShapeRenderer renderer) {
-		for (SpriterObject info : frameData.spriteData) {
-			SpriterObject object = tmp;
-			if (processObject(object, info))
-				drawObject(batch, assets.getSprite(object.file), object);
-		}
+		draw(batch, renderer, 1f);
+	}
 
-		for (SpriterSound info : frameData.sounds) {
-			SpriterFileInfo file = applyCharacterMaps(info.file);
-			if (file.folderId >= 0 && file.fileId >= 0) {
-				// Negative id means "don't display"
-				playSound(assets.getSound(file), info);
+	/**
+	 * Display data from current {@link FrameData}, interpolated from previous
+	 * simulation step in fixed-step mode.
+	 * 
+	 * @param batch
+	 *            Batch to draw sprites
+	 * @param alpha
+	 *            Progress between previous and current simulation steps,
+	 *            between 0 and 1
+	 * @see #draw(Batch, ShapeRenderer, float)
+	 */
+	public void draw(Batch batch, float alpha) {
+		draw(batch, null, alpha);
+	}
+
+	/**
+	 * Display data from current {@link FrameData}, see
+	 * {@link #draw(Batch, ShapeRenderer)}.
+	 * 
+	 * In fixed-step mode, sprites are interpolated between previous and
+	 * current simulation steps by given alpha, usually the time accumulated
+	 * since last step divided by the step duration. Angles take the short way
+	 * round. Points and boxes are taken from current step, sounds and events
+	 * are left to {@link #update(float)}. Alpha is of no use otherwise.
+	 * 
+	 * @param batch
+	 *            Batch to draw sprites
+	 * @param renderer
+	 *            Renderer to draw points and boxes, no render if null
+	 * @param alpha
+	 *            Progress between previous and current simulation steps,
+	 *            between 0 and 1
+	 * @see #setFixedStep(boolean)
+	 */
+	public void draw(Batch batch, ShapeRenderer renderer, float alpha) {
+		if (headless)
+			throw new UnsupportedOperationException("Headless animator cannot be drawn");
+
+		updateCharacterMapRemap();
+
+		boolean profiled = metrics != null || SpriterProfiler.isEnabled();
+		if (profiled)
+			SpriterProfiler.beginDraw();
+
+		boolean interpolated = previousFrameData != null && interpolable && alpha < 1f;
+		SpriterVertexCache cache = currentAnimation != null && nextAnimation == null && !interpolated ? vertexCache
+				: null;
+		int drawn = cache == null ? -1
+				: cache.draw(batch, currentAnimation, time, characterMaps, spatial, pivotX, pivotY);
+
+		if (drawn < 0) {
+			if (cache != null)
+				cache.begin();
+
+			alpha = MathUtils.clamp(alpha, 0f, 1f);
+			drawn = 0;
+			FrameData pose = getPose();
+			for (int i = 0, n = pose.spriteData.size; i < n; ++i) {
+				SpriterObject info = pose.spriteData.get(i);
+				if (interpolated) {
+					int previous = FrameData.getMatchingSprite(previousFrameData, pose, i);
+					if (previous >= 0) {
+						FrameData.interpolate(previousFrameData.spriteData.get(previous), info, alpha, stepTmp);
+						info = stepTmp;
+					}
+				}
+				SpriterObject object = tmp;
+				if (processObject(object, info)) {
+					drawObject(batch, assets.getSprite(object.file), object);
+					drawn++;
+				}
 			}
+
+			if (cache != null)
+				cache.end(batch, currentAnimation, time, characterMaps, spatial, pivotX, pivotY, drawn);
 		}
 
+		if (profiled)
+			SpriterProfiler.current.spritesDrawn += drawn;
+
+		// Sounds and events happen on simulation steps in fixed-step mode
+		boolean fixedStep = previousFrameData != null;
+
+		if (!fixedStep)
+			playSounds();
+
 		if (renderer != null)
 			drawDebug(renderer);
 
-		for (String eventName : frameData.events)
-			dispatchEvent(eventName);
+		if (!fixedStep)
+			dispatchEvents(profiled);
+
+		if (profiled)
+			SpriterProfiler.endDraw(currentAnimation, metrics);
 	}
 
 	/**
@@ -862,10 +1535,11 @@ public class SpriterAnimator {
 	 *            Renderer to draw points and boxes
 	 */
 	public void drawDebug(ShapeRenderer renderer) {
-		for (ObjectMap.Entry<String, SpriterObject> entry : frameData.pointData)
+		FrameData pose = getPose();
+		for (ObjectMap.Entry<String, SpriterObject> entry : pose.pointData)
 			drawPoint(renderer, entry.key, entry.value);
 
-		for (IntMap.Entry<SpriterObject> entry : frameData.boxData)
+		for (IntMap.Entry<SpriterObject> entry : pose.boxData)
 			drawBox(renderer, entity.objectInfos.get(entry.key), entry.value);
 	}
 
@@ -910,6 +1584,9 @@ public class SpriterAnimator {
 
 		sprite.draw(batch);
 
+		if (vertexCache != null && vertexCache.isRecording())
+			vertexCache.record(sprite.getTexture(), sprite.getVertices(), spatial.x, spatial.y);
+
 		// Restore colors
 		sprite.setColor(spriteColor);
 		batch.setColor(batchColor);
@@ -984,12 +1661,106 @@ public class SpriterAnimator {
 		listeners.end();
 	}
 
+	private void dispatchEvent(int event, int count) {
+		SpriterEventListener[] items = eventListeners.begin();
+		for (int i = 0, n = eventListeners.size; i < n; i++)
+			items[i].onEventTriggered(this, event, count);
+		eventListeners.end();
+	}
+
+	private void playSounds() {
+		if (headless)
+			return;
+
+		for (SpriterSound info : frameData.sounds) {
+			SpriterFileInfo file = applyCharacterMaps(info.file);
+			if (file.folderId >= 0 && file.fileId >= 0) {
+				// Negative id means "don't display"
+				playSound(assets.getSound(file), info);
+			}
+		}
+	}
+
+	private void dispatchEvents(boolean profiled) {
+		// Handles are resolved once per eventline
+		SpriterHandles handles = eventListeners.size == 0 ? null : getHandles();
+		for (int i = 0, n = frameData.events.size; i < n; i++) {
+			dispatchEvent(frameData.events.get(i));
+			if (handles != null)
+				dispatchEvent(handles.getEvent(frameData.eventAnimations.get(i), frameData.eventlineIndices.get(i)),
+						frameData.eventCounts.get(i));
+		}
+
+		if (profiled)
+			SpriterProfiler.current.eventsDispatched += frameData.events.size;
+	}
+
+	private void updateHandles() {
+		if (!dirtyHandles)
+			return;
+
+		SpriterHandles handles = getHandles();
+		if (handlePoints == null) {
+			handlePoints = new SpriterObject[handles.getPointCount()];
+			handleVariables = new SpriterVarValue[handles.getVariableCount()];
+		} else {
+			Arrays.fill(handlePoints, null);
+			Arrays.fill(handleVariables, null);
+		}
+
+		// Handles are resolved once per timeline, variable handles are indices
+		FrameData pose = getPose();
+		for (int i = 0, n = pose.points.size; i < n; i++) {
+			int point = handles.getPoint(pose.pointAnimations.get(i), pose.pointTimelines.get(i));
+			if (point >= 0)
+				handlePoints[point] = pose.points.get(i);
+		}
+
+		for (int i = 0, n = pose.variables.size; i < n; i++)
+			handleVariables[pose.variableHandles.get(i)] = pose.variables.get(i);
+
+		dirtyHandles = false;
+	}
+
+	private FrameData getPose() {
+		return sharedPose == null ? frameData : sharedPose;
+	}
+
+	private void updateHitboxes() {
+		hitboxes.clear();
+
+		for (IntMap.Entry<SpriterObject> entry : getPose().boxData) {
+			SpriterObjectInfo objectInfo = entity.objectInfos.get(entry.key);
+			SpriterHitbox hitbox = hitboxCache.get(entry.key);
+			if (hitbox == null) {
+				hitbox = new SpriterHitbox(this, entry.key, objectInfo);
+				hitboxCache.put(entry.key, hitbox);
+			}
+
+			SpriterObject object = tmp;
+			object.fill(entry.value);
+			FrameData.applyParentTransform(object, spatial);
+			object.x -= this.pivotX;
+			object.y -= this.pivotY;
+
+			hitbox.set(objectInfo, object);
+			hitboxes.add(hitbox);
+		}
+	}
+
 	private void updateBoundingBox() {
+		updateCharacterMapRemap();
+
 		boolean firstItem = true;
 
-		for (SpriterObject info : frameData.spriteData) {
+		for (SpriterObject info : getPose().spriteData) {
 			SpriterObject object = tmp;
-			if (processObject(object, info)) {
+			if (headless) {
+				if (processObject(object, info)) {
+					mergeBoundingBox(object, firstItem);
+					firstItem = false;
+				}
+			} else if (processObject(object, info)) {
 				Sprite sprite = assets.getSprite(object.file);
 
 				float originX = sprite.getWidth() * object.pivotX;
@@ -1012,6 +1783,40 @@ public class SpriterAnimator {
 		}
 	}
 
+	private void mergeBoundingBox(SpriterObject object, boolean firstItem) {
+		// Same as Sprite.getBoundingRectangle(), from file dimensions
+		SpriterFile file = spriterData.folders.get(object.file.folderId).files.get(object.file.fileId);
+
+		float originX = file.width * object.pivotX;
+		float originY = file.height * object.pivotY;
+
+		float cos = MathUtils.cosDeg(object.angle);
+		float sin = MathUtils.sinDeg(object.angle);
+
+		float minX = Float.MAX_VALUE;
+		float minY = Float.MAX_VALUE;
+		float maxX = -Float.MAX_VALUE;
+		float maxY = -Float.MAX_VALUE;
+
+		for (int corner = 0; corner < 4; ++corner) {
+			float localX = ((corner & 1) == 0 ? -originX : file.width - originX) * object.scaleX;
+			float localY = ((corner & 2) == 0 ? -originY : file.height - originY) * object.scaleY;
+			float x = object.x - this.pivotX + cos * localX - sin * localY;
+			float y = object.y - this.pivotY + sin * localX + cos * localY;
+			minX = Math.min(minX, x);
+			minY = Math.min(minY, y);
+			maxX = Math.max(maxX, x);
+			maxY = Math.max(maxY, y);
+		}
+
+		if (firstItem) {
+			boundingBox.set(minX, minY, maxX - minX, maxY - minY);
+		} else {
+			boundingBox.merge(minX, minY);
+			boundingBox.merge(maxX, maxY);
+		}
+	}
+
 	private boolean processObject(SpriterObject object, SpriterObject reference) {
 
 		SpriterFileInfo fileInfo = applyCharacterMaps(reference.file);
@@ -1035,18 +1840,52 @@ public class SpriterAnimator {
 		return true;
 	}
 
+	private void prepare(SpriterAnimation animation) {
+		prepare(spriterData, animation);
+	}
+
+	static void prepare(SpriterData data, SpriterAnimation animation) {
+		// Make sure lazily loaded animation body is available
+		if (animation == null || data.animationSource == null)
+			return;
+
+		data.animationSource.load(animation);
+	}
+
 	private SpriterFileInfo applyCharacterMaps(SpriterFileInfo file) {
-		// Check values from character maps
-		if (characterMaps.size > 0) {
-			for (int i = characterMaps.size - 1; i >= 0; i--) {
-				SpriterCharacterMap characterMap = characterMaps.get(i);
-				for (SpriterMapInstruction map : characterMap.maps) {
-					if (map.file.equals(file))
-						return map.target;
-				}
+		if (characterMapRemap.size == 0)
+			return file;
+
+		SpriterFileInfo target = characterMapRemap.get(file);
+		return target == null ? file : target;
+	}
+
+	private void updateCharacterMapRemap() {
+		// Character maps may be modified in place, see getCharacterMaps()
+		boolean changed = remappedCharacterMaps.size != characterMaps.size;
+		for (int i = 0; !changed && i < characterMaps.size; i++)
+			changed = remappedCharacterMaps.get(i) != characterMaps.get(i);
+
+		if (!changed)
+			return;
+
+		ObjectSet<SpriterFileInfo> hiddenFiles = frameUpdateConfiguration.hiddenFiles;
+		characterMapRemap.clear();
+		hiddenFiles.clear();
+
+		// Last map wins, then first instruction of a map
+		for (int i = characterMaps.size - 1; i >= 0; i--) {
+			for (SpriterMapInstruction map : characterMaps.get(i).maps) {
+				if (characterMapRemap.containsKey(map.file))
+					continue;
+				characterMapRemap.put(map.file, map.target);
+				// Negative id means "don't display"
+				if (map.target.folderId < 0 || map.target.fileId < 0)
+					hiddenFiles.add(map.file);
 			}
 		}
 
-		return file;
+		remappedCharacterMaps.clear();
+		remappedCharacterMaps.addAll(characterMaps);
 	}
 }
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import java.util.Arrays;
+
+/**
+ * The {@code SpriterAnimatorState} class holds the whole playback state of a
+ * {@link SpriterAnimator}, as taken by
+ * {@link SpriterAnimator#snapshot(SpriterAnimatorState)} and applied by
+ * {@link SpriterAnimator#restore(SpriterAnimatorState)}.
+ * 
+ * Animations and character maps are referenced by their index in the
+ * animator's entity, so that a state has a fixed size and can be reused
+ * without allocation, for instance in a rollback buffer.
+ * 
+ * @see SpriterAnimator#snapshot(SpriterAnimatorState)
+ * @see SpriterAnimator#restore(SpriterAnimatorState)
+ * 
+ * @author thorthur
+ * 
+ */
+public class SpriterAnimatorState {
+
+	public int currentAnimation = -1;
+	public int nextAnimation = -1;
+
+	public float time;
+	public float speed;
+	public float totalTransitionTime;
+	public float transitionTime;
+	public float factor;
+
+	public float x;
+	public float y;
+	public float angle;
+	public float scaleX;
+	public float scaleY;
+	public float alpha;
+	public float pivotX;
+	public float pivotY;
+
+	public int characterMapCount;
+	public final int[] characterMaps;
+
+	/**
+	 * Initialize a new {@code SpriterAnimatorState} able to hold up to 12
+	 * character maps.
+	 */
+	public SpriterAnimatorState() {
+		this(12);
+	}
+
+	/**
+	 * Initialize a new {@code SpriterAnimatorState} able to hold up to given
+	 * number of character maps.
+	 * 
+	 * @param characterMapCapacity
+	 *            Maximum number of character maps
+	 */
+	public SpriterAnimatorState(int characterMapCapacity) {
+		characterMaps = new int[characterMapCapacity];
+	}
+
+	/**
+	 * Copy given state into this one.
+	 * 
+	 * @param other
+	 *            State to copy
+	 */
+	public void set(SpriterAnimatorState other) {
+		if (other.characterMapCount > characterMaps.length)
+			throw new IllegalArgumentException("State cannot hold more than " + characterMaps.length
+					+ " character maps");
+
+		currentAnimation = other.currentAnimation;
+		nextAnimation = other.nextAnimation;
+		time = other.time;
+		speed = other.speed;
+		totalTransitionTime = other.totalTransitionTime;
+		transitionTime = other.transitionTime;
+		factor = other.factor;
+		x = other.x;
+		y = other.y;
+		angle = other.angle;
+		scaleX = other.scaleX;
+		scaleY = other.scaleY;
+		alpha = other.alpha;
+		pivotX = other.pivotX;
+		pivotY = other.pivotY;
+		characterMapCount = other.characterMapCount;
+		System.arraycopy(other.characterMaps, 0, characterMaps, 0, characterMapCount);
+	}
+
+	@Override
+	public String toString() {
+		return "SpriterAnimatorState [currentAnimation=" + currentAnimation + ", nextAnimation=" + nextAnimation
+				+ ", time=" + time + ", speed=" + speed + ", totalTransitionTime=" + totalTransitionTime
+				+ ", transitionTime=" + transitionTime + ", factor=" + factor + ", x=" + x + ", y=" + y + ", angle="
+				+ angle + ", scaleX=" + scaleX + ", scaleY=" + scaleY + ", alpha=" + alpha + ", pivotX=" + pivotX
+				+ ", pivotY=" + pivotY + ", characterMaps="
+				+ Arrays.toString(Arrays.copyOf(characterMaps, characterMapCount)) + "]";
+	}
+
+}
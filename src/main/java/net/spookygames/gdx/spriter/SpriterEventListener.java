@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+/**
+ * Interface for listening to events of a {@link SpriterAnimator} by handle
+ * rather than by name.
+ * 
+ * @see SpriterHandles#getEvent(String)
+ * 
+ * @author thorthur
+ * 
+ */
+public interface SpriterEventListener {
+
+	/**
+	 * Triggered once an event happens in an animation played by a
+	 * {@link SpriterAnimator}.
+	 * 
+	 * @param animator
+	 *            Animator playing the animation
+	 * @param event
+	 *            Handle of the event happening
+	 * @param count
+	 *            Number of times the event happened since previous update,
+	 *            more than 1 when a large delta time covers several loops
+	 * @see SpriterAnimator#addEventListener(SpriterEventListener)
+	 */
+	public void onEventTriggered(SpriterAnimator animator, int event, int count);
+
+}
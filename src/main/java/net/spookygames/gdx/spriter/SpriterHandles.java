@@ -0,0 +1,317 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterAnimationSource;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterEntity;
+import net.spookygames.gdx.spriter.data.SpriterEventline;
+import net.spookygames.gdx.spriter.data.SpriterObjectInfo;
+import net.spookygames.gdx.spriter.data.SpriterObjectType;
+import net.spookygames.gdx.spriter.data.SpriterTimeline;
+
+/**
+ * The {@code SpriterHandles} class resolves names of a {@link SpriterEntity}
+ * to stable integer handles, so that gameplay code looks names up once and
+ * then compares integers only.
+ * 
+ * Handles are valid for all animations of their entity:
+ * <ul>
+ * <li>animation handles are indices in {@link SpriterEntity#animations}</li>
+ * <li>event handles are indices of distinct eventline names</li>
+ * <li>point handles are indices of distinct point timeline names</li>
+ * <li>box handles are box ids, as used by
+ * {@link SpriterAnimator#getHitbox(int)}</li>
+ * <li>variable handles are indices in {@link SpriterEntity#variables}</li>
+ * <li>object handles are indices in {@link SpriterEntity#objectInfos}</li>
+ * <li>tag handles are indices in {@link SpriterData#tags}</li>
+ * </ul>
+ * Unknown names resolve to -1.
+ * 
+ * Event and point handles are numbered in animation order, then in document
+ * order within each animation. With lazy animation loading, names are taken
+ * from the {@link SpriterAnimationSource}, so handles do not depend on which
+ * animation bodies are loaded.
+ * 
+ * @see SpriterAnimator#getHandles()
+ * 
+ * @author thorthur
+ * 
+ */
+public class SpriterHandles {
+
+	private final ObjectIntMap<String> animations = new ObjectIntMap<String>();
+	private final ObjectIntMap<String> events = new ObjectIntMap<String>();
+	private final ObjectIntMap<String> points = new ObjectIntMap<String>();
+	private final ObjectIntMap<String> boxes = new ObjectIntMap<String>();
+	private final ObjectIntMap<String> variables = new ObjectIntMap<String>();
+	private final ObjectIntMap<String> objects = new ObjectIntMap<String>();
+	private final ObjectIntMap<String> tags = new ObjectIntMap<String>();
+
+	private final Array<String> eventNames = new Array<String>();
+	private final Array<String> pointNames = new Array<String>();
+	private final int variableCount;
+
+	// Handles of eventlines and timelines of animation bodies, by index
+	private final IdentityMap<SpriterAnimation, int[]> eventTables = new IdentityMap<SpriterAnimation, int[]>();
+	private final IdentityMap<SpriterAnimation, int[]> pointTables = new IdentityMap<SpriterAnimation, int[]>();
+
+	/**
+	 * Initialize a new {@code SpriterHandles} with names of given
+	 * {@link SpriterEntity}. Bodies of lazily loaded animations are not read.
+	 * 
+	 * @param entity
+	 *            Entity to resolve names of
+	 */
+	public SpriterHandles(SpriterEntity entity) {
+		SpriterAnimationSource source = entity.data == null ? null : entity.data.animationSource;
+		Array<String> names = new Array<String>();
+
+		for (int i = 0; i < entity.animations.size; ++i) {
+			SpriterAnimation animation = entity.animations.get(i);
+			if (!animations.containsKey(animation.name))
+				animations.put(animation.name, i);
+
+			names.clear();
+			if (source != null) {
+				source.getEventNames(animation, names);
+			} else if (animation.eventlines != null) {
+				for (SpriterEventline eventline : animation.eventlines)
+					names.add(eventline.name);
+			}
+			for (String name : names)
+				add(events, eventNames, name);
+
+			names.clear();
+			if (source != null) {
+				source.getPointNames(animation, names);
+			} else {
+				for (SpriterTimeline timeline : animation.timelines)
+					if (timeline.objectType == SpriterObjectType.Point)
+						names.add(timeline.name);
+			}
+			for (String name : names)
+				add(points, pointNames, name);
+		}
+
+		for (int i = 0; i < entity.objectInfos.size; ++i) {
+			SpriterObjectInfo objectInfo = entity.objectInfos.get(i);
+			if (objectInfo.objectType == SpriterObjectType.Box && !boxes.containsKey(objectInfo.name))
+				boxes.put(objectInfo.name, i);
+			if (!objects.containsKey(objectInfo.name))
+				objects.put(objectInfo.name, i);
+		}
+
+		if (entity.data != null && entity.data.tags != null) {
+			for (int i = 0; i < entity.data.tags.size; ++i) {
+				String name = entity.data.tags.get(i).name;
+				if (!tags.containsKey(name))
+					tags.put(name, i);
+			}
+		}
+
+		for (int i = 0; i < entity.variables.size; ++i) {
+			String name = entity.variables.get(i).name;
+			if (!variables.containsKey(name))
+				variables.put(name, i);
+		}
+		variableCount = entity.variables.size;
+	}
+
+	/**
+	 * Get the event handle of given eventline of a {@link SpriterAnimation}
+	 * body, resolved once per animation.
+	 */
+	int getEvent(SpriterAnimation animation, int eventline) {
+		int[] table = eventTables.get(animation);
+		if (table == null || table.length != animation.eventlines.size) {
+			table = new int[animation.eventlines.size];
+			for (int i = 0; i < table.length; ++i)
+				table[i] = events.get(animation.eventlines.get(i).name, -1);
+			eventTables.put(animation, table);
+		}
+		return table[eventline];
+	}
+
+	/**
+	 * Get the point handle of given {@link SpriterTimeline} of a
+	 * {@link SpriterAnimation} body, resolved once per animation.
+	 */
+	int getPoint(SpriterAnimation animation, SpriterTimeline timeline) {
+		int[] table = pointTables.get(animation);
+		if (table == null || table.length != animation.timelines.size) {
+			table = new int[animation.timelines.size];
+			for (int i = 0; i < table.length; ++i) {
+				SpriterTimeline t = animation.timelines.get(i);
+				table[i] = t.objectType == SpriterObjectType.Point ? points.get(t.name, -1) : -1;
+			}
+			pointTables.put(animation, table);
+		}
+		return table[timeline.id];
+	}
+
+	private static void add(ObjectIntMap<String> handles, Array<String> names, String name) {
+		if (name != null && !handles.containsKey(name)) {
+			handles.put(name, names.size);
+			names.add(name);
+		}
+	}
+
+	/**
+	 * Get the handle of given animation name.
+	 * 
+	 * @param name
+	 *            Name of the animation
+	 * @return Index of the animation in {@link SpriterEntity#animations}, -1 if unknown
+	 */
+	public int getAnimation(String name) {
+		return animations.get(name, -1);
+	}
+
+	/**
+	 * Get the handle of given event name.
+	 * 
+	 * @param name
+	 *            Name of the event
+	 * @return Event handle, -1 if unknown
+	 */
+	public int getEvent(String name) {
+		return events.get(name, -1);
+	}
+
+	/**
+	 * Get the handle of given point name.
+	 * 
+	 * @param name
+	 *            Name of the point
+	 * @return Point handle, -1 if unknown
+	 */
+	public int getPoint(String name) {
+		return points.get(name, -1);
+	}
+
+	/**
+	 * Get the handle of given box name.
+	 * 
+	 * @param name
+	 *            Name of the box
+	 * @return Box id, -1 if unknown
+	 */
+	public int getBox(String name) {
+		return boxes.get(name, -1);
+	}
+
+	/**
+	 * Get the handle of given variable name.
+	 * 
+	 * @param name
+	 *            Name of the variable
+	 * @return Index of the variable in {@link SpriterEntity#variables}, -1 if unknown
+	 */
+	public int getVariable(String name) {
+		return variables.get(name, -1);
+	}
+
+	/**
+	 * Get the handle of given object name.
+	 * 
+	 * @param name
+	 *            Name of the object
+	 * @return Index of the object in {@link SpriterEntity#objectInfos}, -1 if unknown
+	 */
+	public int getObject(String name) {
+		return objects.get(name, -1);
+	}
+
+	/**
+	 * Get the handle of given tag name.
+	 * 
+	 * @param name
+	 *            Name of the tag
+	 * @return Index of the tag in {@link SpriterData#tags}, -1 if unknown
+	 */
+	public int getTag(String name) {
+		return tags.get(name, -1);
+	}
+
+	/**
+	 * Get the name of given event handle.
+	 * 
+	 * @param event
+	 *            Event handle
+	 * @return Name of the event
+	 */
+	public String getEventName(int event) {
+		return eventNames.get(event);
+	}
+
+	/**
+	 * Get the name of given point handle.
+	 * 
+	 * @param point
+	 *            Point handle
+	 * @return Name of the point
+	 */
+	public String getPointName(int point) {
+		return pointNames.get(point);
+	}
+
+	/**
+	 * Get the number of event handles.
+	 * 
+	 * @return Number of distinct event names of the entity
+	 */
+	public int getEventCount() {
+		return eventNames.size;
+	}
+
+	/**
+	 * Get the number of point handles.
+	 * 
+	 * @return Number of distinct point names of the entity
+	 */
+	public int getPointCount() {
+		return pointNames.size;
+	}
+
+	/**
+	 * Get the number of variable handles.
+	 * 
+	 * @return Number of variables of the entity
+	 */
+	public int getVariableCount() {
+		return variableCount;
+	}
+
+	@Override
+	public String toString() {
+		return "SpriterHandles [animations=" + animations.size + ", events=" + eventNames.size + ", points="
+				+ pointNames.size + ", boxes=" + boxes.size + ", variables=" + variableCount + ", objects="
+				+ objects.size + ", tags=" + tags.size + "]";
+	}
+
+}
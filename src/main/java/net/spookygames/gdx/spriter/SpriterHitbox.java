@@ -0,0 +1,216 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+
+import net.spookygames.gdx.spriter.data.SpriterObject;
+import net.spookygames.gdx.spriter.data.SpriterObjectInfo;
+
+/**
+ * The {@code SpriterHitbox} class holds a world-space oriented box computed
+ * from a box object of a {@link SpriterAnimator}.
+ * 
+ * Hitboxes are maintained by their animator, see
+ * {@link SpriterAnimator#getHitboxes()}, and may be registered in a
+ * {@link SpriterHitboxGrid} for fast overlap queries.
+ * 
+ * @see SpriterAnimator#getHitboxes()
+ * @see SpriterHitboxGrid
+ * 
+ * @author thorthur
+ * 
+ */
+public class SpriterHitbox {
+
+	/**
+	 * Animator this hitbox belongs to.
+	 */
+	public final SpriterAnimator animator;
+
+	/**
+	 * Id of the box object.
+	 */
+	public final int boxId;
+
+	/**
+	 * Name of the box object.
+	 */
+	public final String name;
+
+	/**
+	 * World coordinates of the four corners, as x1, y1, ..., x4, y4.
+	 */
+	public final float[] vertices = new float[8];
+
+	public float minX;
+	public float minY;
+	public float maxX;
+	public float maxY;
+
+	private final float[] rectangleVertices = new float[8];
+
+	SpriterHitbox(SpriterAnimator animator, int boxId, SpriterObjectInfo objectInfo) {
+		this.animator = animator;
+		this.boxId = boxId;
+		this.name = objectInfo.name;
+	}
+
+	/**
+	 * Set corners of this hitbox from a box object in world space.
+	 * 
+	 * @param objectInfo
+	 *            Object info related to the box
+	 * @param box
+	 *            Box object, transformed to world space
+	 */
+	void set(SpriterObjectInfo objectInfo, SpriterObject box) {
+		float pivotX = Float.isNaN(box.pivotX) ? objectInfo.pivotX : box.pivotX;
+		float pivotY = Float.isNaN(box.pivotY) ? objectInfo.pivotY : box.pivotY;
+
+		float left = -pivotX * objectInfo.width * box.scaleX;
+		float right = (1f - pivotX) * objectInfo.width * box.scaleX;
+		float bottom = -pivotY * objectInfo.height * box.scaleY;
+		float top = (1f - pivotY) * objectInfo.height * box.scaleY;
+
+		float cos = MathUtils.cosDeg(box.angle);
+		float sin = MathUtils.sinDeg(box.angle);
+
+		setVertex(0, left, bottom, box.x, box.y, cos, sin);
+		setVertex(1, right, bottom, box.x, box.y, cos, sin);
+		setVertex(2, right, top, box.x, box.y, cos, sin);
+		setVertex(3, left, top, box.x, box.y, cos, sin);
+
+		minX = Math.min(Math.min(vertices[0], vertices[2]), Math.min(vertices[4], vertices[6]));
+		minY = Math.min(Math.min(vertices[1], vertices[3]), Math.min(vertices[5], vertices[7]));
+		maxX = Math.max(Math.max(vertices[0], vertices[2]), Math.max(vertices[4], vertices[6]));
+		maxY = Math.max(Math.max(vertices[1], vertices[3]), Math.max(vertices[5], vertices[7]));
+	}
+
+	private void setVertex(int index, float localX, float localY, float x, float y, float cos, float sin) {
+		vertices[index * 2] = x + localX * cos - localY * sin;
+		vertices[index * 2 + 1] = y + localX * sin + localY * cos;
+	}
+
+	/**
+	 * Check whether given point lies within this hitbox.
+	 * 
+	 * @param x
+	 *            X coordinate of the point
+	 * @param y
+	 *            Y coordinate of the point
+	 * @return True if the point is inside, false otherwise
+	 */
+	public boolean contains(float x, float y) {
+		if (x < minX || x > maxX || y < minY || y > maxY)
+			return false;
+
+		// Point must lie on the same side of every edge
+		float previous = 0f;
+		for (int i = 0; i < 8; i += 2) {
+			float x1 = vertices[i];
+			float y1 = vertices[i + 1];
+			float x2 = vertices[(i + 2) % 8];
+			float y2 = vertices[(i + 3) % 8];
+			float cross = (x2 - x1) * (y - y1) - (y2 - y1) * (x - x1);
+			if (cross * previous < 0f)
+				return false;
+			if (cross != 0f)
+				previous = cross;
+		}
+		return true;
+	}
+
+	/**
+	 * Check whether given axis-aligned {@link Rectangle} overlaps this
+	 * hitbox.
+	 * 
+	 * @param rectangle
+	 *            Rectangle to check
+	 * @return True if rectangle and hitbox overlap, false otherwise
+	 */
+	public boolean overlaps(Rectangle rectangle) {
+		if (rectangle.x > maxX || rectangle.x + rectangle.width < minX || rectangle.y > maxY
+				|| rectangle.y + rectangle.height < minY)
+			return false;
+
+		float[] other = rectangleVertices;
+		other[0] = rectangle.x;
+		other[1] = rectangle.y;
+		other[2] = rectangle.x + rectangle.width;
+		other[3] = rectangle.y;
+		other[4] = rectangle.x + rectangle.width;
+		other[5] = rectangle.y + rectangle.height;
+		other[6] = rectangle.x;
+		other[7] = rectangle.y + rectangle.height;
+
+		// Rectangle axes are already tested by bounds
+		return !isSeparated(vertices, other);
+	}
+
+	/**
+	 * Check whether given hitbox overlaps this one.
+	 * 
+	 * @param other
+	 *            Hitbox to check
+	 * @return True if hitboxes overlap, false otherwise
+	 */
+	public boolean overlaps(SpriterHitbox other) {
+		if (other.minX > maxX || other.maxX < minX || other.minY > maxY || other.maxY < minY)
+			return false;
+
+		return !isSeparated(vertices, other.vertices) && !isSeparated(other.vertices, vertices);
+	}
+
+	/**
+	 * Separating axis test, along edge normals of first box only.
+	 */
+	private static boolean isSeparated(float[] a, float[] b) {
+		for (int i = 0; i < 4; i += 2) {
+			float axisX = a[i + 3] - a[i + 1];
+			float axisY = a[i] - a[i + 2];
+
+			float minA = Float.MAX_VALUE, maxA = -Float.MAX_VALUE;
+			float minB = Float.MAX_VALUE, maxB = -Float.MAX_VALUE;
+			for (int j = 0; j < 8; j += 2) {
+				float projectionA = a[j] * axisX + a[j + 1] * axisY;
+				minA = Math.min(minA, projectionA);
+				maxA = Math.max(maxA, projectionA);
+				float projectionB = b[j] * axisX + b[j + 1] * axisY;
+				minB = Math.min(minB, projectionB);
+				maxB = Math.max(maxB, projectionB);
+			}
+
+			if (maxA < minB || maxB < minA)
+				return true;
+		}
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return "SpriterHitbox [boxId=" + boxId + ", name=" + name + ", minX=" + minX + ", minY=" + minY + ", maxX="
+				+ maxX + ", maxY=" + maxY + "]";
+	}
+
+}
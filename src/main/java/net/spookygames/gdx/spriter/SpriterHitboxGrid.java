@@ -0,0 +1,337 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * The {@code SpriterHitboxGrid} class is a broadphase for
+ * {@link SpriterHitbox}es of several {@link SpriterAnimator}s, based on a
+ * spatial hash of square cells.
+ * 
+ * Call {@link #update()} once animators have been updated. Only hitboxes that
+ * moved to other cells are rehashed. Point, rectangle and box queries then
+ * only test hitboxes sharing cells with the query.
+ * 
+ * @see SpriterHitbox
+ * @see SpriterAnimator#getHitboxes()
+ * 
+ * @author thorthur
+ * 
+ */
+public class SpriterHitboxGrid {
+
+	private final float cellSize;
+
+	private final IdentityMap<SpriterAnimator, IntMap<Entry>> animators = new IdentityMap<SpriterAnimator, IntMap<Entry>>();
+	private final LongMap<Array<Entry>> cells = new LongMap<Array<Entry>>();
+
+	private final Array<Entry> staleEntries = new Array<Entry>();
+
+	private final Pool<Entry> entryPool = new Pool<Entry>() {
+		@Override
+		protected Entry newObject() {
+			return new Entry();
+		}
+	};
+
+	private final Pool<Array<Entry>> cellPool = new Pool<Array<Entry>>() {
+		@Override
+		protected Array<Entry> newObject() {
+			return new Array<Entry>(false, 4);
+		}
+	};
+
+	private int updateStamp = 0;
+	private int queryStamp = 0;
+
+	/**
+	 * Initialize a new {@code SpriterHitboxGrid} with given cell size. Cells
+	 * should be about as large as common hitboxes.
+	 * 
+	 * @param cellSize
+	 *            Size of grid cells, in world units
+	 */
+	public SpriterHitboxGrid(float cellSize) {
+		if (cellSize <= 0f)
+			throw new IllegalArgumentException("Cell size must be strictly positive");
+		this.cellSize = cellSize;
+	}
+
+	public float getCellSize() {
+		return cellSize;
+	}
+
+	/**
+	 * Register given {@link SpriterAnimator}, its hitboxes will be hashed on
+	 * next {@link #update()}.
+	 * 
+	 * @param animator
+	 *            Animator to register
+	 */
+	public void add(SpriterAnimator animator) {
+		if (!animators.containsKey(animator))
+			animators.put(animator, new IntMap<Entry>());
+	}
+
+	/**
+	 * Unregister given {@link SpriterAnimator} and remove its hitboxes from
+	 * the grid.
+	 * 
+	 * @param animator
+	 *            Animator to unregister
+	 */
+	public void remove(SpriterAnimator animator) {
+		IntMap<Entry> entries = animators.remove(animator);
+		if (entries == null)
+			return;
+
+		for (Entry entry : entries.values())
+			free(entry);
+	}
+
+	/**
+	 * Unregister every {@link SpriterAnimator}.
+	 */
+	public void clear() {
+		for (IntMap<Entry> entries : animators.values()) {
+			for (Entry entry : entries.values())
+				free(entry);
+		}
+		animators.clear();
+	}
+
+	/**
+	 * Refresh hitboxes of every registered {@link SpriterAnimator}. Hitboxes
+	 * that stay within the same cells are not rehashed.
+	 */
+	public void update() {
+		int stamp = ++updateStamp;
+
+		for (IdentityMap.Entry<SpriterAnimator, IntMap<Entry>> animatorEntry : animators) {
+			IntMap<Entry> entries = animatorEntry.value;
+			Array<SpriterHitbox> hitboxes = animatorEntry.key.getHitboxes();
+
+			for (int i = 0; i < hitboxes.size; ++i) {
+				SpriterHitbox hitbox = hitboxes.get(i);
+				Entry entry = entries.get(hitbox.boxId);
+				if (entry == null) {
+					entry = entryPool.obtain();
+					entry.hitbox = hitbox;
+					entries.put(hitbox.boxId, entry);
+				}
+				entry.updateStamp = stamp;
+
+				int minCellX = cell(hitbox.minX);
+				int minCellY = cell(hitbox.minY);
+				int maxCellX = cell(hitbox.maxX);
+				int maxCellY = cell(hitbox.maxY);
+
+				if (entry.hashed && minCellX == entry.minCellX && minCellY == entry.minCellY
+						&& maxCellX == entry.maxCellX && maxCellY == entry.maxCellY)
+					continue;
+
+				unhash(entry);
+				entry.minCellX = minCellX;
+				entry.minCellY = minCellY;
+				entry.maxCellX = maxCellX;
+				entry.maxCellY = maxCellY;
+				hash(entry);
+			}
+
+			// Boxes that are not displayed anymore
+			for (Entry entry : entries.values()) {
+				if (entry.updateStamp != stamp)
+					staleEntries.add(entry);
+			}
+			for (int i = 0; i < staleEntries.size; ++i) {
+				Entry entry = staleEntries.get(i);
+				entries.remove(entry.hitbox.boxId);
+				free(entry);
+			}
+			staleEntries.clear();
+		}
+	}
+
+	/**
+	 * Find hitboxes containing given point.
+	 * 
+	 * @param x
+	 *            X coordinate of the point
+	 * @param y
+	 *            Y coordinate of the point
+	 * @param out
+	 *            Array to fill with hitboxes
+	 * @return The given array, for chaining
+	 */
+	public Array<SpriterHitbox> query(float x, float y, Array<SpriterHitbox> out) {
+		Array<Entry> cell = cells.get(key(cell(x), cell(y)));
+		if (cell == null)
+			return out;
+
+		for (int i = 0; i < cell.size; ++i) {
+			SpriterHitbox hitbox = cell.get(i).hitbox;
+			if (hitbox.contains(x, y))
+				out.add(hitbox);
+		}
+		return out;
+	}
+
+	/**
+	 * Find hitboxes overlapping given {@link Rectangle}.
+	 * 
+	 * @param rectangle
+	 *            Rectangle to check
+	 * @param out
+	 *            Array to fill with hitboxes
+	 * @return The given array, for chaining
+	 */
+	public Array<SpriterHitbox> query(Rectangle rectangle, Array<SpriterHitbox> out) {
+		int stamp = ++queryStamp;
+		int minCellX = cell(rectangle.x);
+		int minCellY = cell(rectangle.y);
+		int maxCellX = cell(rectangle.x + rectangle.width);
+		int maxCellY = cell(rectangle.y + rectangle.height);
+
+		for (int cellX = minCellX; cellX <= maxCellX; ++cellX) {
+			for (int cellY = minCellY; cellY <= maxCellY; ++cellY) {
+				Array<Entry> cell = cells.get(key(cellX, cellY));
+				if (cell == null)
+					continue;
+
+				for (int i = 0; i < cell.size; ++i) {
+					Entry entry = cell.get(i);
+					if (entry.queryStamp == stamp)
+						continue;
+					entry.queryStamp = stamp;
+					if (entry.hitbox.overlaps(rectangle))
+						out.add(entry.hitbox);
+				}
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Find hitboxes overlapping given one. Hitboxes belonging to the same
+	 * {@link SpriterAnimator} are ignored.
+	 * 
+	 * @param hitbox
+	 *            Hitbox to check
+	 * @param out
+	 *            Array to fill with hitboxes
+	 * @return The given array, for chaining
+	 */
+	public Array<SpriterHitbox> query(SpriterHitbox hitbox, Array<SpriterHitbox> out) {
+		int stamp = ++queryStamp;
+		int minCellX = cell(hitbox.minX);
+		int minCellY = cell(hitbox.minY);
+		int maxCellX = cell(hitbox.maxX);
+		int maxCellY = cell(hitbox.maxY);
+
+		for (int cellX = minCellX; cellX <= maxCellX; ++cellX) {
+			for (int cellY = minCellY; cellY <= maxCellY; ++cellY) {
+				Array<Entry> cell = cells.get(key(cellX, cellY));
+				if (cell == null)
+					continue;
+
+				for (int i = 0; i < cell.size; ++i) {
+					Entry entry = cell.get(i);
+					if (entry.queryStamp == stamp)
+						continue;
+					entry.queryStamp = stamp;
+					SpriterHitbox other = entry.hitbox;
+					if (other.animator != hitbox.animator && other.overlaps(hitbox))
+						out.add(other);
+				}
+			}
+		}
+		return out;
+	}
+
+	private int cell(float coordinate) {
+		return (int) Math.floor(coordinate / cellSize);
+	}
+
+	private static long key(int cellX, int cellY) {
+		return ((long) cellX << 32) | (cellY & 0xffffffffL);
+	}
+
+	private void hash(Entry entry) {
+		for (int cellX = entry.minCellX; cellX <= entry.maxCellX; ++cellX) {
+			for (int cellY = entry.minCellY; cellY <= entry.maxCellY; ++cellY) {
+				long key = key(cellX, cellY);
+				Array<Entry> cell = cells.get(key);
+				if (cell == null) {
+					cell = cellPool.obtain();
+					cells.put(key, cell);
+				}
+				cell.add(entry);
+			}
+		}
+		entry.hashed = true;
+	}
+
+	private void unhash(Entry entry) {
+		if (!entry.hashed)
+			return;
+
+		for (int cellX = entry.minCellX; cellX <= entry.maxCellX; ++cellX) {
+			for (int cellY = entry.minCellY; cellY <= entry.maxCellY; ++cellY) {
+				long key = key(cellX, cellY);
+				Array<Entry> cell = cells.get(key);
+				if (cell == null)
+					continue;
+				cell.removeValue(entry, true);
+				if (cell.size == 0) {
+					cells.remove(key);
+					cellPool.free(cell);
+				}
+			}
+		}
+		entry.hashed = false;
+	}
+
+	private void free(Entry entry) {
+		unhash(entry);
+		entry.hitbox = null;
+		entry.queryStamp = 0;
+		entryPool.free(entry);
+	}
+
+	private static class Entry {
+		SpriterHitbox hitbox;
+		boolean hashed;
+		int minCellX;
+		int minCellY;
+		int maxCellX;
+		int maxCellY;
+		int updateStamp;
+		int queryStamp;
+	}
+
+}
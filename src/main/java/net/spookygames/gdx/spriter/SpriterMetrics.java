@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+/**
+ * The {@code SpriterMetrics} class holds performance counters of
+ * {@link SpriterAnimator}s: time spent updating, sampling and drawing, and
+ * amounts of work done meanwhile.
+ * 
+ * Metrics are recorded by animators with metrics enabled (see
+ * {@link SpriterAnimator#setMetricsEnabled(boolean)}) or by every animator
+ * when {@link SpriterProfiler} is enabled.
+ * 
+ * @see SpriterProfiler
+ * 
+ * @author thorthur
+ * 
+ */
+public class SpriterMetrics {
+
+	/**
+	 * Number of calls to {@link SpriterAnimator#update(float)}.
+	 */
+	public long updates;
+
+	/**
+	 * Time spent in {@link SpriterAnimator#update(float)}, sampling included,
+	 * in nanoseconds.
+	 */
+	public long updateNanos;
+
+	/**
+	 * Time spent sampling animations into {@link FrameData}, in nanoseconds.
+	 */
+	public long sampleNanos;
+
+	/**
+	 * Number of calls to {@link SpriterAnimator#draw(com.badlogic.gdx.graphics.g2d.Batch)}.
+	 */
+	public long draws;
+
+	/**
+	 * Time spent in
+	 * {@link SpriterAnimator#draw(com.badlogic.gdx.graphics.g2d.Batch)}, in
+	 * nanoseconds.
+	 */
+	public long drawNanos;
+
+	/**
+	 * Number of bones and objects sampled.
+	 */
+	public long objectsSampled;
+
+	/**
+	 * Number of invisible objects skipped before sampling.
+	 */
+	public long objectsSkipped;
+
+	/**
+	 * Number of sampled bones and objects copied from a constant segment.
+	 */
+	public long objectsFolded;
+
+	/**
+	 * Number of keys visited while searching for the key at a given time.
+	 */
+	public long keysSearched;
+
+	/**
+	 * Number of objects obtained from pools.
+	 */
+	public long poolObtains;
+
+	/**
+	 * Number of objects returned to pools.
+	 */
+	public long poolFrees;
+
+	/**
+	 * Number of sprites drawn.
+	 */
+	public long spritesDrawn;
+
+	/**
+	 * Number of events dispatched to listeners.
+	 */
+	public long eventsDispatched;
+
+	/**
+	 * Add counters of given metrics to these metrics.
+	 * 
+	 * @param other
+	 *            Metrics to add
+	 */
+	public void add(SpriterMetrics other) {
+		updates += other.updates;
+		updateNanos += other.updateNanos;
+		sampleNanos += other.sampleNanos;
+		draws += other.draws;
+		drawNanos += other.drawNanos;
+		objectsSampled += other.objectsSampled;
+		objectsSkipped += other.objectsSkipped;
+		objectsFolded += other.objectsFolded;
+		keysSearched += other.keysSearched;
+		poolObtains += other.poolObtains;
+		poolFrees += other.poolFrees;
+		spritesDrawn += other.spritesDrawn;
+		eventsDispatched += other.eventsDispatched;
+	}
+
+	/**
+	 * Copy counters of given metrics to these metrics.
+	 * 
+	 * @param other
+	 *            Metrics to copy
+	 */
+	public void set(SpriterMetrics other) {
+		reset();
+		add(other);
+	}
+
+	/**
+	 * Reset all counters to zero.
+	 */
+	public void reset() {
+		updates = 0L;
+		updateNanos = 0L;
+		sampleNanos = 0L;
+		draws = 0L;
+		drawNanos = 0L;
+		objectsSampled = 0L;
+		objectsSkipped = 0L;
+		objectsFolded = 0L;
+		keysSearched = 0L;
+		poolObtains = 0L;
+		poolFrees = 0L;
+		spritesDrawn = 0L;
+		eventsDispatched = 0L;
+	}
+
+	@Override
+	public String toString() {
+		return "SpriterMetrics [updates=" + updates + ", updateNanos=" + updateNanos + ", sampleNanos=" + sampleNanos
+				+ ", draws=" + draws + ", drawNanos=" + drawNanos + ", objectsSampled=" + objectsSampled
+				+ ", objectsSkipped=" + objectsSkipped + ", objectsFolded=" + objectsFolded + ", keysSearched=" + keysSearched + ", poolObtains=" + poolObtains + ", poolFrees=" + poolFrees
+				+ ", spritesDrawn=" + spritesDrawn + ", eventsDispatched=" + eventsDispatched + "]";
+	}
+
+}
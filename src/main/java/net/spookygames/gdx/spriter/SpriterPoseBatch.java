@@ -0,0 +1,380 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterFileInfo;
+import net.spookygames.gdx.spriter.data.SpriterMainlineKey;
+import net.spookygames.gdx.spriter.data.SpriterObject;
+import net.spookygames.gdx.spriter.data.SpriterObjectRef;
+import net.spookygames.gdx.spriter.data.SpriterObjectType;
+import net.spookygames.gdx.spriter.data.SpriterPackedKeys;
+import net.spookygames.gdx.spriter.data.SpriterRef;
+import net.spookygames.gdx.spriter.data.SpriterSpatial;
+import net.spookygames.gdx.spriter.data.SpriterTimeline;
+import net.spookygames.gdx.spriter.data.SpriterTimelineKey;
+
+/**
+ * The {@code SpriterPoseBatch} class samples one {@link SpriterAnimation} at
+ * many times in a single pass, for crowds of instances playing the same
+ * animation.
+ * 
+ * Poses are stored as structure of arrays: every channel is a flat array
+ * indexed by {@link #index(int, int)}, timeline first then instance. Sampling
+ * walks the animation timeline by timeline over all instances so that key
+ * data stays hot, then applies bone hierarchies and optional per-instance
+ * root transforms. Arrays only grow, sampling does not allocate once they fit.
+ * 
+ * Only spatial information is sampled: events, sounds, variables and tags are
+ * left to {@link SpriterAnimator}s, nested entities are not expanded and
+ * character maps are not applied.
+ * 
+ * @author thorthur
+ * 
+ */
+public class SpriterPoseBatch {
+
+	/** Number of instances of last sampling */
+	public int size;
+
+	/** Number of timelines of last sampled animation */
+	public int timelines;
+
+	/** Mainline key of each instance, as many as {@link #size} */
+	public SpriterMainlineKey[] mainlineKeys = new SpriterMainlineKey[0];
+
+	/** Timeline key of each pose, or -1 when timeline is not displayed */
+	public int[] keys = new int[0];
+
+	/** Timeline of parent bone of each pose, or -1 for roots */
+	public int[] parents = new int[0];
+
+	public float[] x = new float[0];
+	public float[] y = new float[0];
+	public float[] angle = new float[0];
+	public float[] scaleX = new float[0];
+	public float[] scaleY = new float[0];
+	public float[] alpha = new float[0];
+	public float[] pivotX = new float[0];
+	public float[] pivotY = new float[0];
+
+	/** File of each pose, shared with animation data: do not modify */
+	public SpriterFileInfo[] files = new SpriterFileInfo[0];
+
+	private float[] adjustedTimes = new float[0];
+
+	/**
+	 * Get the index of given timeline of given instance in pose arrays.
+	 * 
+	 * @param timeline
+	 *            Timeline id
+	 * @param instance
+	 *            Instance index
+	 * @return Index in pose arrays
+	 */
+	public int index(int timeline, int instance) {
+		return timeline * size + instance;
+	}
+
+	/**
+	 * Get whether given timeline is displayed by given instance.
+	 * 
+	 * @param timeline
+	 *            Timeline id
+	 * @param instance
+	 *            Instance index
+	 * @return True if timeline is part of the pose of instance
+	 */
+	public boolean isActive(int timeline, int instance) {
+		return keys[index(timeline, instance)] >= 0;
+	}
+
+	/**
+	 * Sample given animation at given times, in animation space.
+	 * 
+	 * @param animation
+	 *            Animation to sample
+	 * @param times
+	 *            Animation time of each instance, between 0 and animation
+	 *            length
+	 * @param count
+	 *            Number of instances to sample
+	 */
+	public void sample(SpriterAnimation animation, float[] times, int count) {
+		sample(animation, times, null, count);
+	}
+
+	/**
+	 * Sample given animation at given times, each instance relative to its
+	 * own root transform.
+	 * 
+	 * @param animation
+	 *            Animation to sample
+	 * @param times
+	 *            Animation time of each instance, between 0 and animation
+	 *            length
+	 * @param transforms
+	 *            Root transform of each instance, or null for animation space
+	 * @param count
+	 *            Number of instances to sample
+	 */
+	public void sample(SpriterAnimation animation, float[] times, SpriterSpatial[] transforms, int count) {
+		if (count > times.length || (transforms != null && count > transforms.length))
+			throw new IllegalArgumentException("Not enough times or transforms for " + count + " instances");
+
+		// Lazily loaded bodies are read and marked as used, as when played
+		if (animation.entity != null && animation.entity.data != null)
+			SpriterAnimator.prepare(animation.entity.data, animation);
+
+		int timelineCount = animation.timelines.size;
+		ensureCapacity(timelineCount, count);
+		size = count;
+		timelines = timelineCount;
+
+		Arrays.fill(keys, 0, timelineCount * count, -1);
+
+		Array<SpriterMainlineKey> mainline = animation.mainline.keys;
+		for (int i = 0; i < count; i++) {
+			float time = times[i];
+			SpriterMainlineKey keyA = FrameData.lastKeyForTime(mainline, time);
+			int nextKey = keyA.id + 1;
+			SpriterMainlineKey keyB = mainline.get(nextKey < mainline.size ? nextKey : 0);
+
+			mainlineKeys[i] = keyA;
+			adjustedTimes[i] = FrameData.adjustTime(keyA, keyB, animation.length, time);
+
+			Array<SpriterRef> boneRefs = keyA.boneRefs;
+			for (int r = 0; r < boneRefs.size; r++) {
+				SpriterRef ref = boneRefs.get(r);
+				int index = ref.timelineId * count + i;
+				keys[index] = ref.keyId;
+				parents[index] = ref.parentId < 0 ? -1 : boneRefs.get(ref.parentId).timelineId;
+			}
+
+			Array<SpriterObjectRef> objectRefs = keyA.objectRefs;
+			for (int r = 0; r < objectRefs.size; r++) {
+				SpriterObjectRef ref = objectRefs.get(r);
+				int index = ref.timelineId * count + i;
+				keys[index] = ref.keyId;
+				parents[index] = ref.parentId < 0 ? -1 : boneRefs.get(ref.parentId).timelineId;
+			}
+		}
+
+		SpriterMetrics metrics = SpriterProfiler.current;
+
+		for (int t = 0; t < timelineCount; t++) {
+			SpriterTimeline timeline = animation.timelines.get(t);
+			int sampled;
+			if (timeline.packedKeys != null)
+				sampled = sample(timeline.packedKeys, animation, t);
+			else
+				sampled = sample(timeline, animation, t);
+
+			if (metrics != null)
+				metrics.objectsSampled += sampled;
+		}
+
+		for (int i = 0; i < count; i++) {
+			SpriterSpatial transform = transforms == null ? null : transforms[i];
+			SpriterMainlineKey key = mainlineKeys[i];
+
+			// Bone references come parent first
+			Array<SpriterRef> boneRefs = key.boneRefs;
+			for (int r = 0; r < boneRefs.size; r++)
+				applyParentTransform(boneRefs.get(r).timelineId, i, transform);
+
+			Array<SpriterObjectRef> objectRefs = key.objectRefs;
+			for (int r = 0; r < objectRefs.size; r++)
+				applyParentTransform(objectRefs.get(r).timelineId, i, transform);
+		}
+
+		Arrays.fill(mainlineKeys, count, mainlineKeys.length, null);
+	}
+
+	private int sample(SpriterTimeline timeline, SpriterAnimation animation, int t) {
+		Array<SpriterTimelineKey> timelineKeys = timeline.keys;
+		boolean bone = timeline.objectType == SpriterObjectType.Bone;
+		int count = size;
+		int offset = t * count;
+		int sampled = 0;
+
+		for (int i = 0; i < count; i++) {
+			int index = offset + i;
+			int k = keys[index];
+			if (k < 0)
+				continue;
+			sampled++;
+
+			SpriterTimelineKey keyA = timelineKeys.get(k);
+			SpriterTimelineKey keyB = FrameData.getNextXLineKey(timelineKeys, keyA, animation.looping);
+			SpriterSpatial a = bone ? keyA.boneInfo : keyA.objectInfo;
+
+			if (keyB == null) {
+				x[index] = a.x;
+				y[index] = a.y;
+				angle[index] = a.angle;
+				scaleX[index] = a.scaleX;
+				scaleY[index] = a.scaleY;
+				alpha[index] = bone ? 1f : a.alpha;
+			} else {
+				SpriterSpatial b = bone ? keyB.boneInfo : keyB.objectInfo;
+				float f = FrameData.getFactor(keyA, keyB, animation.length, adjustedTimes[i]);
+				x[index] = a.x + (b.x - a.x) * f;
+				y[index] = a.y + (b.y - a.y) * f;
+				angle[index] = MathHelper.angleLinear(a.angle, b.angle, keyA.spin, f);
+				scaleX[index] = a.scaleX + (b.scaleX - a.scaleX) * f;
+				scaleY[index] = a.scaleY + (b.scaleY - a.scaleY) * f;
+				alpha[index] = bone ? 1f : a.alpha + (b.alpha - a.alpha) * f;
+			}
+
+			if (bone) {
+				pivotX[index] = Float.NaN;
+				pivotY[index] = Float.NaN;
+				files[index] = null;
+			} else {
+				SpriterObject object = keyA.objectInfo;
+				pivotX[index] = object.pivotX;
+				pivotY[index] = object.pivotY;
+				files[index] = object.file;
+			}
+		}
+
+		return sampled;
+	}
+
+	private int sample(SpriterPackedKeys packed, SpriterAnimation animation, int t) {
+		boolean bone = packed.bone;
+		int count = size;
+		int offset = t * count;
+		int sampled = 0;
+
+		for (int i = 0; i < count; i++) {
+			int index = offset + i;
+			int keyA = keys[index];
+			if (keyA < 0)
+				continue;
+			sampled++;
+
+			int keyB = FrameData.getNextXLineKey(packed, keyA, animation.looping);
+			if (keyB < 0)
+				keyB = keyA;
+
+			float f = keyB == keyA ? 0f : FrameData.getFactor(packed, keyA, keyB, animation.length, adjustedTimes[i]);
+			float xA = packed.x[keyA];
+			float yA = packed.y[keyA];
+			float scaleXA = packed.scaleX.get(keyA);
+			float scaleYA = packed.scaleY.get(keyA);
+			x[index] = xA + (packed.x[keyB] - xA) * f;
+			y[index] = yA + (packed.y[keyB] - yA) * f;
+			angle[index] = MathHelper.angleLinear(packed.angle.get(keyA), packed.angle.get(keyB), packed.getSpin(keyA), f);
+			scaleX[index] = scaleXA + (packed.scaleX.get(keyB) - scaleXA) * f;
+			scaleY[index] = scaleYA + (packed.scaleY.get(keyB) - scaleYA) * f;
+
+			if (bone) {
+				alpha[index] = 1f;
+				pivotX[index] = Float.NaN;
+				pivotY[index] = Float.NaN;
+				files[index] = null;
+			} else {
+				float alphaA = packed.alpha.get(keyA);
+				alpha[index] = alphaA + (packed.alpha.get(keyB) - alphaA) * f;
+				pivotX[index] = packed.pivotX == null ? Float.NaN : packed.pivotX[keyA];
+				pivotY[index] = packed.pivotY == null ? Float.NaN : packed.pivotY[keyA];
+				files[index] = packed.files[keyA];
+			}
+		}
+
+		return sampled;
+	}
+
+	private void applyParentTransform(int timeline, int instance, SpriterSpatial transform) {
+		int index = timeline * size + instance;
+		int parent = parents[index];
+
+		float parentX, parentY, parentAngle, parentScaleX, parentScaleY, parentAlpha;
+		if (parent >= 0) {
+			int parentIndex = parent * size + instance;
+			parentX = x[parentIndex];
+			parentY = y[parentIndex];
+			parentAngle = angle[parentIndex];
+			parentScaleX = scaleX[parentIndex];
+			parentScaleY = scaleY[parentIndex];
+			parentAlpha = alpha[parentIndex];
+		} else if (transform != null) {
+			parentX = transform.x;
+			parentY = transform.y;
+			parentAngle = transform.angle;
+			parentScaleX = transform.scaleX;
+			parentScaleY = transform.scaleY;
+			parentAlpha = transform.alpha;
+		} else {
+			return;
+		}
+
+		float px = parentScaleX * x[index];
+		float py = parentScaleY * y[index];
+
+		float s = MathUtils.sinDeg(parentAngle);
+		float c = MathUtils.cosDeg(parentAngle);
+
+		x[index] = px * c - py * s + parentX;
+		y[index] = px * s + py * c + parentY;
+		scaleX[index] *= parentScaleX;
+		scaleY[index] *= parentScaleY;
+		angle[index] = (parentAngle + Math.signum(parentScaleX * parentScaleY) * angle[index]) % 360.0f;
+		alpha[index] *= parentAlpha;
+	}
+
+	private void ensureCapacity(int timelineCount, int count) {
+		if (mainlineKeys.length < count) {
+			mainlineKeys = new SpriterMainlineKey[count];
+			adjustedTimes = new float[count];
+		}
+
+		int capacity = timelineCount * count;
+		if (keys.length >= capacity)
+			return;
+
+		keys = new int[capacity];
+		parents = new int[capacity];
+		x = new float[capacity];
+		y = new float[capacity];
+		angle = new float[capacity];
+		scaleX = new float[capacity];
+		scaleY = new float[capacity];
+		alpha = new float[capacity];
+		pivotX = new float[capacity];
+		pivotY = new float[capacity];
+		files = new SpriterFileInfo[capacity];
+	}
+
+	@Override
+	public String toString() {
+		return "SpriterPoseBatch [size=" + size + ", timelines=" + timelines + "]";
+	}
+
+}
@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+
+/**
+ * The {@code SpriterProfiler} class aggregates {@link SpriterMetrics} of
+ * {@link SpriterAnimator}s globally and per animation name.
+ * 
+ * Metrics of every animator are recorded while the profiler is enabled;
+ * otherwise only animators with metrics enabled record them (see
+ * {@link SpriterAnimator#setMetricsEnabled(boolean)}), both in their own
+ * metrics and in aggregates. When nothing is enabled, no timing call is made
+ * and nothing is allocated.
+ * 
+ * Like animators, the profiler is meant to be used from a single thread.
+ * 
+ * @see SpriterMetrics
+ * 
+ * @author thorthur
+ * 
+ */
+public class SpriterProfiler {
+
+	/**
+	 * Metrics of the update or draw being recorded, null when not recording.
+	 */
+	static SpriterMetrics current = null;
+
+	private static boolean enabled = false;
+
+	private static final SpriterMetrics frame = new SpriterMetrics();
+	private static long updateStart = 0L;
+	private static long sampleStart = 0L;
+	private static long drawStart = 0L;
+
+	private static final SpriterMetrics global = new SpriterMetrics();
+	private static final ObjectMap<String, SpriterMetrics> animations = new ObjectMap<String, SpriterMetrics>();
+
+	private SpriterProfiler() {
+	}
+
+	/**
+	 * Check whether metrics of every animator are recorded.
+	 * 
+	 * @return True if the profiler is enabled, false otherwise
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Define whether metrics of every animator should be recorded.
+	 * 
+	 * @param enabled
+	 *            True to record metrics of every animator, false to only
+	 *            record metrics of animators with metrics enabled (default)
+	 */
+	public static void setEnabled(boolean enabled) {
+		SpriterProfiler.enabled = enabled;
+	}
+
+	/**
+	 * Get a snapshot of metrics aggregated over every animator.
+	 * 
+	 * @param out
+	 *            Metrics to copy aggregated metrics to
+	 * @return out
+	 */
+	public static SpriterMetrics getGlobalMetrics(SpriterMetrics out) {
+		out.set(global);
+		return out;
+	}
+
+	/**
+	 * Get a snapshot of metrics aggregated over every animator for animations
+	 * with given name.
+	 * 
+	 * @param animationName
+	 *            Name of animations
+	 * @param out
+	 *            Metrics to copy aggregated metrics to
+	 * @return out, or null if no metrics were recorded for given name
+	 */
+	public static SpriterMetrics getAnimationMetrics(String animationName, SpriterMetrics out) {
+		SpriterMetrics metrics = animations.get(animationName);
+		if (metrics == null)
+			return null;
+		out.set(metrics);
+		return out;
+	}
+
+	/**
+	 * Get names of animations with recorded metrics.
+	 * 
+	 * @param out
+	 *            Array to add names to
+	 * @return out
+	 */
+	public static Array<String> getAnimationNames(Array<String> out) {
+		for (String name : animations.keys())
+			out.add(name);
+		return out;
+	}
+
+	/**
+	 * Reset aggregated metrics. Metrics of animators are left untouched.
+	 */
+	public static void reset() {
+		global.reset();
+		animations.clear();
+	}
+
+	static void beginUpdate() {
+		frame.reset();
+		current = frame;
+		updateStart = TimeUtils.nanoTime();
+	}
+
+	static void beginSample() {
+		sampleStart = TimeUtils.nanoTime();
+	}
+
+	static void endSample() {
+		frame.sampleNanos += TimeUtils.nanoTime() - sampleStart;
+	}
+
+	static void endUpdate(SpriterAnimation animation, SpriterMetrics animatorMetrics) {
+		frame.updates++;
+		frame.updateNanos += TimeUtils.nanoTime() - updateStart;
+		current = null;
+		commit(animation, animatorMetrics);
+	}
+
+	static void beginDraw() {
+		frame.reset();
+		current = frame;
+		drawStart = TimeUtils.nanoTime();
+	}
+
+	static void endDraw(SpriterAnimation animation, SpriterMetrics animatorMetrics) {
+		frame.draws++;
+		frame.drawNanos += TimeUtils.nanoTime() - drawStart;
+		current = null;
+		commit(animation, animatorMetrics);
+	}
+
+	private static void commit(SpriterAnimation animation, SpriterMetrics animatorMetrics) {
+		if (animatorMetrics != null)
+			animatorMetrics.add(frame);
+
+		global.add(frame);
+
+		if (animation != null && animation.name != null) {
+			SpriterMetrics metrics = animations.get(animation.name);
+			if (metrics == null) {
+				metrics = new SpriterMetrics();
+				animations.put(animation.name, metrics);
+			}
+			metrics.add(frame);
+		}
+	}
+
+}
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.IntMap;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+
+/**
+ * The {@code SpriterSamplingCache} class shares sampled poses among
+ * {@link SpriterAnimator}s playing the same {@link SpriterAnimation} at about
+ * the same time, as in crowd scenes.
+ * 
+ * Poses are keyed by animation and time quantized to the animation interval:
+ * animators landing on the same key read one local pose sampled once, then
+ * apply their own root transform and character maps when drawn. Events and
+ * sounds are still computed by each animator. Blends and transitions are not
+ * cached.
+ * 
+ * The cache is frame-scoped: call {@link #clear()} once per frame, before
+ * updating animators. Its own {@link FrameDataUpdateConfiguration} applies to
+ * sampled poses, in place of the configuration of each animator.
+ * 
+ * @see SpriterAnimator#setSamplingCache(SpriterSamplingCache)
+ * 
+ * @author thorthur
+ * 
+ */
+public class SpriterSamplingCache {
+
+	private final FrameDataUpdateConfiguration configuration = new FrameDataUpdateConfiguration();
+
+	private final IdentityMap<SpriterAnimation, IntMap<FrameData>> poses = new IdentityMap<SpriterAnimation, IntMap<FrameData>>();
+	private final Array<FrameData> usedPoses = new Array<FrameData>();
+	private final Array<FrameData> freePoses = new Array<FrameData>();
+
+	private long hits = 0;
+	private long misses = 0;
+
+	/**
+	 * Initialize a new {@code SpriterSamplingCache}.
+	 */
+	public SpriterSamplingCache() {
+		// Events and sounds depend on each animator's own progression
+		configuration.events = false;
+		configuration.sounds = false;
+	}
+
+	/**
+	 * Get the {@link FrameDataUpdateConfiguration} applied when sampling
+	 * poses. Events and sounds are not sampled by the cache and their
+	 * switches are ignored.
+	 * 
+	 * @return The update configuration of cached poses
+	 */
+	public FrameDataUpdateConfiguration getConfiguration() {
+		return configuration;
+	}
+
+	/**
+	 * Forget every pose sampled so far. Call this once per frame, before
+	 * updating animators.
+	 */
+	public void clear() {
+		for (IntMap<FrameData> animationPoses : poses.values())
+			animationPoses.clear();
+		freePoses.addAll(usedPoses);
+		usedPoses.clear();
+	}
+
+	/**
+	 * Get the number of poses currently cached.
+	 * 
+	 * @return Number of cached poses
+	 */
+	public int getSize() {
+		return usedPoses.size;
+	}
+
+	/**
+	 * Get the number of poses served from cache since last statistics reset.
+	 * 
+	 * @return Number of cache hits
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Get the number of poses sampled since last statistics reset.
+	 * 
+	 * @return Number of cache misses
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Get the ratio of poses served from cache since last statistics reset.
+	 * 
+	 * @return Hit ratio, between 0 and 1
+	 */
+	public float getHitRatio() {
+		long total = hits + misses;
+		return total == 0 ? 0f : (float) hits / total;
+	}
+
+	/**
+	 * Reset hit and miss counters.
+	 */
+	public void resetStatistics() {
+		hits = 0;
+		misses = 0;
+	}
+
+	/**
+	 * Get the pose of given animation at given time, quantized to the
+	 * animation interval, sampling it if needed.
+	 */
+	FrameData get(SpriterAnimation animation, float time) {
+		float interval = animation.interval > 0f ? animation.interval : 1f;
+		int frame = (int) (time / interval);
+
+		IntMap<FrameData> animationPoses = poses.get(animation);
+		if (animationPoses == null) {
+			animationPoses = new IntMap<FrameData>();
+			poses.put(animation, animationPoses);
+		}
+
+		FrameData pose = animationPoses.get(frame);
+		if (pose != null) {
+			hits++;
+			return pose;
+		}
+
+		misses++;
+		pose = freePoses.size > 0 ? freePoses.pop() : new FrameData();
+		FrameData.update(pose, configuration, animation, Math.min(frame * interval, animation.length), 0f);
+		animationPoses.put(frame, pose);
+		usedPoses.add(pose);
+		return pose;
+	}
+
+}
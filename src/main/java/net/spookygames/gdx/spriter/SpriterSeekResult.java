@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterEventline;
+import net.spookygames.gdx.spriter.data.SpriterKey;
+import net.spookygames.gdx.spriter.data.SpriterSoundline;
+import net.spookygames.gdx.spriter.data.SpriterSoundlineKey;
+
+/**
+ * The {@code SpriterSeekResult} class reports events and sounds crossed by
+ * {@link SpriterAnimator#seek(float, SpriterSeekResult)}, along with the
+ * number of times each of their keys was crossed.
+ * 
+ * Crossed keys are listed in parallel arrays, one entry per key crossed at
+ * least once. During a transition, keys of both animations are listed, those
+ * of the current animation first. Listed keys belong to the animation data
+ * and must not be modified.
+ * 
+ * @see SpriterAnimator#seek(float, SpriterSeekResult)
+ * 
+ * @author thorthur
+ * 
+ */
+public class SpriterSeekResult {
+
+	/**
+	 * Current animation once moved.
+	 */
+	public SpriterAnimation animation;
+
+	/**
+	 * Animation being transitioned to once moved, null if none.
+	 */
+	public SpriterAnimation nextAnimation;
+
+	/**
+	 * Names of crossed events, one entry per crossed key.
+	 */
+	public final Array<String> eventNames = new Array<String>();
+
+	/**
+	 * Crossed event keys.
+	 */
+	public final Array<SpriterKey> eventKeys = new Array<SpriterKey>();
+
+	/**
+	 * Number of times each event key was crossed.
+	 */
+	public final IntArray eventCounts = new IntArray();
+
+	/**
+	 * Crossed sound keys, sounds not meant to be triggered excluded.
+	 */
+	public final Array<SpriterSoundlineKey> soundKeys = new Array<SpriterSoundlineKey>();
+
+	/**
+	 * Number of times each sound key was crossed.
+	 */
+	public final IntArray soundCounts = new IntArray();
+
+	/**
+	 * Number of animation ends crossed, as notified to
+	 * {@link SpriterAnimationListener#onAnimationFinished(SpriterAnimator, SpriterAnimation)}
+	 * .
+	 */
+	public int loops;
+
+	/**
+	 * Get the total number of times given event was crossed, all keys of
+	 * both animations included.
+	 * 
+	 * @param eventName
+	 *            Name of the event
+	 * @return Number of times the event was crossed
+	 */
+	public int getEventCount(String eventName) {
+		int count = 0;
+		for (int i = 0; i < eventNames.size; ++i)
+			if (eventNames.get(i).equals(eventName))
+				count += eventCounts.get(i);
+		return count;
+	}
+
+	/**
+	 * Clear this result.
+	 */
+	public void clear() {
+		animation = null;
+		nextAnimation = null;
+		eventNames.clear();
+		eventKeys.clear();
+		eventCounts.clear();
+		soundKeys.clear();
+		soundCounts.clear();
+		loops = 0;
+	}
+
+	void add(SpriterAnimation animation, float targetTime, float deltaTime) {
+		if (animation.eventlines != null) {
+			for (SpriterEventline eventline : animation.eventlines) {
+				for (SpriterKey key : eventline.keys) {
+					int count = FrameData.getTriggerCount(key, animation, targetTime, deltaTime);
+					if (count > 0) {
+						eventNames.add(eventline.name);
+						eventKeys.add(key);
+						eventCounts.add(count);
+					}
+				}
+			}
+		}
+
+		for (SpriterSoundline soundline : animation.soundlines) {
+			for (SpriterSoundlineKey key : soundline.keys) {
+				if (!key.soundObject.trigger)
+					continue;
+				int count = FrameData.getTriggerCount(key, animation, targetTime, deltaTime);
+				if (count > 0) {
+					soundKeys.add(key);
+					soundCounts.add(count);
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "SpriterSeekResult [animation=" + (animation == null ? null : animation.name) + ", nextAnimation="
+				+ (nextAnimation == null ? null : nextAnimation.name) + ", eventNames=" + eventNames + ", eventCounts="
+				+ eventCounts + ", soundKeys=" + soundKeys.size + ", soundCounts=" + soundCounts + ", loops=" + loops
+				+ "]";
+	}
+
+}
@@ -0,0 +1,407 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.LongMap;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterCharacterMap;
+import net.spookygames.gdx.spriter.data.SpriterSpatial;
+
+/**
+ * The {@code SpriterVertexCache} class keeps final sprite vertices drawn by
+ * {@link SpriterAnimator}s so that recurring poses, as found in looping
+ * animations of static props, are not computed again.
+ * 
+ * Poses are keyed by animation, time quantized to given interval, character
+ * map set, animator scale, angle, alpha and pivot as well as batch color.
+ * Vertices are stored relative to the animator origin so that only the
+ * animator position is applied when drawing a cached pose. Blends and
+ * transitions are never cached, neither are sprites drawn by an overridden
+ * {@link SpriterAnimator#drawObject(Batch, com.badlogic.gdx.graphics.g2d.Sprite, net.spookygames.gdx.spriter.data.SpriterObject)}
+ * .
+ * 
+ * A cache may be shared among animators and is bounded by a memory budget,
+ * least recently used poses being evicted first.
+ * 
+ * @see SpriterAnimator#setVertexCache(SpriterVertexCache)
+ * 
+ * @author thorthur
+ * 
+ */
+public class SpriterVertexCache {
+
+	private static final int vertexSize = 20;
+
+	// Rough per-pose bookkeeping: entry, arrays headers and map slot
+	private static final int entryOverhead = 128;
+
+	private final float interval;
+	private long memoryBudget;
+	private long memoryUsage = 0;
+
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	private final LongMap<Entry> entries = new LongMap<Entry>();
+	private Entry mostRecent = null;
+	private Entry leastRecent = null;
+
+	private final FloatArray recordedVertices = new FloatArray();
+	private final Array<Texture> recordedTextures = new Array<Texture>();
+	private boolean recording = false;
+
+	private final float[] vertices = new float[vertexSize];
+
+	/**
+	 * Initialize a new {@code SpriterVertexCache}.
+	 * 
+	 * @param interval
+	 *            Time quantization interval (Spriter time), poses within the
+	 *            same interval are considered identical
+	 * @param memoryBudget
+	 *            Maximum memory used by cached poses, in bytes
+	 */
+	public SpriterVertexCache(float interval, long memoryBudget) {
+		if (interval <= 0f)
+			throw new IllegalArgumentException("Interval must be strictly positive");
+		if (memoryBudget < 0)
+			throw new IllegalArgumentException("Memory budget must be positive");
+		this.interval = interval;
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Get the time quantization interval of this cache.
+	 * 
+	 * @return Quantization interval (Spriter time)
+	 */
+	public float getInterval() {
+		return interval;
+	}
+
+	/**
+	 * Get the maximum memory used by cached poses.
+	 * 
+	 * @return Memory budget, in bytes
+	 */
+	public long getMemoryBudget() {
+		return memoryBudget;
+	}
+
+	/**
+	 * Set the maximum memory used by cached poses, evicting poses if needed.
+	 * 
+	 * @param memoryBudget
+	 *            Maximum memory used by cached poses, in bytes
+	 */
+	public void setMemoryBudget(long memoryBudget) {
+		if (memoryBudget < 0)
+			throw new IllegalArgumentException("Memory budget must be positive");
+		this.memoryBudget = memoryBudget;
+		evict();
+	}
+
+	/**
+	 * Get the estimated memory used by cached poses.
+	 * 
+	 * @return Memory used, in bytes
+	 */
+	public long getMemoryUsage() {
+		return memoryUsage;
+	}
+
+	/**
+	 * Get the number of poses currently cached.
+	 * 
+	 * @return Number of cached poses
+	 */
+	public int getSize() {
+		return entries.size;
+	}
+
+	/**
+	 * Get the number of draws served from cache since last statistics reset.
+	 * 
+	 * @return Number of cache hits
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Get the number of draws not served from cache since last statistics
+	 * reset.
+	 * 
+	 * @return Number of cache misses
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Get the number of poses evicted to fit the memory budget since last
+	 * statistics reset.
+	 * 
+	 * @return Number of evictions
+	 */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * Get the ratio of draws served from cache since last statistics reset.
+	 * 
+	 * @return Hit ratio, between 0 and 1
+	 */
+	public float getHitRatio() {
+		long total = hits + misses;
+		return total == 0 ? 0f : (float) hits / total;
+	}
+
+	/**
+	 * Reset hit, miss and eviction counters. Cached poses are kept.
+	 */
+	public void resetStatistics() {
+		hits = 0;
+		misses = 0;
+		evictions = 0;
+	}
+
+	/**
+	 * Forget every cached pose.
+	 */
+	public void clear() {
+		entries.clear();
+		mostRecent = null;
+		leastRecent = null;
+		memoryUsage = 0;
+	}
+
+	/**
+	 * Draw cached pose for given state with given batch, if any.
+	 * 
+	 * @return Number of sprites drawn, -1 on cache miss
+	 */
+	int draw(Batch batch, SpriterAnimation animation, float time, Array<SpriterCharacterMap> characterMaps,
+			SpriterSpatial spatial, float pivotX, float pivotY) {
+		int frame = (int) (time / interval);
+		float color = batch.getPackedColor();
+		long key = key(animation, frame, characterMaps, spatial, pivotX, pivotY, color);
+
+		Entry entry = entries.get(key);
+		while (entry != null && !entry.matches(animation, frame, characterMaps, spatial, pivotX, pivotY, color))
+			entry = entry.collision;
+
+		if (entry == null) {
+			misses++;
+			return -1;
+		}
+
+		hits++;
+		touch(entry);
+
+		float x = spatial.x;
+		float y = spatial.y;
+		float[] cached = entry.vertices;
+		float[] vertices = this.vertices;
+		for (int i = 0, n = entry.textures.length; i < n; ++i) {
+			System.arraycopy(cached, i * vertexSize, vertices, 0, vertexSize);
+			for (int j = 0; j < vertexSize; j += 5) {
+				vertices[j] += x;
+				vertices[j + 1] += y;
+			}
+			batch.draw(entry.textures[i], vertices, 0, vertexSize);
+		}
+		return entry.textures.length;
+	}
+
+	void begin() {
+		recordedVertices.clear();
+		recordedTextures.clear();
+		recording = true;
+	}
+
+	boolean isRecording() {
+		return recording;
+	}
+
+	void record(Texture texture, float[] spriteVertices, float x, float y) {
+		recordedTextures.add(texture);
+		int offset = recordedVertices.size;
+		recordedVertices.addAll(spriteVertices, 0, vertexSize);
+		float[] items = recordedVertices.items;
+		for (int j = 0; j < vertexSize; j += 5) {
+			items[offset + j] -= x;
+			items[offset + j + 1] -= y;
+		}
+	}
+
+	/**
+	 * Store recorded pose, provided every drawn sprite has been recorded.
+	 */
+	void end(Batch batch, SpriterAnimation animation, float time, Array<SpriterCharacterMap> characterMaps,
+			SpriterSpatial spatial, float pivotX, float pivotY, int drawn) {
+		recording = false;
+
+		if (recordedTextures.size != drawn)
+			return;
+
+		Entry entry = new Entry();
+		entry.animation = animation;
+		entry.frame = (int) (time / interval);
+		entry.characterMaps = characterMaps.toArray(SpriterCharacterMap.class);
+		entry.angle = spatial.angle;
+		entry.scaleX = spatial.scaleX;
+		entry.scaleY = spatial.scaleY;
+		entry.alpha = spatial.alpha;
+		entry.pivotX = pivotX;
+		entry.pivotY = pivotY;
+		entry.color = batch.getPackedColor();
+		entry.textures = recordedTextures.toArray(Texture.class);
+		entry.vertices = recordedVertices.toArray();
+		entry.key = key(animation, entry.frame, characterMaps, spatial, pivotX, pivotY, entry.color);
+		entry.memory = entryOverhead + 4 * (entry.vertices.length + entry.textures.length
+				+ entry.characterMaps.length);
+
+		if (entry.memory > memoryBudget)
+			return;
+
+		entry.collision = entries.put(entry.key, entry);
+		memoryUsage += entry.memory;
+		touch(entry);
+		evict();
+	}
+
+	private void touch(Entry entry) {
+		if (entry == mostRecent)
+			return;
+
+		unlink(entry);
+		entry.newer = null;
+		entry.older = mostRecent;
+		if (mostRecent != null)
+			mostRecent.newer = entry;
+		mostRecent = entry;
+		if (leastRecent == null)
+			leastRecent = entry;
+	}
+
+	private void unlink(Entry entry) {
+		if (entry.newer != null)
+			entry.newer.older = entry.older;
+		if (entry.older != null)
+			entry.older.newer = entry.newer;
+		if (mostRecent == entry)
+			mostRecent = entry.older;
+		if (leastRecent == entry)
+			leastRecent = entry.newer;
+		entry.newer = null;
+		entry.older = null;
+	}
+
+	private void evict() {
+		while (memoryUsage > memoryBudget && leastRecent != null) {
+			Entry entry = leastRecent;
+			unlink(entry);
+			remove(entry);
+			memoryUsage -= entry.memory;
+			evictions++;
+		}
+	}
+
+	private void remove(Entry entry) {
+		Entry head = entries.get(entry.key);
+		if (head == entry) {
+			if (entry.collision == null)
+				entries.remove(entry.key);
+			else
+				entries.put(entry.key, entry.collision);
+			return;
+		}
+
+		while (head != null && head.collision != entry)
+			head = head.collision;
+		if (head != null)
+			head.collision = entry.collision;
+	}
+
+	private static long key(SpriterAnimation animation, int frame, Array<SpriterCharacterMap> characterMaps,
+			SpriterSpatial spatial, float pivotX, float pivotY, float color) {
+		long hash = animation.hashCode();
+		hash = hash * 31 + frame;
+		for (int i = 0; i < characterMaps.size; ++i)
+			hash = hash * 31 + characterMaps.get(i).hashCode();
+		hash = hash * 31 + Float.floatToIntBits(spatial.angle);
+		hash = hash * 31 + Float.floatToIntBits(spatial.scaleX);
+		hash = hash * 31 + Float.floatToIntBits(spatial.scaleY);
+		hash = hash * 31 + Float.floatToIntBits(spatial.alpha);
+		hash = hash * 31 + Float.floatToIntBits(pivotX);
+		hash = hash * 31 + Float.floatToIntBits(pivotY);
+		hash = hash * 31 + Float.floatToIntBits(color);
+		return hash;
+	}
+
+	private static class Entry {
+		long key;
+		SpriterAnimation animation;
+		int frame;
+		SpriterCharacterMap[] characterMaps;
+		float angle;
+		float scaleX;
+		float scaleY;
+		float alpha;
+		float pivotX;
+		float pivotY;
+		float color;
+
+		Texture[] textures;
+		float[] vertices;
+		int memory;
+
+		// Same key, different pose
+		Entry collision;
+
+		// Least recently used list
+		Entry newer;
+		Entry older;
+
+		boolean matches(SpriterAnimation animation, int frame, Array<SpriterCharacterMap> characterMaps,
+				SpriterSpatial spatial, float pivotX, float pivotY, float color) {
+			if (this.animation != animation || this.frame != frame
+					|| this.characterMaps.length != characterMaps.size)
+				return false;
+			for (int i = 0; i < this.characterMaps.length; ++i)
+				if (this.characterMaps[i] != characterMaps.get(i))
+					return false;
+			return this.angle == spatial.angle && this.scaleX == spatial.scaleX && this.scaleY == spatial.scaleY
+					&& this.alpha == spatial.alpha && this.pivotX == pivotX && this.pivotY == pivotY
+					&& Float.floatToIntBits(this.color) == Float.floatToIntBits(color);
+		}
+	}
+
+}
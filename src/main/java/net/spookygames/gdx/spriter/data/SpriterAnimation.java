@@ -21,6 +21,7 @@
 package net.spookygames.gdx.spriter.data;
 
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
 
 public class SpriterAnimation extends SpriterElement {
 
@@ -34,6 +35,9 @@ public class SpriterAnimation extends SpriterElement {
 	public SpriterMeta meta;
 	public float interval = 100; // Looks like it has no real use
 
+	// Timelines matched by name in other animations, computed on first blend
+	public transient IdentityMap<SpriterAnimation, int[]> timelineRemaps;
+
 	@Override
 	public String toString() {
 		return "SpriterAnimation [length=" + length + ", looping=" + looping + ", mainline=" + mainline + ", timelines="
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter.data;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Interface for providing bodies (mainline, timelines, eventlines, soundlines
+ * and meta) of {@link SpriterAnimation}s that were not materialized when
+ * {@link SpriterData} was read.
+ * 
+ * @see net.spookygames.gdx.spriter.io.LazySpriterAnimationSource
+ * 
+ * @author thorthur
+ * 
+ */
+public interface SpriterAnimationSource {
+
+	/**
+	 * Make sure the body of given {@link SpriterAnimation} is available and
+	 * mark it as recently used.
+	 * 
+	 * @param animation
+	 *            Animation to load
+	 */
+	public void load(SpriterAnimation animation);
+
+	/**
+	 * Release the body of given {@link SpriterAnimation}. It will be loaded
+	 * again on next call to {@link #load(SpriterAnimation)}.
+	 * 
+	 * @param animation
+	 *            Animation to unload
+	 */
+	public void unload(SpriterAnimation animation);
+
+	/**
+	 * Check whether the body of given {@link SpriterAnimation} is currently
+	 * available.
+	 * 
+	 * @param animation
+	 *            Animation to check
+	 * @return True if the animation is loaded, false otherwise
+	 */
+	public boolean isLoaded(SpriterAnimation animation);
+
+	/**
+	 * Get names of eventlines of given {@link SpriterAnimation}, in document
+	 * order, whether its body is loaded or not.
+	 * 
+	 * @param animation
+	 *            Animation to get eventline names of
+	 * @param out
+	 *            Array to add names to
+	 */
+	public void getEventNames(SpriterAnimation animation, Array<String> out);
+
+	/**
+	 * Get names of point timelines of given {@link SpriterAnimation}, in
+	 * document order, whether its body is loaded or not.
+	 * 
+	 * @param animation
+	 *            Animation to get point names of
+	 * @param out
+	 *            Array to add names to
+	 */
+	public void getPointNames(SpriterAnimation animation, Array<String> out);
+
+}
@@ -25,44 +25,44 @@ import net.spookygames.gdx.spriter.MathHelper;
 public enum SpriterCurveType {
 	Instant {
 		@Override
-		public float applySpeedCurve(SpriterKey key, float factor) {
+		public float applySpeedCurve(float c1, float c2, float c3, float c4, float factor) {
 			return 0.0f;
 		}
 	},
 	Linear {
 		@Override
-		public float applySpeedCurve(SpriterKey key, float factor) {
+		public float applySpeedCurve(float c1, float c2, float c3, float c4, float factor) {
 			return factor;
 		}
 	},
 	Quadratic {
 		@Override
-		public float applySpeedCurve(SpriterKey key, float factor) {
-			return MathHelper.curve(factor, 0.0f, key.c1, 1.0f);
+		public float applySpeedCurve(float c1, float c2, float c3, float c4, float factor) {
+			return MathHelper.curve(factor, 0.0f, c1, 1.0f);
 		}
 	},
 	Cubic {
 		@Override
-		public float applySpeedCurve(SpriterKey key, float factor) {
-			return MathHelper.curve(factor, 0.0f, key.c1, key.c2, 1.0f);
+		public float applySpeedCurve(float c1, float c2, float c3, float c4, float factor) {
+			return MathHelper.curve(factor, 0.0f, c1, c2, 1.0f);
 		}
 	},
 	Quartic {
 		@Override
-		public float applySpeedCurve(SpriterKey key, float factor) {
-			return MathHelper.curve(factor, 0.0f, key.c1, key.c2, key.c3, 1.0f);
+		public float applySpeedCurve(float c1, float c2, float c3, float c4, float factor) {
+			return MathHelper.curve(factor, 0.0f, c1, c2, c3, 1.0f);
 		}
 	},
 	Quintic {
 		@Override
-		public float applySpeedCurve(SpriterKey key, float factor) {
-			return MathHelper.curve(factor, 0.0f, key.c1, key.c2, key.c3, key.c4, 1.0f);
+		public float applySpeedCurve(float c1, float c2, float c3, float c4, float factor) {
+			return MathHelper.curve(factor, 0.0f, c1, c2, c3, c4, 1.0f);
 		}
 	},
 	Bezier {
 		@Override
-		public float applySpeedCurve(SpriterKey key, float factor) {
-			return MathHelper.bezier(key.c1, key.c2, key.c3, key.c4, factor);
+		public float applySpeedCurve(float c1, float c2, float c3, float c4, float factor) {
+			return MathHelper.bezier(c1, c2, c3, c4, factor);
 		}
 	};
 
@@ -74,5 +74,9 @@ public enum SpriterCurveType {
 		return null;
 	}
 
-	public abstract float applySpeedCurve(SpriterKey key, float factor);
+	public float applySpeedCurve(SpriterKey key, float factor) {
+		return applySpeedCurve(key.c1, key.c2, key.c3, key.c4, factor);
+	}
+
+	public abstract float applySpeedCurve(float c1, float c2, float c3, float c4, float factor);
 }
\ No newline at end of file
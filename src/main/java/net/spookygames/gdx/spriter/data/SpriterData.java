@@ -33,6 +33,7 @@ public class SpriterData {
 	public Array<SpriterElement> tags = new Array<SpriterElement>();
 
 	public transient SpriterAssetProvider assetProvider;
+	public transient SpriterAnimationSource animationSource;
 
 	@Override
 	public String toString() {
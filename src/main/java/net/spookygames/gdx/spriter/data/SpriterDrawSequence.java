@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+package net.spookygames.gdx.spriter.data;
+
+/**
+ * Precompiled evaluation order of the objects of a {@link SpriterMainlineKey},
+ * laid out one array per field. Entries are grouped by kind: sprites and
+ * nested entities first in z-order, then points, then boxes. Objects of other
+ * types are left out.
+ * 
+ * @see SpriterMainlineKey#drawSequence
+ * 
+ * @author thorthur
+ * 
+ */
+public class SpriterDrawSequence {
+
+	public int size;
+
+	// Entries before spriteEnd are sprites and entities, then points until pointEnd, then boxes
+	public int spriteEnd;
+	public int pointEnd;
+
+	public int[] timelineIds;
+	public int[] keyIds;
+	public int[] parentIds;
+
+	// Per kind: true for nested entities, timeline names of points, object ids of boxes
+	public boolean[] entities;
+	public String[] names;
+	public int[] objectIds;
+
+	/**
+	 * Compile the draw sequence of given mainline key.
+	 * 
+	 * @param key
+	 *            Mainline key to compile
+	 * @param animation
+	 *            Animation of the key
+	 * @return Compiled draw sequence
+	 */
+	public static SpriterDrawSequence compile(SpriterMainlineKey key, SpriterAnimation animation) {
+		SpriterDrawSequence sequence = new SpriterDrawSequence();
+
+		int capacity = key.objectRefs.size;
+		sequence.timelineIds = new int[capacity];
+		sequence.keyIds = new int[capacity];
+		sequence.parentIds = new int[capacity];
+		sequence.entities = new boolean[capacity];
+		sequence.names = new String[capacity];
+		sequence.objectIds = new int[capacity];
+
+		sequence.add(key, animation, SpriterObjectType.Sprite, SpriterObjectType.Entity);
+		sequence.spriteEnd = sequence.size;
+		sequence.add(key, animation, SpriterObjectType.Point, null);
+		sequence.pointEnd = sequence.size;
+		sequence.add(key, animation, SpriterObjectType.Box, null);
+
+		return sequence;
+	}
+
+	private void add(SpriterMainlineKey key, SpriterAnimation animation, SpriterObjectType type,
+			SpriterObjectType otherType) {
+		for (int i = 0; i < key.objectRefs.size; ++i) {
+			SpriterObjectRef ref = key.objectRefs.get(i);
+			SpriterTimeline timeline = animation.timelines.get(ref.timelineId);
+			if (timeline.objectType != type && timeline.objectType != otherType)
+				continue;
+
+			timelineIds[size] = ref.timelineId;
+			keyIds[size] = ref.keyId;
+			parentIds[size] = ref.parentId;
+			entities[size] = timeline.objectType == SpriterObjectType.Entity;
+			names[size] = timeline.name;
+			objectIds[size] = timeline.objectId;
+			size++;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "SpriterDrawSequence [size=" + size + ", spriteEnd=" + spriteEnd + ", pointEnd=" + pointEnd + "]";
+	}
+
+}
@@ -27,6 +27,9 @@ public class SpriterMainlineKey extends SpriterKey {
 	public Array<SpriterRef> boneRefs = new Array<SpriterRef>();
 	public Array<SpriterObjectRef> objectRefs = new Array<SpriterObjectRef>();
 
+	// Object refs compiled for evaluation, computed on first use
+	public transient SpriterDrawSequence drawSequence;
+
 	@Override
 	public String toString() {
 		return "SpriterMainlineKey [boneRefs=" + boneRefs + ", objectRefs=" + objectRefs + ", time=" + time
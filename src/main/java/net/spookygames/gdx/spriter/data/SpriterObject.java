@@ -33,7 +33,8 @@ public class SpriterObject extends SpriterSpatial {
 		super.fill(other);
 		this.animationId = other.animationId;
 		this.entityId = other.entityId;
-		this.file = other.file == null ? null : new SpriterFileInfo(other.file);
+		// File information is shared, it is not meant to be modified
+		this.file = other.file;
 		this.pivotX = other.pivotX;
 		this.pivotY = other.pivotY;
 		this.t = other.t;
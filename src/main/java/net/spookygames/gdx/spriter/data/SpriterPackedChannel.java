@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter.data;
+
+/**
+ * Packed storage of one float value per key. Values are either stored as
+ * floats, quantized to 16 bits over [offset, offset + 65535 * step] or folded
+ * into offset when constant.
+ * 
+ * @see SpriterPackedKeys
+ * 
+ * @author thorthur
+ * 
+ */
+public class SpriterPackedChannel {
+
+	public float[] values;
+	public short[] quantized;
+	public float offset;
+	public float step;
+
+	public float get(int index) {
+		if (values != null)
+			return values[index];
+		if (quantized != null)
+			return offset + (quantized[index] & 0xffff) * step;
+		return offset;
+	}
+
+	public int getByteSize() {
+		int size = 32;
+		if (values != null)
+			size += SpriterPackedKeys.arraySize(values.length, 4);
+		if (quantized != null)
+			size += SpriterPackedKeys.arraySize(quantized.length, 2);
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return "SpriterPackedChannel [values=" + (values == null ? null : values.length) + ", quantized="
+				+ (quantized == null ? null : quantized.length) + ", offset=" + offset + ", step=" + step + "]";
+	}
+
+}
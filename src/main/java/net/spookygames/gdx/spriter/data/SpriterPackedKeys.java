@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter.data;
+
+/**
+ * Primitive-packed storage of the keys of a {@link SpriterTimeline}, laid out
+ * one array per field. Optional fields are null when every key holds the
+ * default value.
+ * 
+ * @see SpriterTimeline#packedKeys
+ * 
+ * @author thorthur
+ * 
+ */
+public class SpriterPackedKeys {
+
+	public int size;
+	public boolean bone;
+	public float[] times;
+	public byte[] curveTypes;
+	public float[] curveParameters;
+	public byte[] spins;
+	public float[] x;
+	public float[] y;
+	public SpriterPackedChannel angle;
+	public SpriterPackedChannel scaleX;
+	public SpriterPackedChannel scaleY;
+	public SpriterPackedChannel alpha;
+
+	// Object only
+	public SpriterFileInfo[] files;
+	public float[] pivotX;
+	public float[] pivotY;
+	public float[] t;
+	public int[] entityIds;
+	public int[] animationIds;
+
+	private static final SpriterCurveType[] curves = SpriterCurveType.values();
+
+	public SpriterCurveType getCurveType(int index) {
+		return curveTypes == null ? SpriterCurveType.Linear : curves[curveTypes[index]];
+	}
+
+	public float getCurveParameter(int index, int parameter) {
+		return curveParameters == null ? 0f : curveParameters[index * 4 + parameter];
+	}
+
+	public int getSpin(int index) {
+		return spins == null ? 1 : spins[index];
+	}
+
+	public float applySpeedCurve(int index, float factor) {
+		if (curveTypes == null)
+			return factor;
+		int p = index * 4;
+		return curves[curveTypes[index]].applySpeedCurve(curveParameters[p], curveParameters[p + 1],
+				curveParameters[p + 2], curveParameters[p + 3], factor);
+	}
+
+	public void fill(int index, SpriterSpatial spatial) {
+		spatial.x = x[index];
+		spatial.y = y[index];
+		spatial.angle = angle.get(index);
+		spatial.scaleX = scaleX.get(index);
+		spatial.scaleY = scaleY.get(index);
+		spatial.alpha = alpha.get(index);
+	}
+
+	public void fill(int index, SpriterObject object) {
+		fill(index, (SpriterSpatial) object);
+		object.file = files[index];
+		object.pivotX = pivotX == null ? Float.NaN : pivotX[index];
+		object.pivotY = pivotY == null ? Float.NaN : pivotY[index];
+		object.t = t == null ? 0f : t[index];
+		object.entityId = entityIds == null ? 0 : entityIds[index];
+		object.animationId = animationIds == null ? 0 : animationIds[index];
+	}
+
+	public int getByteSize() {
+		int size = 88 + arraySize(times.length, 4) + arraySize(x.length, 4) + arraySize(y.length, 4);
+		size += angle.getByteSize() + scaleX.getByteSize() + scaleY.getByteSize() + alpha.getByteSize();
+		if (curveTypes != null)
+			size += arraySize(curveTypes.length, 1);
+		if (curveParameters != null)
+			size += arraySize(curveParameters.length, 4);
+		if (spins != null)
+			size += arraySize(spins.length, 1);
+		if (files != null)
+			size += arraySize(files.length, 4);
+		if (pivotX != null)
+			size += arraySize(pivotX.length, 4);
+		if (pivotY != null)
+			size += arraySize(pivotY.length, 4);
+		if (t != null)
+			size += arraySize(t.length, 4);
+		if (entityIds != null)
+			size += arraySize(entityIds.length, 4);
+		if (animationIds != null)
+			size += arraySize(animationIds.length, 4);
+		return size;
+	}
+
+	static int arraySize(int length, int elementSize) {
+		return (16 + length * elementSize + 7) & ~7;
+	}
+
+	@Override
+	public String toString() {
+		return "SpriterPackedKeys [size=" + size + ", bone=" + bone + ", angle=" + angle + ", scaleX=" + scaleX
+				+ ", scaleY=" + scaleY + ", alpha=" + alpha + "]";
+	}
+
+}
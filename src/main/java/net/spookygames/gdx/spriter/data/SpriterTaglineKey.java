@@ -21,11 +21,15 @@
 package net.spookygames.gdx.spriter.data;
 
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
 
 public class SpriterTaglineKey extends SpriterKey {
 
 	public Array<SpriterTag> tags = new Array<SpriterTag>();
 
+	// Tag ids as a bitset, computed on first use
+	public transient Bits bits;
+
 	@Override
 	public String toString() {
 		return "SpriterTaglineKey [tags=" + tags + ", time=" + time + ", curveType=" + curveType + ", c1=" + c1
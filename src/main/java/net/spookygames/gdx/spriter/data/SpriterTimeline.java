@@ -28,6 +28,13 @@ public class SpriterTimeline extends SpriterElement {
 	public int objectId;
 	public Array<SpriterTimelineKey> keys = new Array<SpriterTimelineKey>();
 	public SpriterMeta meta;
+	public transient SpriterPackedKeys packedKeys;
+
+	// Keys holding the same values as their next key, see SpriterConstantFolder
+	public transient boolean[] constantKeys;
+
+	// Index in entity object infos resolved once by FrameData, -1 if none
+	public transient int objectIndex = -2;
 
 	@Override
 	public String toString() {
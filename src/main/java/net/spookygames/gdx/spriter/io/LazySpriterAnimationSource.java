@@ -0,0 +1,277 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter.io;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterAnimationSource;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterEntity;
+
+/**
+ * The {@code LazySpriterAnimationSource} class materializes bodies of
+ * {@link SpriterAnimation}s on demand from the content they were indexed in.
+ * Only offsets of bodies are kept: content is opened again by a
+ * {@link SpriterContentOpener} and read up to the body whenever one is
+ * loaded.
+ * 
+ * Instances are created by a {@link SpriterReader} set to lazy animation
+ * loading and are available as {@link SpriterData#animationSource}. Bodies are
+ * parsed on first play by a
+ * {@link net.spookygames.gdx.spriter.SpriterAnimator}, on explicit prefetch or
+ * when data is written back.
+ * 
+ * @see SpriterReader#setLazyAnimationLoading(boolean)
+ * 
+ * @author thorthur
+ * 
+ */
+public class LazySpriterAnimationSource implements SpriterAnimationSource {
+
+	private final SpriterReader reader;
+	private final SpriterContentOpener opener;
+
+	private final Array<SpriterAnimation> animations;
+	private final ObjectIntMap<SpriterAnimation> indices;
+	private final int[] ranges;
+	private final String[][] eventNames;
+	private final String[][] pointNames;
+	private final boolean[] loaded;
+	private final long[] lastUses;
+
+	LazySpriterAnimationSource(SpriterReader reader, SpriterContentOpener opener,
+			Array<SpriterAnimation> animations, int[] ranges, String[][] eventNames, String[][] pointNames) {
+		this.reader = reader;
+		this.opener = opener;
+		this.animations = animations;
+		this.ranges = ranges;
+		this.eventNames = eventNames;
+		this.pointNames = pointNames;
+		this.loaded = new boolean[animations.size];
+		this.lastUses = new long[animations.size];
+
+		indices = new ObjectIntMap<SpriterAnimation>(animations.size);
+		for (int i = 0; i < animations.size; i++)
+			indices.put(animations.get(i), i);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.spookygames.gdx.spriter.data.SpriterAnimationSource#load(net.
+	 * spookygames.gdx.spriter.data.SpriterAnimation)
+	 */
+	@Override
+	public void load(SpriterAnimation animation) {
+		int index = indexOf(animation);
+
+		if (!loaded[index]) {
+			try {
+				reader.loadAnimationBody(animation, read(ranges[index * 2], ranges[index * 2 + 1]));
+			} catch (IOException ex) {
+				throw new GdxRuntimeException("An error happened when loading Spriter animation " + animation.name,
+						ex);
+			}
+			loaded[index] = true;
+		}
+
+		lastUses[index] = TimeUtils.millis();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.spookygames.gdx.spriter.data.SpriterAnimationSource#unload(net.
+	 * spookygames.gdx.spriter.data.SpriterAnimation)
+	 */
+	@Override
+	public void unload(SpriterAnimation animation) {
+		int index = indexOf(animation);
+
+		if (!loaded[index])
+			return;
+
+		animation.mainline = null;
+		animation.timelines.clear();
+		animation.timelines.shrink();
+		animation.eventlines.clear();
+		animation.eventlines.shrink();
+		animation.soundlines.clear();
+		animation.soundlines.shrink();
+		animation.meta = null;
+
+		loaded[index] = false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * net.spookygames.gdx.spriter.data.SpriterAnimationSource#isLoaded(net.
+	 * spookygames.gdx.spriter.data.SpriterAnimation)
+	 */
+	@Override
+	public boolean isLoaded(SpriterAnimation animation) {
+		return loaded[indexOf(animation)];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * net.spookygames.gdx.spriter.data.SpriterAnimationSource#getEventNames(
+	 * net.spookygames.gdx.spriter.data.SpriterAnimation,
+	 * com.badlogic.gdx.utils.Array)
+	 */
+	@Override
+	public void getEventNames(SpriterAnimation animation, Array<String> out) {
+		out.addAll(eventNames[indexOf(animation)]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * net.spookygames.gdx.spriter.data.SpriterAnimationSource#getPointNames(
+	 * net.spookygames.gdx.spriter.data.SpriterAnimation,
+	 * com.badlogic.gdx.utils.Array)
+	 */
+	@Override
+	public void getPointNames(SpriterAnimation animation, Array<String> out) {
+		out.addAll(pointNames[indexOf(animation)]);
+	}
+
+	/**
+	 * Load bodies of given {@link SpriterAnimation}s ahead of their first use.
+	 * 
+	 * @param animations
+	 *            Animations to load
+	 */
+	public void prefetch(SpriterAnimation... animations) {
+		for (SpriterAnimation animation : animations)
+			load(animation);
+	}
+
+	/**
+	 * Load bodies of {@link SpriterAnimation}s from given
+	 * {@link SpriterEntity} given their names, ahead of their first use.
+	 * 
+	 * Names that do not match any animation are ignored.
+	 * 
+	 * @param entity
+	 *            Entity the animations belong to
+	 * @param animationNames
+	 *            Names of the animations to load
+	 */
+	public void prefetch(SpriterEntity entity, String... animationNames) {
+		for (String name : animationNames)
+			for (SpriterAnimation animation : entity.animations)
+				if (name.equals(animation.name))
+					load(animation);
+	}
+
+	/**
+	 * Load bodies of all {@link SpriterAnimation}s handled by this source.
+	 */
+	public void prefetchAll() {
+		for (SpriterAnimation animation : animations)
+			load(animation);
+	}
+
+	/**
+	 * Release bodies of {@link SpriterAnimation}s that have not been used for
+	 * given time. Animations being played are marked as used on every
+	 * animator update and are thus kept.
+	 * 
+	 * @param idleMillis
+	 *            Time (in milliseconds) an animation should have been left
+	 *            unused to be released
+	 * @return The number of animations released
+	 */
+	public int unloadUnused(long idleMillis) {
+		long limit = TimeUtils.millis() - idleMillis;
+		int count = 0;
+		for (int i = 0; i < loaded.length; i++) {
+			if (loaded[i] && lastUses[i] <= limit) {
+				unload(animations.get(i));
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Get the number of {@link SpriterAnimation}s currently loaded.
+	 * 
+	 * @return The number of loaded animations
+	 */
+	public int getLoadedCount() {
+		int count = 0;
+		for (boolean l : loaded)
+			if (l)
+				count++;
+		return count;
+	}
+
+	private String read(int start, int end) throws IOException {
+		Reader input = opener.open();
+		try {
+			char[] buffer = new char[1024];
+
+			// Skip everything before the body
+			int position = 0;
+			while (position < start) {
+				int read = input.read(buffer, 0, Math.min(buffer.length, start - position));
+				if (read < 0)
+					throw new IOException("Spriter content ended before offset " + start);
+				position += read;
+			}
+
+			StringBuilder body = new StringBuilder(end - start);
+			while (position < end) {
+				int read = input.read(buffer, 0, Math.min(buffer.length, end - position));
+				if (read < 0)
+					throw new IOException("Spriter content ended before offset " + end);
+				body.append(buffer, 0, read);
+				position += read;
+			}
+			return body.toString();
+		} finally {
+			input.close();
+		}
+	}
+
+	private int indexOf(SpriterAnimation animation) {
+		int index = indices.get(animation, -1);
+		if (index < 0)
+			throw new IllegalArgumentException("Animation " + animation.name + " is not handled by this source");
+		return index;
+	}
+
+}
@@ -26,9 +26,12 @@ import java.io.Reader;
 
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.XmlReader;
 import com.badlogic.gdx.utils.XmlReader.Element;
 
+import net.spookygames.gdx.spriter.data.SpriterObjectType;
+
 /**
  * The {@code ScmlReader} class reads Spriter data from scml files. Acceptable
  * input can be of type {@link String}, {@link InputStream}, {@link Reader} or
@@ -59,6 +62,199 @@ public class ScmlReader extends SpriterReader {
 		return new XmlReaderBean(new XmlReader().parse(reader));
 	}
 
+	private static final String animationStart = "<animation";
+	private static final String animationEnd = "</animation>";
+
+	@Override
+	String indexAnimations(String content, IntArray ranges) {
+		StringBuilder skeleton = new StringBuilder(content.length());
+		int copied = 0;
+		int i = 0;
+
+		while ((i = content.indexOf('<', i)) >= 0) {
+
+			// Skip comments
+			if (content.startsWith("<!--", i)) {
+				int end = content.indexOf("-->", i);
+				if (end < 0)
+					break;
+				i = end + 3;
+				continue;
+			}
+
+			int nameEnd = i + animationStart.length();
+			if (!content.startsWith(animationStart, i) || nameEnd >= content.length()
+					|| !isNameEnd(content.charAt(nameEnd))) {
+				i++;
+				continue;
+			}
+
+			int tagEnd = findTagEnd(content, nameEnd);
+			if (tagEnd < 0)
+				break;
+
+			int end;
+			if (content.charAt(tagEnd - 1) == '/') {
+				// Empty animation, nothing to strip
+				end = tagEnd + 1;
+			} else {
+				end = content.indexOf(animationEnd, tagEnd);
+				if (end < 0)
+					break;
+				end += animationEnd.length();
+
+				// Keep start tag only, as an empty element
+				skeleton.append(content, copied, tagEnd);
+				skeleton.append("/>");
+				copied = end;
+			}
+
+			ranges.add(i);
+			ranges.add(end);
+
+			i = end;
+		}
+
+		skeleton.append(content, copied, content.length());
+
+		return skeleton.toString();
+	}
+
+	private static final String timelineStart = "<timeline";
+	private static final String eventlineStart = "<eventline";
+
+	@Override
+	void indexNames(String content, int start, int end, Array<String> eventNames, Array<String> pointNames) {
+		int i = start;
+
+		while ((i = content.indexOf('<', i)) >= 0 && i < end) {
+
+			// Skip comments
+			if (content.startsWith("<!--", i)) {
+				int commentEnd = content.indexOf("-->", i);
+				if (commentEnd < 0)
+					break;
+				i = commentEnd + 3;
+				continue;
+			}
+
+			boolean eventline = content.startsWith(eventlineStart, i);
+			boolean timeline = !eventline && content.startsWith(timelineStart, i);
+			int nameEnd = i + (eventline ? eventlineStart.length() : timelineStart.length());
+			if (!(eventline || timeline) || nameEnd >= end || !isNameEnd(content.charAt(nameEnd))) {
+				i++;
+				continue;
+			}
+
+			int tagEnd = findTagEnd(content, nameEnd);
+			if (tagEnd < 0)
+				break;
+
+			String name = getAttribute(content, nameEnd, tagEnd, "name");
+			if (eventline) {
+				eventNames.add(name);
+			} else {
+				String type = getAttribute(content, nameEnd, tagEnd, "object_type");
+				if (SpriterObjectType.parse(type) == SpriterObjectType.Point)
+					pointNames.add(name);
+			}
+
+			i = tagEnd;
+		}
+	}
+
+	private static String getAttribute(String content, int from, int tagEnd, String attribute) {
+		int i = from;
+		while (i < tagEnd) {
+			char c = content.charAt(i);
+			if (Character.isWhitespace(c) || c == '/') {
+				i++;
+				continue;
+			}
+
+			int nameStart = i;
+			while (i < tagEnd && content.charAt(i) != '=' && !Character.isWhitespace(content.charAt(i)))
+				i++;
+			int nameEnd = i;
+			while (i < tagEnd && content.charAt(i) != '=')
+				i++;
+			i++;
+			while (i < tagEnd && Character.isWhitespace(content.charAt(i)))
+				i++;
+			if (i >= tagEnd)
+				break;
+
+			char quote = content.charAt(i);
+			int valueEnd = content.indexOf(quote, i + 1);
+			if (valueEnd < 0 || valueEnd > tagEnd)
+				break;
+
+			if (nameEnd - nameStart == attribute.length() && content.startsWith(attribute, nameStart))
+				return unescape(content, i + 1, valueEnd);
+
+			i = valueEnd + 1;
+		}
+		return null;
+	}
+
+	private static String unescape(String content, int start, int end) {
+		int amp = content.indexOf('&', start);
+		if (amp < 0 || amp >= end)
+			return content.substring(start, end);
+
+		StringBuilder builder = new StringBuilder(end - start);
+		int i = start;
+		while (i < end) {
+			char c = content.charAt(i);
+			int semicolon = c == '&' ? content.indexOf(';', i) : -1;
+			if (semicolon < 0 || semicolon >= end) {
+				builder.append(c);
+				i++;
+				continue;
+			}
+
+			String entity = content.substring(i + 1, semicolon);
+			if (entity.equals("lt"))
+				builder.append('<');
+			else if (entity.equals("gt"))
+				builder.append('>');
+			else if (entity.equals("amp"))
+				builder.append('&');
+			else if (entity.equals("quot"))
+				builder.append('"');
+			else if (entity.equals("apos"))
+				builder.append('\'');
+			else if (entity.startsWith("#x"))
+				builder.append((char) Integer.parseInt(entity.substring(2), 16));
+			else if (entity.startsWith("#"))
+				builder.append((char) Integer.parseInt(entity.substring(1)));
+			else
+				builder.append('&').append(entity).append(';');
+			i = semicolon + 1;
+		}
+		return builder.toString();
+	}
+
+	private static boolean isNameEnd(char c) {
+		return c == '>' || c == '/' || Character.isWhitespace(c);
+	}
+
+	private static int findTagEnd(String content, int from) {
+		char quote = 0;
+		for (int i = from, n = content.length(); i < n; i++) {
+			char c = content.charAt(i);
+			if (quote != 0) {
+				if (c == quote)
+					quote = 0;
+			} else if (c == '"' || c == '\'') {
+				quote = c;
+			} else if (c == '>') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
 	private static class XmlReaderBean implements ReaderBean {
 
 		private final Element xml;
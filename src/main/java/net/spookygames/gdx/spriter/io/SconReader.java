@@ -26,9 +26,12 @@ import java.io.Reader;
 
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.JsonReader;
 import com.badlogic.gdx.utils.JsonValue;
 
+import net.spookygames.gdx.spriter.data.SpriterObjectType;
+
 /**
  * The {@code SconReader} class lets you read Spriter data from scon files.
  * Acceptable input can be of type {@link String}, {@link InputStream},
@@ -59,6 +62,239 @@ public class SconReader extends SpriterReader {
 		return new JsonReaderBean(new JsonReader().parse(reader));
 	}
 
+	private static final String animationKey = "\"animation\"";
+
+	@Override
+	String indexAnimations(String content, IntArray ranges) {
+		StringBuilder skeleton = new StringBuilder(content.length());
+		int copied = 0;
+		int i = 0;
+		int n = content.length();
+
+		while (i < n) {
+			char c = content.charAt(i);
+
+			if (c != '"') {
+				i++;
+				continue;
+			}
+
+			int keyEnd = skipString(content, i);
+
+			// Only arrays of animations are of interest here (entity
+			// references in timeline keys also have an "animation" field)
+			if (keyEnd - i == animationKey.length() && content.startsWith(animationKey, i)) {
+				int j = skipWhitespace(content, keyEnd);
+				if (j < n && content.charAt(j) == ':') {
+					j = skipWhitespace(content, j + 1);
+					if (j < n && content.charAt(j) == '[') {
+						j = skipWhitespace(content, j + 1);
+						while (j < n && content.charAt(j) == '{') {
+							int end = skipValue(content, j);
+
+							// Keep header fields only
+							skeleton.append(content, copied, j);
+							appendHeader(skeleton, content, j);
+							copied = end;
+
+							ranges.add(j);
+							ranges.add(end);
+
+							j = skipWhitespace(content, end);
+							if (j < n && content.charAt(j) == ',')
+								j = skipWhitespace(content, j + 1);
+						}
+						keyEnd = j;
+					}
+				}
+			}
+
+			i = keyEnd;
+		}
+
+		skeleton.append(content, copied, n);
+
+		return skeleton.toString();
+	}
+
+	private static void appendHeader(StringBuilder builder, String content, int start) {
+		builder.append('{');
+		boolean first = true;
+		int i = skipWhitespace(content, start + 1);
+		int n = content.length();
+		while (i < n && content.charAt(i) == '"') {
+			int keyEnd = skipString(content, i);
+			int valueStart = skipWhitespace(content, skipWhitespace(content, keyEnd) + 1);
+			int valueEnd = skipValue(content, valueStart);
+
+			char c = content.charAt(valueStart);
+			if (c != '{' && c != '[') {
+				if (!first)
+					builder.append(',');
+				builder.append(content, i, keyEnd).append(':').append(content, valueStart, valueEnd);
+				first = false;
+			}
+
+			i = skipWhitespace(content, valueEnd);
+			if (i < n && content.charAt(i) == ',')
+				i = skipWhitespace(content, i + 1);
+		}
+		builder.append('}');
+	}
+
+	@Override
+	void indexNames(String content, int start, int end, Array<String> eventNames, Array<String> pointNames) {
+		int i = skipWhitespace(content, start + 1);
+		while (i < end && content.charAt(i) == '"') {
+			int keyEnd = skipString(content, i);
+			int valueStart = skipWhitespace(content, skipWhitespace(content, keyEnd) + 1);
+			int valueEnd = skipValue(content, valueStart);
+
+			String key = content.substring(i + 1, keyEnd - 1);
+			boolean eventline = key.equals("eventline");
+			if ((eventline || key.equals("timeline")) && content.charAt(valueStart) == '[') {
+				int j = skipWhitespace(content, valueStart + 1);
+				while (j < valueEnd && content.charAt(j) == '{') {
+					int lineEnd = skipValue(content, j);
+
+					String name = getField(content, j, "name");
+					if (eventline) {
+						eventNames.add(name);
+					} else {
+						String type = getField(content, j, "object_type");
+						if (SpriterObjectType.parse(type) == SpriterObjectType.Point)
+							pointNames.add(name);
+					}
+
+					j = skipWhitespace(content, lineEnd);
+					if (j < valueEnd && content.charAt(j) == ',')
+						j = skipWhitespace(content, j + 1);
+				}
+			}
+
+			i = skipWhitespace(content, valueEnd);
+			if (i < end && content.charAt(i) == ',')
+				i = skipWhitespace(content, i + 1);
+		}
+	}
+
+	private static String getField(String content, int start, String field) {
+		int i = skipWhitespace(content, start + 1);
+		int n = content.length();
+		while (i < n && content.charAt(i) == '"') {
+			int keyEnd = skipString(content, i);
+			int valueStart = skipWhitespace(content, skipWhitespace(content, keyEnd) + 1);
+			int valueEnd = skipValue(content, valueStart);
+
+			if (keyEnd - i == field.length() + 2 && content.startsWith(field, i + 1)
+					&& content.charAt(valueStart) == '"')
+				return unescape(content, valueStart + 1, valueEnd - 1);
+
+			i = skipWhitespace(content, valueEnd);
+			if (i < n && content.charAt(i) == ',')
+				i = skipWhitespace(content, i + 1);
+		}
+		return null;
+	}
+
+	private static String unescape(String content, int start, int end) {
+		int backslash = content.indexOf('\\', start);
+		if (backslash < 0 || backslash >= end)
+			return content.substring(start, end);
+
+		StringBuilder builder = new StringBuilder(end - start);
+		for (int i = start; i < end; i++) {
+			char c = content.charAt(i);
+			if (c != '\\' || i + 1 >= end) {
+				builder.append(c);
+				continue;
+			}
+
+			c = content.charAt(++i);
+			switch (c) {
+			case 'b':
+				builder.append('\b');
+				break;
+			case 'f':
+				builder.append('\f');
+				break;
+			case 'n':
+				builder.append('\n');
+				break;
+			case 'r':
+				builder.append('\r');
+				break;
+			case 't':
+				builder.append('\t');
+				break;
+			case 'u':
+				builder.append((char) Integer.parseInt(content.substring(i + 1, i + 5), 16));
+				i += 4;
+				break;
+			default:
+				builder.append(c);
+				break;
+			}
+		}
+		return builder.toString();
+	}
+
+	private static int skipWhitespace(String content, int i) {
+		while (i < content.length() && Character.isWhitespace(content.charAt(i)))
+			i++;
+		return i;
+	}
+
+	private static int skipString(String content, int start) {
+		for (int i = start + 1, n = content.length(); i < n; i++) {
+			char c = content.charAt(i);
+			if (c == '\\')
+				i++;
+			else if (c == '"')
+				return i + 1;
+		}
+		return content.length();
+	}
+
+	private static int skipValue(String content, int start) {
+		int n = content.length();
+		char c = content.charAt(start);
+
+		if (c == '"')
+			return skipString(content, start);
+
+		if (c == '{' || c == '[') {
+			int depth = 0;
+			int i = start;
+			while (i < n) {
+				c = content.charAt(i);
+				if (c == '"') {
+					i = skipString(content, i);
+					continue;
+				}
+				if (c == '{' || c == '[') {
+					depth++;
+				} else if (c == '}' || c == ']') {
+					depth--;
+					if (depth == 0)
+						return i + 1;
+				}
+				i++;
+			}
+			return n;
+		}
+
+		// Primitive value
+		int i = start;
+		while (i < n) {
+			c = content.charAt(i);
+			if (c == ',' || c == '}' || c == ']' || Character.isWhitespace(c))
+				break;
+			i++;
+		}
+		return i;
+	}
+
 	private static class JsonReaderBean implements ReaderBean {
 
 		private final JsonValue json;
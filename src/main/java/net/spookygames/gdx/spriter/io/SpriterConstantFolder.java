@@ -0,0 +1,258 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter.io;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectFloatMap;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterEntity;
+import net.spookygames.gdx.spriter.data.SpriterObject;
+import net.spookygames.gdx.spriter.data.SpriterObjectType;
+import net.spookygames.gdx.spriter.data.SpriterPackedKeys;
+import net.spookygames.gdx.spriter.data.SpriterSpatial;
+import net.spookygames.gdx.spriter.data.SpriterTimeline;
+import net.spookygames.gdx.spriter.data.SpriterTimelineKey;
+
+/**
+ * The {@code SpriterConstantFolder} class flags constant segments of the
+ * timelines of {@link SpriterData}: keys whose next key holds the very same
+ * values, including single-key timelines. Sampling copies the stored value of
+ * flagged keys directly instead of interpolating.
+ * 
+ * Folding is lossless and meant to be run once loaded, after any reduction or
+ * packing, see
+ * {@link SpriterReader#setConstantFolder(SpriterConstantFolder)}.
+ * 
+ * Ratio of sampling work eliminated is reported per animation, as the share
+ * of timeline time spent in constant segments.
+ * 
+ * @see SpriterTimeline#constantKeys
+ * 
+ * @author thorthur
+ * 
+ */
+public class SpriterConstantFolder {
+
+	private int timelines = 0;
+	private int constantTimelines = 0;
+	private int segments = 0;
+	private int constantSegments = 0;
+
+	private final ObjectFloatMap<SpriterAnimation> ratios = new ObjectFloatMap<SpriterAnimation>();
+	private final Array<SpriterAnimation> animations = new Array<SpriterAnimation>();
+
+	/**
+	 * Fold constant segments of every animation of given
+	 * {@link SpriterData}.
+	 * 
+	 * @param data
+	 *            Spriter data to fold
+	 */
+	public void fold(SpriterData data) {
+		for (SpriterEntity entity : data.entities)
+			for (SpriterAnimation animation : entity.animations)
+				fold(animation);
+	}
+
+	/**
+	 * Fold constant segments of given {@link SpriterAnimation}.
+	 * 
+	 * @param animation
+	 *            Spriter animation to fold
+	 * @return Ratio of sampling work eliminated, between 0 and 1
+	 */
+	public float fold(SpriterAnimation animation) {
+		// Lazy animation, body not read yet
+		if (animation.timelines.size == 0)
+			return 0f;
+
+		float total = 0f;
+		float folded = 0f;
+
+		for (SpriterTimeline timeline : animation.timelines) {
+			int size = timeline.packedKeys != null ? timeline.packedKeys.size : timeline.keys.size;
+			if (size == 0)
+				continue;
+
+			boolean[] constantKeys = new boolean[size];
+			boolean constant = true;
+
+			for (int i = 0; i < size; ++i) {
+				int next = i + 1 < size ? i + 1 : (animation.looping ? 0 : -1);
+				constantKeys[i] = next < 0 || next == i || isConstant(timeline, i, next);
+				constant &= constantKeys[i];
+
+				float duration = getDuration(timeline, animation, i, next);
+				total += duration;
+				if (constantKeys[i]) {
+					folded += duration;
+					constantSegments++;
+				}
+			}
+
+			timeline.constantKeys = constantKeys;
+			timelines++;
+			segments += size;
+			if (constant)
+				constantTimelines++;
+		}
+
+		float ratio = total > 0f ? folded / total : 0f;
+		if (!ratios.containsKey(animation))
+			animations.add(animation);
+		ratios.put(animation, ratio);
+		return ratio;
+	}
+
+	/**
+	 * Clear constant segment flags of given {@link SpriterTimeline}, to be
+	 * called whenever its keys change.
+	 * 
+	 * @param timeline
+	 *            Spriter timeline to unfold
+	 */
+	public static void unfold(SpriterTimeline timeline) {
+		timeline.constantKeys = null;
+	}
+
+	private static float getDuration(SpriterTimeline timeline, SpriterAnimation animation, int key, int next) {
+		float time = getTime(timeline, key);
+		if (next < 0)
+			return animation.length - time;
+		float nextTime = getTime(timeline, next);
+		return next > key ? nextTime - time : animation.length - time + nextTime;
+	}
+
+	private static float getTime(SpriterTimeline timeline, int key) {
+		return timeline.packedKeys != null ? timeline.packedKeys.times[key] : timeline.keys.get(key).time;
+	}
+
+	private static boolean isConstant(SpriterTimeline timeline, int a, int b) {
+		SpriterPackedKeys packed = timeline.packedKeys;
+		if (packed != null) {
+			boolean spatial = packed.x[a] == packed.x[b] && packed.y[a] == packed.y[b]
+					&& packed.angle.get(a) == packed.angle.get(b) && packed.scaleX.get(a) == packed.scaleX.get(b)
+					&& packed.scaleY.get(a) == packed.scaleY.get(b);
+			if (packed.bone || !spatial)
+				return spatial;
+			return packed.alpha.get(a) == packed.alpha.get(b) && (packed.t == null || packed.t[a] == packed.t[b]);
+		}
+
+		SpriterTimelineKey keyA = timeline.keys.get(a);
+		SpriterTimelineKey keyB = timeline.keys.get(b);
+
+		if (timeline.objectType == SpriterObjectType.Bone)
+			return isConstant(keyA.boneInfo, keyB.boneInfo);
+
+		SpriterObject objectA = keyA.objectInfo;
+		SpriterObject objectB = keyB.objectInfo;
+		return isConstant(objectA, objectB) && objectA.alpha == objectB.alpha && objectA.t == objectB.t;
+	}
+
+	private static boolean isConstant(SpriterSpatial a, SpriterSpatial b) {
+		return a.x == b.x && a.y == b.y && a.angle == b.angle && a.scaleX == b.scaleX && a.scaleY == b.scaleY;
+	}
+
+	/**
+	 * Get the ratio of sampling work eliminated in given
+	 * {@link SpriterAnimation}, as of its last folding.
+	 * 
+	 * @param animation
+	 *            Folded animation
+	 * @return Ratio between 0 and 1, or 0 if the animation was not folded
+	 */
+	public float getFoldedRatio(SpriterAnimation animation) {
+		return ratios.get(animation, 0f);
+	}
+
+	/**
+	 * Get the number of timelines folded since last statistics reset.
+	 * 
+	 * @return Number of folded timelines
+	 */
+	public int getTimelines() {
+		return timelines;
+	}
+
+	/**
+	 * Get the number of folded timelines that are constant all along.
+	 * 
+	 * @return Number of constant timelines
+	 */
+	public int getConstantTimelines() {
+		return constantTimelines;
+	}
+
+	/**
+	 * Get the number of key segments folded since last statistics reset.
+	 * 
+	 * @return Number of segments
+	 */
+	public int getSegments() {
+		return segments;
+	}
+
+	/**
+	 * Get the number of folded key segments flagged as constant.
+	 * 
+	 * @return Number of constant segments
+	 */
+	public int getConstantSegments() {
+		return constantSegments;
+	}
+
+	/**
+	 * Reset timeline and segment counters as well as per-animation ratios.
+	 */
+	public void resetStatistics() {
+		timelines = 0;
+		constantTimelines = 0;
+		segments = 0;
+		constantSegments = 0;
+		ratios.clear();
+		animations.clear();
+	}
+
+	/**
+	 * Get a human-readable report of folded animations, one line per
+	 * animation.
+	 * 
+	 * @return Folding report
+	 */
+	public String getReport() {
+		StringBuilder builder = new StringBuilder();
+		for (SpriterAnimation animation : animations) {
+			builder.append(animation.entity == null ? "?" : animation.entity.name).append('/').append(animation.name);
+			builder.append(": ").append(Math.round(ratios.get(animation, 0f) * 1000f) / 10f).append("% folded\n");
+		}
+		return builder.toString();
+	}
+
+	@Override
+	public String toString() {
+		return "SpriterConstantFolder [timelines=" + timelines + ", constantTimelines=" + constantTimelines
+				+ ", segments=" + segments + ", constantSegments=" + constantSegments + "]";
+	}
+
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter.io;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Interface for opening Spriter file content, possibly several times. It lets
+ * a {@link LazySpriterAnimationSource} read animation bodies again from their
+ * origin instead of keeping the whole content in memory.
+ * 
+ * Every call must give the same content, read with the same charset.
+ * 
+ * @see SpriterReader#load(SpriterContentOpener)
+ * 
+ * @author thorthur
+ * 
+ */
+public interface SpriterContentOpener {
+
+	/**
+	 * Open a new {@link Reader} at the start of the content. The caller closes
+	 * it.
+	 * 
+	 * @return Reader of the content
+	 * @throws IOException
+	 *             If an I/O error occurs
+	 */
+	public Reader open() throws IOException;
+
+}
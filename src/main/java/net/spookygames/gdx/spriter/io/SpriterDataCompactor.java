@@ -0,0 +1,422 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter.io;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterCharacterMap;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterElement;
+import net.spookygames.gdx.spriter.data.SpriterEntity;
+import net.spookygames.gdx.spriter.data.SpriterEventline;
+import net.spookygames.gdx.spriter.data.SpriterFile;
+import net.spookygames.gdx.spriter.data.SpriterFileInfo;
+import net.spookygames.gdx.spriter.data.SpriterFolder;
+import net.spookygames.gdx.spriter.data.SpriterKey;
+import net.spookygames.gdx.spriter.data.SpriterMainlineKey;
+import net.spookygames.gdx.spriter.data.SpriterMapInstruction;
+import net.spookygames.gdx.spriter.data.SpriterMeta;
+import net.spookygames.gdx.spriter.data.SpriterObject;
+import net.spookygames.gdx.spriter.data.SpriterObjectInfo;
+import net.spookygames.gdx.spriter.data.SpriterRef;
+import net.spookygames.gdx.spriter.data.SpriterSound;
+import net.spookygames.gdx.spriter.data.SpriterSoundline;
+import net.spookygames.gdx.spriter.data.SpriterSoundlineKey;
+import net.spookygames.gdx.spriter.data.SpriterSpatial;
+import net.spookygames.gdx.spriter.data.SpriterTag;
+import net.spookygames.gdx.spriter.data.SpriterTaglineKey;
+import net.spookygames.gdx.spriter.data.SpriterTimeline;
+import net.spookygames.gdx.spriter.data.SpriterTimelineKey;
+import net.spookygames.gdx.spriter.data.SpriterVarDef;
+import net.spookygames.gdx.spriter.data.SpriterVarValue;
+import net.spookygames.gdx.spriter.data.SpriterVariableContainer;
+import net.spookygames.gdx.spriter.data.SpriterVarline;
+import net.spookygames.gdx.spriter.data.SpriterVarlineKey;
+
+/**
+ * The {@code SpriterDataCompactor} class reduces the memory footprint of
+ * {@link SpriterData} by sharing equal instances: strings (names, variable
+ * values), {@link SpriterFileInfo}s and timeline key payloads (bone and object
+ * infos).
+ * 
+ * Compacted data is identical to the original data, but shared instances must
+ * be considered immutable from then on. A single compactor may be used across
+ * several loads in order to share instances between Spriter files, call
+ * {@link #clear()} to release its pools.
+ * 
+ * Estimates of memory saved assume a 64-bit JVM with compressed references.
+ * 
+ * @see SpriterReader#setCompactor(SpriterDataCompactor)
+ * 
+ * @author thorthur
+ * 
+ */
+public class SpriterDataCompactor {
+
+	private static final int objectHeaderSize = 12;
+	private static final int referenceSize = 4;
+
+	private final ObjectMap<String, String> strings = new ObjectMap<String, String>();
+	private final LongMap<SpriterFileInfo> fileInfos = new LongMap<SpriterFileInfo>();
+	private final ObjectMap<Payload, SpriterSpatial> payloads = new ObjectMap<Payload, SpriterSpatial>();
+	private final Payload probe = new Payload();
+
+	private int sharedStrings = 0;
+	private int sharedFileInfos = 0;
+	private int sharedPayloads = 0;
+	private long bytesSaved = 0L;
+
+	/**
+	 * Compact given {@link SpriterData}, including every loaded animation.
+	 * 
+	 * @param data
+	 *            Spriter data to compact
+	 */
+	public void compact(SpriterData data) {
+		data.version = string(data.version);
+		data.generator = string(data.generator);
+		data.generatorVersion = string(data.generatorVersion);
+
+		for (SpriterFolder folder : data.folders) {
+			element(folder);
+			for (SpriterFile file : folder.files)
+				element(file);
+		}
+
+		for (SpriterElement tag : data.tags)
+			element(tag);
+
+		for (SpriterEntity entity : data.entities) {
+			element(entity);
+			variables(entity);
+
+			for (SpriterObjectInfo info : entity.objectInfos) {
+				element(info);
+				info.realName = string(info.realName);
+				variables(info);
+				Array<SpriterFileInfo> frames = info.frames;
+				for (int i = 0; i < frames.size; i++)
+					frames.set(i, fileInfo(frames.get(i)));
+			}
+
+			for (SpriterCharacterMap map : entity.characterMaps) {
+				element(map);
+				for (SpriterMapInstruction instruction : map.maps) {
+					instruction.file = fileInfo(instruction.file);
+					instruction.target = fileInfo(instruction.target);
+				}
+			}
+
+			for (SpriterAnimation animation : entity.animations)
+				compact(animation);
+		}
+	}
+
+	/**
+	 * Compact given {@link SpriterAnimation}. Animations whose body is not
+	 * loaded only get their header compacted.
+	 * 
+	 * @param animation
+	 *            Spriter animation to compact
+	 */
+	public void compact(SpriterAnimation animation) {
+		element(animation);
+
+		if (animation.mainline != null) {
+			for (SpriterMainlineKey key : animation.mainline.keys) {
+				element(key);
+				for (SpriterRef ref : key.boneRefs)
+					element(ref);
+				for (SpriterRef ref : key.objectRefs)
+					element(ref);
+			}
+		}
+
+		for (SpriterTimeline timeline : animation.timelines) {
+			element(timeline);
+			for (SpriterTimelineKey key : timeline.keys) {
+				element(key);
+				if (key.boneInfo != null)
+					key.boneInfo = payload(key.boneInfo);
+				if (key.objectInfo != null) {
+					key.objectInfo.file = fileInfo(key.objectInfo.file);
+					key.objectInfo = (SpriterObject) payload(key.objectInfo);
+				}
+			}
+			if (timeline.packedKeys != null && timeline.packedKeys.files != null) {
+				SpriterFileInfo[] files = timeline.packedKeys.files;
+				for (int i = 0; i < files.length; i++)
+					files[i] = fileInfo(files[i]);
+			}
+			meta(timeline.meta);
+		}
+
+		for (SpriterEventline eventline : animation.eventlines) {
+			element(eventline);
+			for (SpriterKey key : eventline.keys)
+				element(key);
+		}
+
+		for (SpriterSoundline soundline : animation.soundlines) {
+			element(soundline);
+			for (SpriterSoundlineKey key : soundline.keys) {
+				element(key);
+				SpriterSound sound = key.soundObject;
+				if (sound != null) {
+					element(sound);
+					sound.file = fileInfo(sound.file);
+				}
+			}
+		}
+
+		meta(animation.meta);
+	}
+
+	/**
+	 * Get the number of strings replaced by an equal shared instance so far.
+	 * 
+	 * @return The number of shared strings
+	 */
+	public int getSharedStrings() {
+		return sharedStrings;
+	}
+
+	/**
+	 * Get the number of {@link SpriterFileInfo}s replaced by an equal shared
+	 * instance so far.
+	 * 
+	 * @return The number of shared file infos
+	 */
+	public int getSharedFileInfos() {
+		return sharedFileInfos;
+	}
+
+	/**
+	 * Get the number of timeline key payloads ({@link SpriterSpatial}s and
+	 * {@link SpriterObject}s) replaced by an equal shared instance so far.
+	 * 
+	 * @return The number of shared key payloads
+	 */
+	public int getSharedPayloads() {
+		return sharedPayloads;
+	}
+
+	/**
+	 * Get an estimate of the number of bytes saved by compaction so far.
+	 * 
+	 * @return The estimated number of bytes saved
+	 */
+	public long getBytesSaved() {
+		return bytesSaved;
+	}
+
+	/**
+	 * Reset statistics of this compactor. Pools are kept.
+	 */
+	public void resetStatistics() {
+		sharedStrings = 0;
+		sharedFileInfos = 0;
+		sharedPayloads = 0;
+		bytesSaved = 0L;
+	}
+
+	/**
+	 * Release pools of shared instances and reset statistics. Data compacted
+	 * from then on will not share instances with data compacted before.
+	 */
+	public void clear() {
+		strings.clear();
+		fileInfos.clear();
+		payloads.clear();
+		resetStatistics();
+	}
+
+	private void element(SpriterElement element) {
+		element.name = string(element.name);
+	}
+
+	private void variables(SpriterVariableContainer container) {
+		for (SpriterVarDef def : container.variables) {
+			element(def);
+			def.defaultValue = string(def.defaultValue);
+			varValue(def.variableValue);
+		}
+	}
+
+	private void meta(SpriterMeta meta) {
+		if (meta == null)
+			return;
+
+		for (SpriterVarline varline : meta.varlines) {
+			element(varline);
+			for (SpriterVarlineKey key : varline.keys) {
+				element(key);
+				key.value = string(key.value);
+				varValue(key.variableValue);
+			}
+		}
+
+		if (meta.tagline != null) {
+			for (SpriterTaglineKey key : meta.tagline.keys) {
+				element(key);
+				for (SpriterTag tag : key.tags)
+					element(tag);
+			}
+		}
+	}
+
+	private void varValue(SpriterVarValue value) {
+		if (value != null)
+			value.stringValue = string(value.stringValue);
+	}
+
+	private String string(String value) {
+		if (value == null)
+			return null;
+
+		String shared = strings.get(value);
+		if (shared == null) {
+			strings.put(value, value);
+			return value;
+		}
+
+		if (shared != value) {
+			sharedStrings++;
+			bytesSaved += stringSize(value);
+		}
+		return shared;
+	}
+
+	private SpriterFileInfo fileInfo(SpriterFileInfo info) {
+		if (info == null)
+			return null;
+
+		long key = ((long) info.folderId << 32) | (info.fileId & 0xffffffffL);
+		SpriterFileInfo shared = fileInfos.get(key);
+		if (shared == null) {
+			fileInfos.put(key, info);
+			return info;
+		}
+
+		if (shared != info) {
+			sharedFileInfos++;
+			bytesSaved += align(objectHeaderSize + 2 * 4);
+		}
+		return shared;
+	}
+
+	private SpriterSpatial payload(SpriterSpatial spatial) {
+		probe.value = spatial;
+		SpriterSpatial shared = payloads.get(probe);
+		probe.value = null;
+
+		if (shared == null) {
+			Payload key = new Payload();
+			key.value = spatial;
+			payloads.put(key, spatial);
+			return spatial;
+		}
+
+		if (shared != spatial) {
+			sharedPayloads++;
+			if (spatial instanceof SpriterObject)
+				bytesSaved += align(objectHeaderSize + 9 * 4 + 2 * 4 + referenceSize);
+			else
+				bytesSaved += align(objectHeaderSize + 6 * 4);
+		}
+		return shared;
+	}
+
+	private static long stringSize(String value) {
+		// String instance (hash + array reference) plus its char array
+		return align(objectHeaderSize + 4 + referenceSize) + align(objectHeaderSize + 4 + 2 * value.length());
+	}
+
+	private static long align(long size) {
+		return (size + 7) & ~7L;
+	}
+
+	/**
+	 * Value-based key on timeline key payloads.
+	 */
+	private static class Payload {
+
+		SpriterSpatial value;
+
+		@Override
+		public int hashCode() {
+			SpriterSpatial s = value;
+			int result = s.getClass().hashCode();
+			result = 31 * result + Float.floatToIntBits(s.x);
+			result = 31 * result + Float.floatToIntBits(s.y);
+			result = 31 * result + Float.floatToIntBits(s.angle);
+			result = 31 * result + Float.floatToIntBits(s.scaleX);
+			result = 31 * result + Float.floatToIntBits(s.scaleY);
+			result = 31 * result + Float.floatToIntBits(s.alpha);
+			if (s instanceof SpriterObject) {
+				SpriterObject o = (SpriterObject) s;
+				result = 31 * result + o.animationId;
+				result = 31 * result + o.entityId;
+				result = 31 * result + (o.file == null ? 0 : o.file.hashCode());
+				result = 31 * result + Float.floatToIntBits(o.pivotX);
+				result = 31 * result + Float.floatToIntBits(o.pivotY);
+				result = 31 * result + Float.floatToIntBits(o.t);
+			}
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Payload))
+				return false;
+			SpriterSpatial a = value;
+			SpriterSpatial b = ((Payload) obj).value;
+			if (a.getClass() != b.getClass())
+				return false;
+			if (Float.floatToIntBits(a.x) != Float.floatToIntBits(b.x)
+					|| Float.floatToIntBits(a.y) != Float.floatToIntBits(b.y)
+					|| Float.floatToIntBits(a.angle) != Float.floatToIntBits(b.angle)
+					|| Float.floatToIntBits(a.scaleX) != Float.floatToIntBits(b.scaleX)
+					|| Float.floatToIntBits(a.scaleY) != Float.floatToIntBits(b.scaleY)
+					|| Float.floatToIntBits(a.alpha) != Float.floatToIntBits(b.alpha))
+				return false;
+			if (a instanceof SpriterObject) {
+				SpriterObject oa = (SpriterObject) a;
+				SpriterObject ob = (SpriterObject) b;
+				if (oa.animationId != ob.animationId || oa.entityId != ob.entityId
+						|| Float.floatToIntBits(oa.pivotX) != Float.floatToIntBits(ob.pivotX)
+						|| Float.floatToIntBits(oa.pivotY) != Float.floatToIntBits(ob.pivotY)
+						|| Float.floatToIntBits(oa.t) != Float.floatToIntBits(ob.t))
+					return false;
+				if (oa.file == null ? ob.file != null : !oa.file.equals(ob.file))
+					return false;
+			}
+			return true;
+		}
+	}
+
+}
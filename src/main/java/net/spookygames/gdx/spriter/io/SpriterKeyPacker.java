@@ -0,0 +1,490 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter.io;
+
+import com.badlogic.gdx.utils.Array;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterCurveType;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterEntity;
+import net.spookygames.gdx.spriter.data.SpriterFileInfo;
+import net.spookygames.gdx.spriter.data.SpriterObject;
+import net.spookygames.gdx.spriter.data.SpriterPackedChannel;
+import net.spookygames.gdx.spriter.data.SpriterPackedKeys;
+import net.spookygames.gdx.spriter.data.SpriterSpatial;
+import net.spookygames.gdx.spriter.data.SpriterTimeline;
+import net.spookygames.gdx.spriter.data.SpriterTimelineKey;
+
+/**
+ * The {@code SpriterKeyPacker} class replaces timeline keys of
+ * {@link SpriterData} by their primitive-packed counterpart
+ * {@link SpriterPackedKeys}, from which animators sample directly.
+ * 
+ * Packing is lossless unless quantization is enabled, in which case angle,
+ * scale and alpha values are stored on 16 bits whenever the resulting error
+ * stays within configured tolerances, and as floats otherwise.
+ * 
+ * Estimates of memory usage assume a 64-bit JVM with compressed references.
+ * 
+ * @see SpriterReader#setKeyPacker(SpriterKeyPacker)
+ * 
+ * @author thorthur
+ * 
+ */
+public class SpriterKeyPacker {
+
+	private static final int quantizationLevels = 0xffff;
+
+	private boolean quantization = false;
+	private float angleTolerance = 0.01f;
+	private float scaleTolerance = 0.0001f;
+	private float alphaTolerance = 0.0001f;
+
+	private int packedKeys = 0;
+	private long bytesBefore = 0L;
+	private long bytesAfter = 0L;
+
+	private float[] buffer = new float[16];
+
+	/**
+	 * Check whether this packer quantizes angle, scale and alpha values.
+	 * 
+	 * @return True if values are quantized, false otherwise
+	 */
+	public boolean isQuantization() {
+		return quantization;
+	}
+
+	/**
+	 * Define whether this packer should quantize angle, scale and alpha values
+	 * to 16 bits, provided the error stays within tolerances.
+	 * 
+	 * @param quantization
+	 *            True to quantize values, false to pack losslessly (default)
+	 */
+	public void setQuantization(boolean quantization) {
+		this.quantization = quantization;
+	}
+
+	/**
+	 * Get the maximum error allowed when quantizing angles, in degrees.
+	 * 
+	 * @return The maximum angle error
+	 */
+	public float getAngleTolerance() {
+		return angleTolerance;
+	}
+
+	/**
+	 * Set the maximum error allowed when quantizing angles, in degrees.
+	 * Defaults to 0.01.
+	 * 
+	 * @param angleTolerance
+	 *            The maximum angle error
+	 */
+	public void setAngleTolerance(float angleTolerance) {
+		this.angleTolerance = angleTolerance;
+	}
+
+	/**
+	 * Get the maximum error allowed when quantizing scales.
+	 * 
+	 * @return The maximum scale error
+	 */
+	public float getScaleTolerance() {
+		return scaleTolerance;
+	}
+
+	/**
+	 * Set the maximum error allowed when quantizing scales. Defaults to
+	 * 0.0001.
+	 * 
+	 * @param scaleTolerance
+	 *            The maximum scale error
+	 */
+	public void setScaleTolerance(float scaleTolerance) {
+		this.scaleTolerance = scaleTolerance;
+	}
+
+	/**
+	 * Get the maximum error allowed when quantizing alpha values.
+	 * 
+	 * @return The maximum alpha error
+	 */
+	public float getAlphaTolerance() {
+		return alphaTolerance;
+	}
+
+	/**
+	 * Set the maximum error allowed when quantizing alpha values. Defaults to
+	 * 0.0001.
+	 * 
+	 * @param alphaTolerance
+	 *            The maximum alpha error
+	 */
+	public void setAlphaTolerance(float alphaTolerance) {
+		this.alphaTolerance = alphaTolerance;
+	}
+
+	/**
+	 * Pack timeline keys of every loaded animation of given
+	 * {@link SpriterData}.
+	 * 
+	 * @param data
+	 *            Spriter data to pack
+	 */
+	public void pack(SpriterData data) {
+		for (SpriterEntity entity : data.entities)
+			for (SpriterAnimation animation : entity.animations)
+				pack(animation);
+	}
+
+	/**
+	 * Pack timeline keys of given {@link SpriterAnimation}.
+	 * 
+	 * @param animation
+	 *            Spriter animation to pack
+	 */
+	public void pack(SpriterAnimation animation) {
+		for (SpriterTimeline timeline : animation.timelines)
+			pack(timeline);
+	}
+
+	/**
+	 * Pack keys of given {@link SpriterTimeline}. Timelines already packed,
+	 * empty or whose keys cannot be packed without loss of information (named
+	 * keys, mixed bone and object keys) are left untouched.
+	 * 
+	 * @param timeline
+	 *            Spriter timeline to pack
+	 * @return True if timeline got packed, false otherwise
+	 */
+	public boolean pack(SpriterTimeline timeline) {
+		Array<SpriterTimelineKey> keys = timeline.keys;
+		int size = keys.size;
+
+		if (timeline.packedKeys != null || size == 0)
+			return false;
+
+		boolean bone = keys.first().boneInfo != null;
+		for (int i = 0; i < size; i++) {
+			SpriterTimelineKey key = keys.get(i);
+			if (key.id != i || key.name != null)
+				return false;
+			if (bone ? (key.boneInfo == null || key.objectInfo != null) : key.objectInfo == null)
+				return false;
+		}
+
+		SpriterPackedKeys packed = new SpriterPackedKeys();
+		packed.size = size;
+		packed.bone = bone;
+		packed.times = new float[size];
+		packed.x = new float[size];
+		packed.y = new float[size];
+
+		boolean linear = true;
+		boolean parameters = false;
+		boolean spins = false;
+		for (int i = 0; i < size; i++) {
+			SpriterTimelineKey key = keys.get(i);
+			SpriterSpatial spatial = bone ? key.boneInfo : key.objectInfo;
+			packed.times[i] = key.time;
+			packed.x[i] = spatial.x;
+			packed.y[i] = spatial.y;
+			linear &= key.curveType == SpriterCurveType.Linear;
+			parameters |= key.c1 != 0f || key.c2 != 0f || key.c3 != 0f || key.c4 != 0f;
+			spins |= key.spin != 1;
+		}
+
+		if (!linear || parameters) {
+			packed.curveTypes = new byte[size];
+			packed.curveParameters = new float[size * 4];
+			for (int i = 0; i < size; i++) {
+				SpriterTimelineKey key = keys.get(i);
+				packed.curveTypes[i] = (byte) key.curveType.ordinal();
+				packed.curveParameters[i * 4] = key.c1;
+				packed.curveParameters[i * 4 + 1] = key.c2;
+				packed.curveParameters[i * 4 + 2] = key.c3;
+				packed.curveParameters[i * 4 + 3] = key.c4;
+			}
+		}
+
+		if (spins) {
+			packed.spins = new byte[size];
+			for (int i = 0; i < size; i++)
+				packed.spins[i] = (byte) keys.get(i).spin;
+		}
+
+		float[] values = buffer(size);
+
+		for (int i = 0; i < size; i++)
+			values[i] = spatial(keys.get(i), bone).angle;
+		packed.angle = channel(values, size, angleTolerance);
+
+		for (int i = 0; i < size; i++)
+			values[i] = spatial(keys.get(i), bone).scaleX;
+		packed.scaleX = channel(values, size, scaleTolerance);
+
+		for (int i = 0; i < size; i++)
+			values[i] = spatial(keys.get(i), bone).scaleY;
+		packed.scaleY = channel(values, size, scaleTolerance);
+
+		for (int i = 0; i < size; i++)
+			values[i] = spatial(keys.get(i), bone).alpha;
+		packed.alpha = channel(values, size, alphaTolerance);
+
+		if (!bone)
+			packObjects(packed, keys);
+
+		packedKeys += size;
+		bytesBefore += getByteSize(keys, bone);
+
+		timeline.packedKeys = packed;
+		keys.clear();
+		keys.shrink();
+
+		bytesAfter += getByteSize(keys, bone) + packed.getByteSize();
+
+		return true;
+	}
+
+	/**
+	 * Restore keys of given {@link SpriterTimeline} from its packed
+	 * counterpart. Quantized values are not restored to their original
+	 * precision.
+	 * 
+	 * @param timeline
+	 *            Spriter timeline to unpack
+	 */
+	public static void unpack(SpriterTimeline timeline) {
+		if (timeline.packedKeys == null)
+			return;
+
+		timeline.keys = unpack(timeline.packedKeys);
+		timeline.packedKeys = null;
+	}
+
+	/**
+	 * Create keys out of given {@link SpriterPackedKeys}.
+	 * 
+	 * @param packed
+	 *            Packed keys to read
+	 * @return Timeline keys equivalent to packed keys
+	 */
+	public static Array<SpriterTimelineKey> unpack(SpriterPackedKeys packed) {
+		Array<SpriterTimelineKey> keys = new Array<SpriterTimelineKey>(packed.size);
+
+		for (int i = 0; i < packed.size; i++) {
+			SpriterTimelineKey key = new SpriterTimelineKey();
+			key.id = i;
+			key.time = packed.times[i];
+			key.curveType = packed.getCurveType(i);
+			key.c1 = packed.getCurveParameter(i, 0);
+			key.c2 = packed.getCurveParameter(i, 1);
+			key.c3 = packed.getCurveParameter(i, 2);
+			key.c4 = packed.getCurveParameter(i, 3);
+			key.spin = packed.getSpin(i);
+			if (packed.bone) {
+				key.boneInfo = new SpriterSpatial();
+				packed.fill(i, key.boneInfo);
+			} else {
+				key.objectInfo = new SpriterObject();
+				packed.fill(i, key.objectInfo);
+			}
+			keys.add(key);
+		}
+
+		return keys;
+	}
+
+	/**
+	 * Get the number of keys packed so far.
+	 * 
+	 * @return The number of packed keys
+	 */
+	public int getPackedKeys() {
+		return packedKeys;
+	}
+
+	/**
+	 * Get an estimate of the memory used by keys before packing, in bytes.
+	 * 
+	 * @return The estimated number of bytes before packing
+	 */
+	public long getBytesBefore() {
+		return bytesBefore;
+	}
+
+	/**
+	 * Get an estimate of the memory used by keys after packing, in bytes.
+	 * 
+	 * @return The estimated number of bytes after packing
+	 */
+	public long getBytesAfter() {
+		return bytesAfter;
+	}
+
+	/**
+	 * Get the average memory used by one key before packing, in bytes.
+	 * 
+	 * @return The estimated number of bytes per key before packing
+	 */
+	public float getBytesPerKeyBefore() {
+		return packedKeys == 0 ? 0f : (float) bytesBefore / packedKeys;
+	}
+
+	/**
+	 * Get the average memory used by one key after packing, in bytes.
+	 * 
+	 * @return The estimated number of bytes per key after packing
+	 */
+	public float getBytesPerKeyAfter() {
+		return packedKeys == 0 ? 0f : (float) bytesAfter / packedKeys;
+	}
+
+	/**
+	 * Reset statistics of this packer.
+	 */
+	public void resetStatistics() {
+		packedKeys = 0;
+		bytesBefore = 0L;
+		bytesAfter = 0L;
+	}
+
+	private void packObjects(SpriterPackedKeys packed, Array<SpriterTimelineKey> keys) {
+		int size = keys.size;
+
+		boolean pivots = false;
+		boolean t = false;
+		boolean entities = false;
+		boolean animations = false;
+
+		packed.files = new SpriterFileInfo[size];
+		for (int i = 0; i < size; i++) {
+			SpriterObject object = keys.get(i).objectInfo;
+			packed.files[i] = object.file;
+			pivots |= !Float.isNaN(object.pivotX) || !Float.isNaN(object.pivotY);
+			t |= object.t != 0f;
+			entities |= object.entityId != 0;
+			animations |= object.animationId != 0;
+		}
+
+		if (pivots) {
+			packed.pivotX = new float[size];
+			packed.pivotY = new float[size];
+			for (int i = 0; i < size; i++) {
+				SpriterObject object = keys.get(i).objectInfo;
+				packed.pivotX[i] = object.pivotX;
+				packed.pivotY[i] = object.pivotY;
+			}
+		}
+
+		if (t) {
+			packed.t = new float[size];
+			for (int i = 0; i < size; i++)
+				packed.t[i] = keys.get(i).objectInfo.t;
+		}
+
+		if (entities) {
+			packed.entityIds = new int[size];
+			for (int i = 0; i < size; i++)
+				packed.entityIds[i] = keys.get(i).objectInfo.entityId;
+		}
+
+		if (animations) {
+			packed.animationIds = new int[size];
+			for (int i = 0; i < size; i++)
+				packed.animationIds[i] = keys.get(i).objectInfo.animationId;
+		}
+	}
+
+	private SpriterPackedChannel channel(float[] values, int size, float tolerance) {
+		SpriterPackedChannel channel = new SpriterPackedChannel();
+
+		float min = values[0];
+		float max = values[0];
+		boolean constant = true;
+		for (int i = 1; i < size; i++) {
+			float value = values[i];
+			constant &= Float.floatToIntBits(value) == Float.floatToIntBits(values[0]);
+			if (value < min)
+				min = value;
+			if (value > max)
+				max = value;
+		}
+
+		if (constant) {
+			// Lossless in any case
+			channel.offset = values[0];
+			return channel;
+		}
+
+		if (quantization) {
+			float step = (max - min) / quantizationLevels;
+			short[] quantized = new short[size];
+			boolean accurate = step > 0f;
+			for (int i = 0; accurate && i < size; i++) {
+				int level = Math.round((values[i] - min) / step);
+				if (level < 0)
+					level = 0;
+				else if (level > quantizationLevels)
+					level = quantizationLevels;
+				quantized[i] = (short) level;
+				accurate = Math.abs(min + level * step - values[i]) <= tolerance;
+			}
+
+			if (accurate) {
+				channel.quantized = quantized;
+				channel.offset = min;
+				channel.step = step;
+				return channel;
+			}
+		}
+
+		channel.values = new float[size];
+		System.arraycopy(values, 0, channel.values, 0, size);
+		return channel;
+	}
+
+	private float[] buffer(int size) {
+		if (buffer.length < size)
+			buffer = new float[size];
+		return buffer;
+	}
+
+	private static SpriterSpatial spatial(SpriterTimelineKey key, boolean bone) {
+		return bone ? key.boneInfo : key.objectInfo;
+	}
+
+	private static long getByteSize(Array<?> keys, boolean bone) {
+		// SpriterTimelineKey + payload (+ SpriterFileInfo for objects), as
+		// if nothing was shared
+		int perKey = 56 + (bone ? 40 : 64 + 24);
+		return arraySize(keys.items.length) + (long) perKey * keys.size;
+	}
+
+	private static long arraySize(int length) {
+		return (16 + length * 4 + 7) & ~7;
+	}
+
+}
@@ -0,0 +1,439 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter.io;
+
+import com.badlogic.gdx.utils.Array;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterCurveType;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterEntity;
+import net.spookygames.gdx.spriter.data.SpriterMainlineKey;
+import net.spookygames.gdx.spriter.data.SpriterObject;
+import net.spookygames.gdx.spriter.data.SpriterObjectRef;
+import net.spookygames.gdx.spriter.data.SpriterRef;
+import net.spookygames.gdx.spriter.data.SpriterSpatial;
+import net.spookygames.gdx.spriter.data.SpriterTimeline;
+import net.spookygames.gdx.spriter.data.SpriterTimelineKey;
+
+/**
+ * The {@code SpriterKeyReducer} class removes redundant timeline keys from
+ * {@link SpriterData}: linear keys whose values can be interpolated from
+ * their neighbours within configured position, angle, scale and alpha
+ * tolerances.
+ * 
+ * References from mainline keys to removed keys are remapped to the previous
+ * remaining key, so that reduced data can still be played and written back
+ * with a {@link SpriterWriter}. Number of removed keys and maximum errors
+ * introduced are reported.
+ * 
+ * Reduction is lossy and meant to be run offline, before packing. Packed
+ * timelines and named keys are left untouched.
+ * 
+ * @author thorthur
+ * 
+ */
+public class SpriterKeyReducer {
+
+	private float positionTolerance = 0.5f;
+	private float angleTolerance = 0.5f;
+	private float scaleTolerance = 0.005f;
+	private float alphaTolerance = 0.005f;
+
+	private int keysBefore = 0;
+	private int keysAfter = 0;
+	private float maxPositionError = 0f;
+	private float maxAngleError = 0f;
+	private float maxScaleError = 0f;
+	private float maxAlphaError = 0f;
+
+	private int[] remap = new int[16];
+
+	/**
+	 * Get the maximum position error allowed, in pixels.
+	 * 
+	 * @return The maximum position error
+	 */
+	public float getPositionTolerance() {
+		return positionTolerance;
+	}
+
+	/**
+	 * Set the maximum position error allowed, in pixels. Defaults to 0.5.
+	 * 
+	 * @param positionTolerance
+	 *            The maximum position error
+	 */
+	public void setPositionTolerance(float positionTolerance) {
+		this.positionTolerance = positionTolerance;
+	}
+
+	/**
+	 * Get the maximum angle error allowed, in degrees.
+	 * 
+	 * @return The maximum angle error
+	 */
+	public float getAngleTolerance() {
+		return angleTolerance;
+	}
+
+	/**
+	 * Set the maximum angle error allowed, in degrees. Defaults to 0.5.
+	 * 
+	 * @param angleTolerance
+	 *            The maximum angle error
+	 */
+	public void setAngleTolerance(float angleTolerance) {
+		this.angleTolerance = angleTolerance;
+	}
+
+	/**
+	 * Get the maximum scale error allowed.
+	 * 
+	 * @return The maximum scale error
+	 */
+	public float getScaleTolerance() {
+		return scaleTolerance;
+	}
+
+	/**
+	 * Set the maximum scale error allowed. Also applies to the animation
+	 * progress of nested entities. Defaults to 0.005.
+	 * 
+	 * @param scaleTolerance
+	 *            The maximum scale error
+	 */
+	public void setScaleTolerance(float scaleTolerance) {
+		this.scaleTolerance = scaleTolerance;
+	}
+
+	/**
+	 * Get the maximum alpha error allowed.
+	 * 
+	 * @return The maximum alpha error
+	 */
+	public float getAlphaTolerance() {
+		return alphaTolerance;
+	}
+
+	/**
+	 * Set the maximum alpha error allowed. Defaults to 0.005.
+	 * 
+	 * @param alphaTolerance
+	 *            The maximum alpha error
+	 */
+	public void setAlphaTolerance(float alphaTolerance) {
+		this.alphaTolerance = alphaTolerance;
+	}
+
+	/**
+	 * Reduce timeline keys of every loaded animation of given
+	 * {@link SpriterData}.
+	 * 
+	 * @param data
+	 *            Spriter data to reduce
+	 */
+	public void reduce(SpriterData data) {
+		for (SpriterEntity entity : data.entities)
+			for (SpriterAnimation animation : entity.animations)
+				reduce(animation);
+	}
+
+	/**
+	 * Reduce timeline keys of given {@link SpriterAnimation} and remap
+	 * mainline references accordingly.
+	 * 
+	 * @param animation
+	 *            Spriter animation to reduce
+	 */
+	public void reduce(SpriterAnimation animation) {
+		for (int timelineId = 0; timelineId < animation.timelines.size; ++timelineId) {
+			SpriterTimeline timeline = animation.timelines.get(timelineId);
+			keysBefore += timeline.keys.size;
+
+			if (reduce(timeline)) {
+				SpriterConstantFolder.unfold(timeline);
+				for (SpriterMainlineKey mainlineKey : animation.mainline.keys) {
+					for (SpriterRef ref : mainlineKey.boneRefs)
+						if (ref.timelineId == timelineId)
+							ref.keyId = remap[ref.keyId];
+					for (SpriterObjectRef ref : mainlineKey.objectRefs)
+						if (ref.timelineId == timelineId)
+							ref.keyId = remap[ref.keyId];
+					// Compiled key ids are now stale
+					mainlineKey.drawSequence = null;
+				}
+			}
+
+			keysAfter += timeline.keys.size;
+		}
+	}
+
+	/**
+	 * Remove redundant keys of given timeline, filling the remapping table of
+	 * key indices.
+	 * 
+	 * @return True if some keys got removed, false otherwise
+	 */
+	private boolean reduce(SpriterTimeline timeline) {
+		Array<SpriterTimelineKey> keys = timeline.keys;
+		int size = keys.size;
+
+		if (timeline.packedKeys != null || size < 3)
+			return false;
+
+		boolean bone = keys.first().boneInfo != null;
+		for (int i = 0; i < size; i++) {
+			SpriterTimelineKey key = keys.get(i);
+			if (key.id != i)
+				return false;
+			if (bone ? (key.boneInfo == null || key.objectInfo != null) : key.objectInfo == null)
+				return false;
+		}
+
+		if (remap.length < size)
+			remap = new int[size];
+
+		// First and last keys are always kept, last one for looping purposes
+		int previous = 0;
+		remap[0] = 0;
+		boolean removed = false;
+		for (int i = 1; i < size - 1; i++) {
+			if (isRedundant(keys, previous, i)) {
+				remap[i] = -1;
+				removed = true;
+			} else {
+				previous = i;
+				remap[i] = i;
+			}
+		}
+		remap[size - 1] = size - 1;
+
+		if (!removed)
+			return false;
+
+		// Measure errors actually introduced, then remove keys
+		previous = 0;
+		for (int i = 1; i < size; i++) {
+			if (remap[i] < 0)
+				continue;
+			for (int j = previous + 1; j < i; j++)
+				measure(keys.get(previous), keys.get(j), keys.get(i));
+			previous = i;
+		}
+
+		int index = 0;
+		for (int i = 0; i < size; i++) {
+			if (remap[i] < 0) {
+				remap[i] = index - 1;
+			} else {
+				SpriterTimelineKey key = keys.get(i);
+				key.id = index;
+				keys.set(index, key);
+				remap[i] = index;
+				index++;
+			}
+		}
+		keys.truncate(index);
+
+		return true;
+	}
+
+	/**
+	 * Check whether key at given index can be removed, given the previous
+	 * remaining key and the next key.
+	 */
+	private boolean isRedundant(Array<SpriterTimelineKey> keys, int previous, int index) {
+		SpriterTimelineKey keyA = keys.get(previous);
+		SpriterTimelineKey key = keys.get(index);
+		SpriterTimelineKey keyB = keys.get(index + 1);
+
+		if (key.name != null || keyA.curveType != SpriterCurveType.Linear
+				|| key.curveType != SpriterCurveType.Linear || keyA.spin != key.spin || keyB.time <= keyA.time)
+			return false;
+
+		if (key.objectInfo != null && (!isSameContent(keyA.objectInfo, key.objectInfo)
+				|| !isSameContent(key.objectInfo, keyB.objectInfo)))
+			return false;
+
+		// Every key removed since previous remaining one must still be close
+		for (int i = previous + 1; i <= index; i++) {
+			if (!isWithinTolerances(keyA, keys.get(i), keyB))
+				return false;
+		}
+
+		return true;
+	}
+
+	private static boolean isSameContent(SpriterObject a, SpriterObject b) {
+		if (a.file == null ? b.file != null : !a.file.equals(b.file))
+			return false;
+		if (a.entityId != b.entityId || a.animationId != b.animationId)
+			return false;
+		return Float.compare(a.pivotX, b.pivotX) == 0 && Float.compare(a.pivotY, b.pivotY) == 0;
+	}
+
+	private boolean isWithinTolerances(SpriterTimelineKey keyA, SpriterTimelineKey key, SpriterTimelineKey keyB) {
+		float f = (key.time - keyA.time) / (keyB.time - keyA.time);
+		SpriterSpatial a = spatial(keyA);
+		SpriterSpatial s = spatial(key);
+		SpriterSpatial b = spatial(keyB);
+
+		if (positionError(a, s, b, f) > positionTolerance || angleError(a, s, b, keyA.spin, f) > angleTolerance)
+			return false;
+		if (Math.abs(linear(a.scaleX, b.scaleX, f) - s.scaleX) > scaleTolerance
+				|| Math.abs(linear(a.scaleY, b.scaleY, f) - s.scaleY) > scaleTolerance)
+			return false;
+		if (Math.abs(linear(a.alpha, b.alpha, f) - s.alpha) > alphaTolerance)
+			return false;
+		if (key.objectInfo != null
+				&& Math.abs(linear(keyA.objectInfo.t, keyB.objectInfo.t, f) - key.objectInfo.t) > scaleTolerance)
+			return false;
+		return true;
+	}
+
+	private void measure(SpriterTimelineKey keyA, SpriterTimelineKey key, SpriterTimelineKey keyB) {
+		float f = (key.time - keyA.time) / (keyB.time - keyA.time);
+		SpriterSpatial a = spatial(keyA);
+		SpriterSpatial s = spatial(key);
+		SpriterSpatial b = spatial(keyB);
+
+		maxPositionError = Math.max(maxPositionError, positionError(a, s, b, f));
+		maxAngleError = Math.max(maxAngleError, angleError(a, s, b, keyA.spin, f));
+		maxScaleError = Math.max(maxScaleError, Math.abs(linear(a.scaleX, b.scaleX, f) - s.scaleX));
+		maxScaleError = Math.max(maxScaleError, Math.abs(linear(a.scaleY, b.scaleY, f) - s.scaleY));
+		maxAlphaError = Math.max(maxAlphaError, Math.abs(linear(a.alpha, b.alpha, f) - s.alpha));
+	}
+
+	private static SpriterSpatial spatial(SpriterTimelineKey key) {
+		return key.boneInfo == null ? key.objectInfo : key.boneInfo;
+	}
+
+	private static float positionError(SpriterSpatial a, SpriterSpatial s, SpriterSpatial b, float f) {
+		float dx = linear(a.x, b.x, f) - s.x;
+		float dy = linear(a.y, b.y, f) - s.y;
+		return (float) Math.sqrt(dx * dx + dy * dy);
+	}
+
+	private static float angleError(SpriterSpatial a, SpriterSpatial s, SpriterSpatial b, int spin, float f) {
+		float angle = a.angle;
+		if (spin != 0) {
+			float target = b.angle;
+			if (spin > 0 && target - angle < 0)
+				target += 360f;
+			if (spin < 0 && target - angle > 0)
+				target -= 360f;
+			angle = linear(angle, target, f);
+		}
+		float error = Math.abs(angle - s.angle) % 360f;
+		return Math.min(error, 360f - error);
+	}
+
+	private static float linear(float a, float b, float f) {
+		return a + (b - a) * f;
+	}
+
+	/**
+	 * Get the number of timeline keys met since last statistics reset.
+	 * 
+	 * @return Number of keys before reduction
+	 */
+	public int getKeysBefore() {
+		return keysBefore;
+	}
+
+	/**
+	 * Get the number of timeline keys remaining since last statistics reset.
+	 * 
+	 * @return Number of keys after reduction
+	 */
+	public int getKeysAfter() {
+		return keysAfter;
+	}
+
+	/**
+	 * Get the number of timeline keys removed since last statistics reset.
+	 * 
+	 * @return Number of removed keys
+	 */
+	public int getRemovedKeys() {
+		return keysBefore - keysAfter;
+	}
+
+	/**
+	 * Get the maximum position error introduced since last statistics reset,
+	 * in pixels.
+	 * 
+	 * @return The maximum position error
+	 */
+	public float getMaxPositionError() {
+		return maxPositionError;
+	}
+
+	/**
+	 * Get the maximum angle error introduced since last statistics reset, in
+	 * degrees.
+	 * 
+	 * @return The maximum angle error
+	 */
+	public float getMaxAngleError() {
+		return maxAngleError;
+	}
+
+	/**
+	 * Get the maximum scale error introduced since last statistics reset.
+	 * 
+	 * @return The maximum scale error
+	 */
+	public float getMaxScaleError() {
+		return maxScaleError;
+	}
+
+	/**
+	 * Get the maximum alpha error introduced since last statistics reset.
+	 * 
+	 * @return The maximum alpha error
+	 */
+	public float getMaxAlphaError() {
+		return maxAlphaError;
+	}
+
+	/**
+	 * Reset statistics of this reducer.
+	 */
+	public void resetStatistics() {
+		keysBefore = 0;
+		keysAfter = 0;
+		maxPositionError = 0f;
+		maxAngleError = 0f;
+		maxScaleError = 0f;
+		maxAlphaError = 0f;
+	}
+
+	@Override
+	public String toString() {
+		return "SpriterKeyReducer [keysBefore=" + keysBefore + ", keysAfter=" + keysAfter + ", maxPositionError="
+				+ maxPositionError + ", maxAngleError=" + maxAngleError + ", maxScaleError=" + maxScaleError
+				+ ", maxAlphaError=" + maxAlphaError + "]";
+	}
+
+}
@@ -28,6 +28,7 @@ import java.io.StringReader;
 
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 
 import net.spookygames.gdx.spriter.data.SpriterAnimation;
 import net.spookygames.gdx.spriter.data.SpriterCharacterMap;
@@ -72,8 +73,18 @@ import net.spookygames.gdx.spriter.data.SpriterVarlineKey;
  * 
  * Encoding is set to system default.
  * 
+ * Animation bodies may be read lazily, see
+ * {@link #setLazyAnimationLoading(boolean)}. Memory footprint of read data
+ * may be reduced, see {@link #setCompactor(SpriterDataCompactor)} and
+ * {@link #setKeyPacker(SpriterKeyPacker)}. Sampling of constant timeline
+ * segments may be skipped, see {@link #setConstantFolder(SpriterConstantFolder)}.
+ * 
  * @see ScmlReader
  * @see SconReader
+ * @see LazySpriterAnimationSource
+ * @see SpriterDataCompactor
+ * @see SpriterKeyPacker
+ * @see SpriterConstantFolder
  * 
  * @author thorthur
  * 
@@ -98,6 +109,116 @@ public abstract class SpriterReader {
 		boolean getBoolean(String name, boolean defaultValue);
 	}
 
+	private boolean lazyAnimationLoading = false;
+	private SpriterDataCompactor compactor = null;
+	private SpriterKeyPacker keyPacker = null;
+	private SpriterConstantFolder constantFolder = null;
+
+	/**
+	 * Check whether this reader defers reading of animation bodies.
+	 * 
+	 * @return True if animation bodies are read lazily, false otherwise
+	 * @see #setLazyAnimationLoading(boolean)
+	 */
+	public boolean isLazyAnimationLoading() {
+		return lazyAnimationLoading;
+	}
+
+	/**
+	 * Define whether this reader should defer reading of animation bodies.
+	 * 
+	 * When set, folders, entities, object infos, character maps and animation
+	 * headers (name, length, looping) are read eagerly whereas mainlines,
+	 * timelines, eventlines, soundlines and metadata of every animation are
+	 * only indexed in the source content. They are parsed on first use by a
+	 * {@link LazySpriterAnimationSource} set as
+	 * {@link SpriterData#animationSource}.
+	 * 
+	 * Bodies are read again from their origin: files given as
+	 * {@link FileHandle} and contents given by a {@link SpriterContentOpener}
+	 * are reopened on demand, and contents given as {@link String} are kept
+	 * by reference. Contents given as {@link Reader} or {@link InputStream}
+	 * cannot be reopened and are thus kept in memory as a whole, as long as
+	 * read data is.
+	 * 
+	 * @param lazyAnimationLoading
+	 *            True to read animation bodies lazily, false to read
+	 *            everything up front (default)
+	 */
+	public void setLazyAnimationLoading(boolean lazyAnimationLoading) {
+		this.lazyAnimationLoading = lazyAnimationLoading;
+	}
+
+	/**
+	 * Get the compactor applied to data read by this reader, if any.
+	 * 
+	 * @return The compactor applied to read data, or null
+	 * @see #setCompactor(SpriterDataCompactor)
+	 */
+	public SpriterDataCompactor getCompactor() {
+		return compactor;
+	}
+
+	/**
+	 * Define the compactor applied to data read by this reader. Compacted data
+	 * shares strings, file infos and timeline key payloads and must therefore
+	 * not be modified. Lazily read animation bodies are compacted once read.
+	 * 
+	 * @param compactor
+	 *            The compactor to apply to read data, or null to disable
+	 *            compaction (default)
+	 */
+	public void setCompactor(SpriterDataCompactor compactor) {
+		this.compactor = compactor;
+	}
+
+	/**
+	 * Get the packer applied to timeline keys read by this reader, if any.
+	 * 
+	 * @return The packer applied to timeline keys, or null
+	 * @see #setKeyPacker(SpriterKeyPacker)
+	 */
+	public SpriterKeyPacker getKeyPacker() {
+		return keyPacker;
+	}
+
+	/**
+	 * Define the packer applied to timeline keys read by this reader. Packed
+	 * timelines have their keys moved to {@link SpriterTimeline#packedKeys}.
+	 * Packing happens after compaction, if any.
+	 * 
+	 * @param keyPacker
+	 *            The packer to apply to timeline keys, or null to keep keys as
+	 *            objects (default)
+	 */
+	public void setKeyPacker(SpriterKeyPacker keyPacker) {
+		this.keyPacker = keyPacker;
+	}
+
+	/**
+	 * Get the folder applied to timelines read by this reader, if any.
+	 * 
+	 * @return The folder applied to timelines, or null
+	 * @see #setConstantFolder(SpriterConstantFolder)
+	 */
+	public SpriterConstantFolder getConstantFolder() {
+		return constantFolder;
+	}
+
+	/**
+	 * Define the folder applied to timelines read by this reader. Folded
+	 * timelines have their constant segments flagged in
+	 * {@link SpriterTimeline#constantKeys}. Folding happens after packing, if
+	 * any.
+	 * 
+	 * @param constantFolder
+	 *            The folder to apply to timelines, or null to disable folding
+	 *            (default)
+	 */
+	public void setConstantFolder(SpriterConstantFolder constantFolder) {
+		this.constantFolder = constantFolder;
+	}
+
 	/**
 	 * Read Spriter data from given {@link String}.
 	 * 
@@ -107,7 +228,15 @@ public abstract class SpriterReader {
 	 * @throws IOException
 	 *             If an I/O error occurs
 	 */
-	public SpriterData load(String content) throws IOException {
+	public SpriterData load(final String content) throws IOException {
+		if (lazyAnimationLoading)
+			return loadLazily(content, new SpriterContentOpener() {
+				@Override
+				public Reader open() {
+					return new StringReader(content);
+				}
+			});
+
 		return load(new StringReader(content));
 	}
 
@@ -120,12 +249,45 @@ public abstract class SpriterReader {
 	 * @throws IOException
 	 *             If an I/O error occurs
 	 */
-	public SpriterData load(FileHandle file) throws IOException {
+	public SpriterData load(final FileHandle file) throws IOException {
+		if (lazyAnimationLoading)
+			return load(new SpriterContentOpener() {
+				@Override
+				public Reader open() {
+					return file.reader();
+				}
+			});
+
 		return load(file.reader());
 	}
 
+	/**
+	 * Read Spriter data from content opened by given
+	 * {@link SpriterContentOpener}. With lazy animation loading, content is
+	 * opened again whenever an animation body is read.
+	 * 
+	 * @param opener
+	 *            Opener of Spriter file content
+	 * @return Spriter data read from opened content
+	 * @throws IOException
+	 *             If an I/O error occurs
+	 */
+	public SpriterData load(SpriterContentOpener opener) throws IOException {
+		Reader reader = opener.open();
+		try {
+			if (lazyAnimationLoading)
+				return loadLazily(readContent(reader), opener);
+
+			return load(reader);
+		} finally {
+			reader.close();
+		}
+	}
+
 	/**
 	 * Read Spriter data from given {@link InputStream} with default charset.
+	 * With lazy animation loading, the whole content is kept in memory to
+	 * read animation bodies.
 	 * 
 	 * @param input
 	 *            Input stream to get data from
@@ -138,7 +300,8 @@ public abstract class SpriterReader {
 	}
 
 	/**
-	 * Read Spriter data from given {@link Reader}.
+	 * Read Spriter data from given {@link Reader}. With lazy animation
+	 * loading, the whole content is kept in memory to read animation bodies.
 	 * 
 	 * @param reader
 	 *            Reader to get data from
@@ -147,6 +310,17 @@ public abstract class SpriterReader {
 	 *             If an I/O error occurs
 	 */
 	public SpriterData load(Reader reader) throws IOException {
+		if (lazyAnimationLoading) {
+			// Readers cannot be reopened, keep content around
+			final String content = readContent(reader);
+			return loadLazily(content, new SpriterContentOpener() {
+				@Override
+				public Reader open() {
+					return new StringReader(content);
+				}
+			});
+		}
+
 		SpriterData data = new SpriterData();
 
 		// First read
@@ -155,11 +329,117 @@ public abstract class SpriterReader {
 		// Then clean up...
 		initializeData(data);
 
+		if (compactor != null)
+			compactor.compact(data);
+		if (keyPacker != null)
+			keyPacker.pack(data);
+		if (constantFolder != null)
+			constantFolder.fold(data);
+
+		return data;
+	}
+
+	private SpriterData loadLazily(String content, SpriterContentOpener opener) throws IOException {
+		IntArray ranges = new IntArray();
+		String skeleton = indexAnimations(content, ranges);
+
+		SpriterData data = new SpriterData();
+
+		// First read, animation bodies are absent from skeleton
+		loadData(data, parse(new StringReader(skeleton)));
+
+		// Then clean up...
+		initializeData(data);
+
+		Array<SpriterAnimation> animations = new Array<SpriterAnimation>();
+		for (SpriterEntity entity : data.entities)
+			animations.addAll(entity.animations);
+
+		if (animations.size * 2 != ranges.size)
+			throw new IOException("Unable to index animations: found " + (ranges.size / 2) + " bodies for "
+					+ animations.size + " animations");
+
+		// Event and point names are gathered now, bodies may never be read
+		String[][] eventNames = new String[animations.size][];
+		String[][] pointNames = new String[animations.size][];
+		Array<String> events = new Array<String>();
+		Array<String> points = new Array<String>();
+		for (int i = 0; i < animations.size; i++) {
+			events.clear();
+			points.clear();
+			indexNames(content, ranges.get(i * 2), ranges.get(i * 2 + 1), events, points);
+			eventNames[i] = events.toArray(String.class);
+			pointNames[i] = points.toArray(String.class);
+		}
+
+		data.animationSource = new LazySpriterAnimationSource(this, opener, animations, ranges.toArray(),
+				eventNames, pointNames);
+
+		if (compactor != null)
+			compactor.compact(data);
+		if (keyPacker != null)
+			keyPacker.pack(data);
+		if (constantFolder != null)
+			constantFolder.fold(data);
+
 		return data;
 	}
 
+	void loadAnimationBody(SpriterAnimation animation, String body) throws IOException {
+		loadAnimationBody(animation, parse(new StringReader(body)));
+		initializeAnimation(animation.entity, animation);
+
+		if (compactor != null)
+			compactor.compact(animation);
+		if (keyPacker != null)
+			keyPacker.pack(animation);
+		if (constantFolder != null)
+			constantFolder.fold(animation);
+	}
+
+	private static String readContent(Reader reader) throws IOException {
+		StringBuilder content = new StringBuilder();
+		char[] buffer = new char[1024];
+		int read;
+		while ((read = reader.read(buffer, 0, buffer.length)) >= 0)
+			content.append(buffer, 0, read);
+		return content.toString();
+	}
+
 	abstract ReaderBean parse(Reader reader) throws IOException;
 
+	/**
+	 * Find every animation in given content, in document order, and build a
+	 * skeleton of this content where animation bodies are stripped (only
+	 * headers remain).
+	 * 
+	 * @param content
+	 *            Spriter file content
+	 * @param ranges
+	 *            Array to fill with start (inclusive) and end (exclusive)
+	 *            offsets of every animation in content
+	 * @return Content without animation bodies
+	 */
+	abstract String indexAnimations(String content, IntArray ranges);
+
+	/**
+	 * Find names of eventlines and point timelines of an animation body, in
+	 * document order, without reading the body.
+	 * 
+	 * @param content
+	 *            Spriter file content
+	 * @param start
+	 *            Start offset (inclusive) of the animation in content
+	 * @param end
+	 *            End offset (exclusive) of the animation in content
+	 * @param eventNames
+	 *            Array to fill with eventline names
+	 * @param pointNames
+	 *            Array to fill with point timeline names
+	 */
+	abstract void indexNames(String content, int start, int end, Array<String> eventNames,
+			Array<String> pointNames);
+
 	/**
 	 * Get the file extension this Spriter reader would default to.
 	 * 
@@ -361,6 +641,12 @@ public abstract class SpriterReader {
 		animation.looping = a.getBoolean("looping", animation.looping);
 		animation.interval = a.getFloat("interval", animation.interval);
 
+		// Lazily loaded animations come without body
+		if (a.getChildByName("mainline") != null)
+			loadAnimationBody(animation, a);
+	}
+
+	private void loadAnimationBody(SpriterAnimation animation, ReaderBean a) {
 		SpriterMainline main = new SpriterMainline();
 		loadMainline(main, a.getChildByName("mainline"));
 		animation.mainline = main;
@@ -668,24 +954,27 @@ public abstract class SpriterReader {
 	private void initializeData(SpriterData data) {
 		for (SpriterEntity entity : data.entities) {
 			entity.data = data;
-			for (SpriterAnimation a : entity.animations) {
-				a.entity = entity;
+			for (SpriterAnimation a : entity.animations)
+				initializeAnimation(entity, a);
+		}
+	}
 
-				// Initialize vardefs
-				if (a.meta != null) {
+	private void initializeAnimation(SpriterEntity entity, SpriterAnimation a) {
+		a.entity = entity;
 
-					for (SpriterVarline v : a.meta.varlines)
-						initializeVarline(v, entity.variables.get(v.def));
+		// Initialize vardefs
+		if (a.meta != null) {
 
-					for (SpriterTimeline timeline : a.timelines)
-						if (timeline.meta != null)
-							for (SpriterVarline v : timeline.meta.varlines)
-								for (SpriterObjectInfo o : entity.objectInfos)
-									if (timeline.name.equals(o.name))
-										initializeVarline(v, o.variables.get(v.def));
+			for (SpriterVarline v : a.meta.varlines)
+				initializeVarline(v, entity.variables.get(v.def));
+
+			for (SpriterTimeline timeline : a.timelines)
+				if (timeline.meta != null)
+					for (SpriterVarline v : timeline.meta.varlines)
+						for (SpriterObjectInfo o : entity.objectInfos)
+							if (timeline.name.equals(o.name))
+								initializeVarline(v, o.variables.get(v.def));
 
-				}
-			}
 		}
 	}
 
@@ -358,6 +358,11 @@ public abstract class SpriterWriter {
 	}
 
 	private void writeAnimation(SpriterAnimation animation, WriterBean writer) throws IOException {
+		// Lazily loaded animations have to be complete
+		SpriterData data = animation.entity == null ? null : animation.entity.data;
+		if (data != null && data.animationSource != null)
+			data.animationSource.load(animation);
+
 		writeElement(animation, writer);
 		writer.attribute("length", doubleToString(animation.length));
 		writer.attribute("interval", doubleToString(animation.interval));
@@ -460,7 +465,8 @@ public abstract class SpriterWriter {
 			writer.attribute("object_type", timeline.objectType.toString().toLowerCase());
 		if (timeline.objectId != 0)
 			writer.attribute("obj", timeline.objectId);
-		writeTimelineKeys(timeline.keys, writer);
+		writeTimelineKeys(timeline.packedKeys == null ? timeline.keys : SpriterKeyPacker.unpack(timeline.packedKeys),
+				writer);
 
 		if (timeline.meta != null) {
 			writer.element("meta");
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter.loader;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.loader.SpriterDataLoader.SpriterDataParameter;
+
+/**
+ * The {@code AsynchronousSpriterDataLoader} class is an
+ * {@link AsynchronousAssetLoader} to load {@link SpriterData} instances.
+ * 
+ * Spriter files are parsed and asset indices are built on
+ * {@link AssetManager}'s executor thread, so that loading screens do not
+ * stall. Only attaching the {@link SpriterDataLoaderAssetProvider} happens on
+ * the rendering thread, sprites themselves being created on first use.
+ * 
+ * It accepts the same {@link SpriterDataParameter} as
+ * {@link SpriterDataLoader} and should be registered in its place:
+ * 
+ * <pre>
+ * manager.setLoader(SpriterData.class, new AsynchronousSpriterDataLoader(resolver));
+ * </pre>
+ * 
+ * @see SpriterDataLoader
+ * 
+ * @author thorthur
+ * 
+ */
+public class AsynchronousSpriterDataLoader
+		extends AsynchronousAssetLoader<SpriterData, SpriterDataLoader.SpriterDataParameter> {
+
+	private String rootPath = null;
+	private String atlas = null;
+	private SpriterData data = null;
+	private SpriterDataLoaderAssetProvider provider = null;
+
+	/**
+	 * Initializes a new instance of {@code AsynchronousSpriterDataLoader} with
+	 * given {@link FileHandleResolver}.
+	 * 
+	 * @param resolver
+	 *            Resolver to use to resolve the file associated with the asset
+	 *            name.
+	 */
+	public AsynchronousSpriterDataLoader(FileHandleResolver resolver) {
+		super(resolver);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * com.badlogic.gdx.assets.loaders.AssetLoader#getDependencies(java.lang
+	 * .String, com.badlogic.gdx.files.FileHandle,
+	 * com.badlogic.gdx.assets.AssetLoaderParameters)
+	 */
+	@SuppressWarnings("rawtypes")
+	@Override
+	public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, SpriterDataParameter param) {
+		// Called from the executor thread for asynchronous loaders
+		SpriterDataFormat format = SpriterDataLoader.defineFormat(file, param);
+		rootPath = SpriterDataLoader.defineRootPath(file, param);
+		atlas = SpriterDataLoader.defineTextureAtlas(this, file, rootPath, param);
+		data = SpriterDataLoader.readData(format, file, param);
+
+		return SpriterDataLoader.collectDependencies(data, rootPath, atlas);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader#loadAsync(com.
+	 * badlogic.gdx.assets.AssetManager, java.lang.String,
+	 * com.badlogic.gdx.files.FileHandle,
+	 * com.badlogic.gdx.assets.AssetLoaderParameters)
+	 */
+	@Override
+	public void loadAsync(AssetManager manager, String fileName, FileHandle file, SpriterDataParameter param) {
+		// Index file names, no GL resource involved
+		provider = new SpriterDataLoaderAssetProvider(data, manager, rootPath, atlas);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader#loadSync(com.
+	 * badlogic.gdx.assets.AssetManager, java.lang.String,
+	 * com.badlogic.gdx.files.FileHandle,
+	 * com.badlogic.gdx.assets.AssetLoaderParameters)
+	 */
+	@Override
+	public SpriterData loadSync(AssetManager manager, String fileName, FileHandle file, SpriterDataParameter param) {
+		SpriterData result = this.data;
+
+		result.assetProvider = provider;
+
+		this.rootPath = null;
+		this.atlas = null;
+		this.data = null;
+		this.provider = null;
+
+		return result;
+	}
+
+}
@@ -25,6 +25,7 @@ import java.io.IOException;
 import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.assets.AssetLoaderParameters;
 import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AssetLoader;
 import com.badlogic.gdx.assets.loaders.FileHandleResolver;
 import com.badlogic.gdx.assets.loaders.SynchronousAssetLoader;
 import com.badlogic.gdx.audio.Sound;
@@ -37,6 +38,9 @@ import com.badlogic.gdx.utils.GdxRuntimeException;
 import net.spookygames.gdx.spriter.data.SpriterData;
 import net.spookygames.gdx.spriter.data.SpriterFile;
 import net.spookygames.gdx.spriter.data.SpriterFolder;
+import net.spookygames.gdx.spriter.io.SpriterConstantFolder;
+import net.spookygames.gdx.spriter.io.SpriterDataCompactor;
+import net.spookygames.gdx.spriter.io.SpriterKeyPacker;
 import net.spookygames.gdx.spriter.io.SpriterReader;
 
 /**
@@ -45,7 +49,12 @@ import net.spookygames.gdx.spriter.io.SpriterReader;
  * 
  * Passing a {@link SpriterDataParameter} to
  * {@link AssetManager#load(String, Class, AssetLoaderParameters)} allows to
- * specify data format and root folder.
+ * specify data format and root folder, as well as lazy loading and
+ * post-processing of read data.
+ * 
+ * Parsing happens on the rendering thread, see
+ * {@link AsynchronousSpriterDataLoader} for a loader parsing on
+ * {@link AssetManager}'s executor thread.
  * 
  * @author thorthur
  * 
@@ -104,46 +113,57 @@ public class SpriterDataLoader extends SynchronousAssetLoader<SpriterData, Sprit
 	@SuppressWarnings("rawtypes")
 	@Override
 	public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, SpriterDataParameter param) {
-		Array<AssetDescriptor> deps = null;
-
 		SpriterDataFormat format = defineFormat(file, param);
 		rootPath = defineRootPath(file, param);
-		atlas = defineTextureAtlas(file, rootPath, param);
+		atlas = defineTextureAtlas(this, file, rootPath, param);
+		data = readData(format, file, param);
 
-		try {
+		return collectDependencies(data, rootPath, atlas);
+	}
 
+	static SpriterData readData(SpriterDataFormat format, FileHandle file, SpriterDataParameter param) {
+		try {
 			SpriterReader reader = format.getReader();
-			data = reader.load(file);
+			if (param != null) {
+				reader.setLazyAnimationLoading(param.lazy);
+				reader.setCompactor(param.compactor);
+				reader.setKeyPacker(param.keyPacker);
+				reader.setConstantFolder(param.constantFolder);
+			}
+			return reader.load(file);
+		} catch (IOException ex) {
+			throw new GdxRuntimeException("An error happened when loading Spriter data", ex);
+		}
+	}
 
-			deps = new Array<AssetDescriptor>();
+	@SuppressWarnings("rawtypes")
+	static Array<AssetDescriptor> collectDependencies(SpriterData data, String rootPath, String atlas) {
+		Array<AssetDescriptor> deps = new Array<AssetDescriptor>();
 
-			// If atlas, load as TextureAtlas
-			if (atlas != null) {
-				deps.add(new AssetDescriptor<TextureAtlas>(rootPath + atlas, TextureAtlas.class));
-			}
+		// If atlas, load as TextureAtlas
+		if (atlas != null) {
+			deps.add(new AssetDescriptor<TextureAtlas>(rootPath + atlas, TextureAtlas.class));
+		}
 
-			for (SpriterFolder fo : data.folders) {
-				for (SpriterFile fi : fo.files) {
-					switch (fi.type) {
-					case Image:
-						if (atlas == null) { // If no atlas, load as Textures
-							deps.add(new AssetDescriptor<Texture>(rootPath + fi.name, Texture.class));
-						}
-						break;
-					case Sound:
-						deps.add(new AssetDescriptor<Sound>(rootPath + fi.name, Sound.class));
-						break;
+		for (SpriterFolder fo : data.folders) {
+			for (SpriterFile fi : fo.files) {
+				switch (fi.type) {
+				case Image:
+					if (atlas == null) { // If no atlas, load as Textures
+						deps.add(new AssetDescriptor<Texture>(rootPath + fi.name, Texture.class));
 					}
+					break;
+				case Sound:
+					deps.add(new AssetDescriptor<Sound>(rootPath + fi.name, Sound.class));
+					break;
 				}
 			}
-		} catch (IOException ex) {
-			throw new GdxRuntimeException("An error happened when loading Spriter data", ex);
 		}
 
 		return deps;
 	}
 
-	private String defineRootPath(FileHandle file, SpriterDataParameter param) {
+	static String defineRootPath(FileHandle file, SpriterDataParameter param) {
 		String root;
 		if (param != null && param.rootFolder != null) {
 			root = param.rootFolder;
@@ -155,7 +175,7 @@ public class SpriterDataLoader extends SynchronousAssetLoader<SpriterData, Sprit
 		return root;
 	}
 
-	private SpriterDataFormat defineFormat(FileHandle file, SpriterDataParameter param) {
+	static SpriterDataFormat defineFormat(FileHandle file, SpriterDataParameter param) {
 		SpriterDataFormat format;
 		if (param != null && param.format != null) {
 			format = param.format;
@@ -165,7 +185,8 @@ public class SpriterDataLoader extends SynchronousAssetLoader<SpriterData, Sprit
 		return format;
 	}
 
-	private String defineTextureAtlas(FileHandle file, String rootFolder, SpriterDataParameter param) {
+	static String defineTextureAtlas(AssetLoader<?, ?> loader, FileHandle file, String rootFolder,
+			SpriterDataParameter param) {
 		String atlas = null;
 		if (param != null && param.textureAtlas != null) {
 			atlas = param.textureAtlas;
@@ -173,7 +194,7 @@ public class SpriterDataLoader extends SynchronousAssetLoader<SpriterData, Sprit
 			String baseName = file.nameWithoutExtension();
 			String[] possibleAtlasNames = { baseName + ".atlas", baseName + ".pack" };
 			for (int i = 0, n = possibleAtlasNames.length; i < n; i++) {
-				FileHandle possibleAtlasFile = resolve(rootFolder + possibleAtlasNames[i]);
+				FileHandle possibleAtlasFile = loader.resolve(rootFolder + possibleAtlasNames[i]);
 				if (possibleAtlasFile.exists()) { // Atlas file found!
 					atlas = possibleAtlasFile.path();
 					break;
@@ -210,6 +231,33 @@ public class SpriterDataLoader extends SynchronousAssetLoader<SpriterData, Sprit
 		 * individually (ie not using atlas) if none is found.
 		 */
 		public String textureAtlas = null;
+
+		/**
+		 * Optional compactor to reduce memory footprint of loaded data.
+		 * Sharing a compactor between parameters shares equal instances
+		 * between Spriter files. Defaults to no compaction.
+		 */
+		public SpriterDataCompactor compactor = null;
+
+		/**
+		 * Optional packer to store timeline keys in primitive arrays.
+		 * Defaults to keeping keys as objects.
+		 */
+		public SpriterKeyPacker keyPacker = null;
+
+		/**
+		 * Optional folder to flag constant segments of timelines, so that
+		 * sampling copies them instead of interpolating. Defaults to no
+		 * folding.
+		 */
+		public SpriterConstantFolder constantFolder = null;
+
+		/**
+		 * Whether animation bodies should only be read on first use, see
+		 * {@link SpriterReader#setLazyAnimationLoading(boolean)}. Defaults to
+		 * reading everything up front.
+		 */
+		public boolean lazy = false;
 	}
 
 }
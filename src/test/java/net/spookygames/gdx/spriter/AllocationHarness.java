@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures bytes allocated by the current thread per frame, using allocation
+ * counters of HotSpot's {@code com.sun.management.ThreadMXBean}.
+ * 
+ * A frame is run {@link #warmupFrames} times first so that lazy
+ * initializations, pool growth and JIT compilation do not count, then
+ * {@link #frames} times while measuring, in {@link #rounds} rounds. The
+ * lowest round is kept so that one-off allocations of the JVM itself, such as
+ * those following a late recompilation, do not count either.
+ */
+public class AllocationHarness {
+
+	/**
+	 * Number of frames run before measuring.
+	 */
+	public int warmupFrames = 2000;
+
+	/**
+	 * Number of frames measured.
+	 */
+	public int frames = 1000;
+
+	/**
+	 * Number of measuring rounds.
+	 */
+	public int rounds = 3;
+
+	private final com.sun.management.ThreadMXBean bean;
+	private final long threadId = Thread.currentThread().getId();
+	private final long overhead;
+
+	public AllocationHarness() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+			bean = (com.sun.management.ThreadMXBean) threads;
+			bean.setThreadAllocatedMemoryEnabled(true);
+		} else {
+			bean = null;
+		}
+
+		// Cost of reading counters
+		long before = allocatedBytes();
+		long after = allocatedBytes();
+		overhead = after - before;
+	}
+
+	/**
+	 * Check whether allocation counters are available on this JVM.
+	 * 
+	 * @return True if allocations can be measured, false otherwise
+	 */
+	public boolean isSupported() {
+		return bean != null;
+	}
+
+	/**
+	 * Measure the average number of bytes allocated by given frame.
+	 * 
+	 * @param frame
+	 *            Frame to run
+	 * @return Average number of bytes allocated per frame
+	 */
+	public float measure(Runnable frame) {
+		if (Thread.currentThread().getId() != threadId)
+			throw new IllegalStateException("Allocations can only be measured on the thread that created the harness");
+
+		for (int i = 0; i < warmupFrames; i++)
+			frame.run();
+
+		long lowest = Long.MAX_VALUE;
+		for (int round = 0; round < rounds; round++) {
+			long before = allocatedBytes();
+			for (int i = 0; i < frames; i++)
+				frame.run();
+			long after = allocatedBytes();
+			lowest = Math.min(lowest, after - before - overhead);
+		}
+
+		return Math.max(0f, (float) lowest / frames);
+	}
+
+	private long allocatedBytes() {
+		return bean == null ? 0L : bean.getThreadAllocatedBytes(threadId);
+	}
+
+}
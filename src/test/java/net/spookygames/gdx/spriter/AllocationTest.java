@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.spookygames.gdx.spriter.data.SpriterCharacterMap;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.io.ScmlReader;
+
+public class AllocationTest {
+
+	private static final float deltaTime = 1f / 60f;
+
+	private final AllocationHarness harness = new AllocationHarness();
+	private final NoOpBatch batch = new NoOpBatch();
+
+	@Before
+	public void checkSupport() {
+		Assume.assumeTrue(harness.isSupported());
+	}
+
+	@Test
+	public void plainPlayback() throws IOException {
+		final SpriterAnimator animator = SpriterTestAssetProvider.animator(load(SpriterTestData.greyguySCML));
+		animator.play("walk");
+
+		assertBudget("plain playback", 64, animator);
+	}
+
+	@Test
+	public void metrics() throws IOException {
+		final SpriterAnimator animator = SpriterTestAssetProvider.animator(load(SpriterTestData.greyguySCML));
+		animator.setMetricsEnabled(true);
+		animator.play("walk");
+
+		assertBudget("metrics", 64, animator);
+
+		SpriterMetrics metrics = animator.getMetrics(new SpriterMetrics());
+		Assert.assertEquals(harness.warmupFrames + harness.rounds * harness.frames, metrics.updates);
+		Assert.assertEquals(metrics.updates, metrics.draws);
+		Assert.assertTrue(metrics.sampleNanos <= metrics.updateNanos);
+		Assert.assertTrue(metrics.objectsSampled > 0);
+		Assert.assertTrue(metrics.keysSearched > 0);
+		Assert.assertTrue(metrics.poolObtains > 0);
+		Assert.assertTrue(metrics.spritesDrawn > 0);
+
+		SpriterMetrics walk = SpriterProfiler.getAnimationMetrics("walk", new SpriterMetrics());
+		Assert.assertNotNull(walk);
+		Assert.assertTrue(walk.updates >= metrics.updates);
+	}
+
+	@Test
+	public void transitions() throws IOException {
+		final SpriterAnimator animator = SpriterTestAssetProvider.animator(load(SpriterTestData.greyguySCML));
+		animator.play("idle");
+
+		assertBudget("transitions", 64, new Runnable() {
+			@Override
+			public void run() {
+				if (animator.getNextAnimation() == null)
+					animator.transition("walk".equals(animator.getName()) ? "idle" : "walk", 250f);
+				frame(animator);
+			}
+		});
+	}
+
+	@Test
+	public void blends() throws IOException {
+		final SpriterAnimator animator = SpriterTestAssetProvider.animator(load(SpriterTestData.greyguySCML));
+		animator.blend("idle", "walk", 0.5f);
+
+		assertBudget("blends", 64, animator);
+	}
+
+	@Test
+	public void characterMaps() throws IOException {
+		SpriterDataGenerator generator = new SpriterDataGenerator();
+		generator.characterMaps = 4;
+		final SpriterAnimator animator = SpriterTestAssetProvider.animator(generator.generate());
+		for (SpriterCharacterMap map : animator.getEntity().characterMaps)
+			animator.addCharacterMap(map);
+		animator.play(animator.getEntity().animations.first());
+
+		assertBudget("character maps", 64, animator);
+	}
+
+	@Test
+	public void variablesAndTags() throws IOException {
+		final SpriterAnimator animator = SpriterTestAssetProvider.animator(load(SpriterTestData.boxtagSCML));
+		animator.play("punch");
+
+		assertBudget("variables and tags", 64, animator);
+	}
+
+	@Test
+	public void nestedEntities() throws IOException {
+		SpriterDataGenerator generator = new SpriterDataGenerator();
+		generator.entities = 2;
+		generator.nestingDepth = 1;
+		final SpriterAnimator animator = SpriterTestAssetProvider.animator(generator.generate());
+		animator.play(animator.getEntity().animations.first());
+
+		assertBudget("nested entities", 256, animator);
+	}
+
+	private void assertBudget(String scenario, int budget, final SpriterAnimator animator) {
+		assertBudget(scenario, budget, new Runnable() {
+			@Override
+			public void run() {
+				frame(animator);
+			}
+		});
+	}
+
+	private void assertBudget(String scenario, int budget, Runnable frame) {
+		float allocated = harness.measure(frame);
+		Assert.assertTrue(scenario + " allocates " + allocated + " bytes per frame, budget is " + budget,
+				allocated <= budget);
+	}
+
+	private void frame(SpriterAnimator animator) {
+		animator.update(deltaTime);
+		animator.draw(batch);
+	}
+
+	private SpriterData load(String scml) throws IOException {
+		return new ScmlReader().load(new InputStreamReader(getClass().getResourceAsStream(scml)));
+	}
+
+}
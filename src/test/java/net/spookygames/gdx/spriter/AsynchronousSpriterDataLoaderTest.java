@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+package net.spookygames.gdx.spriter;
+
+import java.io.File;
+import java.net.URISyntaxException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterTimeline;
+import net.spookygames.gdx.spriter.io.SpriterDataCompactor;
+import net.spookygames.gdx.spriter.io.SpriterKeyPacker;
+import net.spookygames.gdx.spriter.loader.AsynchronousSpriterDataLoader;
+import net.spookygames.gdx.spriter.loader.SpriterDataLoader;
+import net.spookygames.gdx.spriter.loader.SpriterDataLoader.SpriterDataParameter;
+import net.spookygames.gdx.spriter.loader.SpriterDataLoaderAssetProvider;
+
+public class AsynchronousSpriterDataLoaderTest {
+
+	// Absolute files, no Gdx.files needed
+	private final FileHandleResolver resolver = new FileHandleResolver() {
+		@Override
+		public FileHandle resolve(String fileName) {
+			return new FileHandle(fileName);
+		}
+	};
+
+	@SuppressWarnings("rawtypes")
+	@Test
+	public void loadLikeSynchronousLoader() throws URISyntaxException {
+		String fileName = new File(getClass().getResource(SpriterTestData.greyguySCML).toURI()).getPath();
+		FileHandle file = resolver.resolve(fileName);
+		AssetManager manager = new AssetManager(resolver);
+
+		SpriterDataLoader synchronous = new SpriterDataLoader(resolver);
+		SpriterDataParameter reference = new SpriterDataParameter();
+		reference.compactor = new SpriterDataCompactor();
+		reference.keyPacker = new SpriterKeyPacker();
+		Array<AssetDescriptor> expectedDependencies = synchronous.getDependencies(fileName, file, reference);
+		SpriterData expected = synchronous.load(manager, fileName, file, reference);
+
+		AsynchronousSpriterDataLoader asynchronous = new AsynchronousSpriterDataLoader(resolver);
+		SpriterDataParameter param = new SpriterDataParameter();
+		param.compactor = new SpriterDataCompactor();
+		param.keyPacker = new SpriterKeyPacker();
+		Array<AssetDescriptor> dependencies = asynchronous.getDependencies(fileName, file, param);
+		asynchronous.loadAsync(manager, fileName, file, param);
+		SpriterData actual = asynchronous.loadSync(manager, fileName, file, param);
+
+		Assert.assertEquals(expectedDependencies.toString(), dependencies.toString());
+		Assert.assertEquals(expected.toString(), actual.toString());
+		Assert.assertTrue(actual.assetProvider instanceof SpriterDataLoaderAssetProvider);
+
+		// Parameters are applied
+		Assert.assertTrue(param.compactor.getSharedStrings() > 0);
+		Assert.assertTrue(param.keyPacker.getPackedKeys() > 0);
+		for (SpriterAnimation animation : actual.entities.first().animations)
+			for (SpriterTimeline timeline : animation.timelines)
+				Assert.assertNotNull(timeline.packedKeys);
+
+		manager.dispose();
+	}
+
+}
@@ -0,0 +1,371 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterCharacterMap;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterDrawSequence;
+import net.spookygames.gdx.spriter.data.SpriterFileInfo;
+import net.spookygames.gdx.spriter.data.SpriterMainlineKey;
+import net.spookygames.gdx.spriter.data.SpriterMapInstruction;
+import net.spookygames.gdx.spriter.data.SpriterMeta;
+import net.spookygames.gdx.spriter.data.SpriterObject;
+import net.spookygames.gdx.spriter.data.SpriterObjectRef;
+import net.spookygames.gdx.spriter.data.SpriterObjectType;
+import net.spookygames.gdx.spriter.data.SpriterRef;
+import net.spookygames.gdx.spriter.data.SpriterTag;
+import net.spookygames.gdx.spriter.data.SpriterTagline;
+import net.spookygames.gdx.spriter.data.SpriterTaglineKey;
+import net.spookygames.gdx.spriter.data.SpriterTimeline;
+import net.spookygames.gdx.spriter.io.ScmlReader;
+
+public class FrameDataTest {
+
+	private static final float deltaTime = 1f / 60f;
+
+	@Test
+	public void maskByObjectType() throws IOException {
+		SpriterAnimation animation = load(SpriterTestData.boxtagSCML).entities.first().animations.get(1);
+
+		FrameDataUpdateConfiguration configuration = new FrameDataUpdateConfiguration();
+		configuration.sprites = false;
+		configuration.points = false;
+
+		FrameData expected = new FrameData();
+		FrameData actual = new FrameData();
+
+		for (float time = 0f; time < animation.length; time += 50f) {
+			FrameData.update(expected, new FrameDataUpdateConfiguration(), animation, time, deltaTime);
+			FrameData.update(actual, configuration, animation, time, deltaTime);
+
+			Assert.assertEquals(0, actual.spriteData.size);
+			Assert.assertEquals(expected.boxData.toString(), actual.boxData.toString());
+		}
+	}
+
+	@Test
+	public void maskByName() throws IOException {
+		SpriterAnimation animation = load(SpriterTestData.greyguySCML).entities.first().animations.get(1);
+		SpriterMainlineKey key = animation.mainline.keys.first();
+		float time = animation.length * 0.3f;
+
+		FrameData expected = new FrameData();
+		FrameData.update(expected, new FrameDataUpdateConfiguration(), animation, time, deltaTime);
+
+		FrameDataUpdateConfiguration configuration = new FrameDataUpdateConfiguration();
+		FrameData actual = new FrameData();
+
+		for (int i = 0; i < key.objectRefs.size; ++i) {
+			SpriterObjectRef objectRef = key.objectRefs.get(i);
+			SpriterTimeline timeline = animation.timelines.get(objectRef.timelineId);
+
+			configuration.names.clear();
+			configuration.names.add(timeline.name);
+			FrameData.update(actual, configuration, animation, time, deltaTime);
+
+			// Parent bones are evaluated anyway
+			Assert.assertEquals(1, actual.spriteData.size);
+			Assert.assertEquals(expected.spriteData.get(i).toString(), actual.spriteData.first().toString());
+		}
+	}
+
+	@Test
+	public void blendMatchesTimelinesByName() throws IOException {
+		SpriterData data = load(SpriterTestData.greyguySCML);
+		SpriterAnimation idle = data.entities.first().animations.get(0);
+		SpriterAnimation walk = data.entities.first().animations.get(1);
+
+		SpriterData shuffledData = load(SpriterTestData.greyguySCML);
+		SpriterAnimation shuffledWalk = shuffledData.entities.first().animations.get(1);
+		reverseTimelines(shuffledWalk);
+
+		FrameDataUpdateConfiguration configuration = new FrameDataUpdateConfiguration();
+		FrameData expected = new FrameData();
+		FrameData actual = new FrameData();
+
+		for (float factor = 0f; factor <= 1f; factor += 0.25f) {
+			for (float time = 0f; time < idle.length; time += 250f) {
+				FrameData.update(expected, configuration, idle, walk, time, deltaTime, factor);
+				FrameData.update(actual, configuration, idle, shuffledWalk, time, deltaTime, factor);
+
+				Assert.assertEquals(expected.spriteData.toString(), actual.spriteData.toString());
+			}
+		}
+
+		// Extreme factors display a single animation
+		FrameData single = new FrameData();
+		FrameData.update(single, configuration, walk, 500f, deltaTime);
+		FrameData.update(actual, configuration, idle, shuffledWalk, 500f * idle.length / walk.length, deltaTime, 1f);
+		Assert.assertEquals(single.spriteData.size, actual.spriteData.size);
+		for (int i = 0; i < single.spriteData.size; ++i) {
+			SpriterObject expectedSprite = single.spriteData.get(i);
+			SpriterObject actualSprite = actual.spriteData.get(i);
+			Assert.assertEquals(expectedSprite.file, actualSprite.file);
+			Assert.assertEquals(expectedSprite.x, actualSprite.x, 0.001f);
+			Assert.assertEquals(expectedSprite.y, actualSprite.y, 0.001f);
+			Assert.assertEquals(expectedSprite.angle % 360f, actualSprite.angle % 360f, 0.001f);
+		}
+	}
+
+	@Test
+	public void tagBits() throws IOException {
+		SpriterData data = load(SpriterTestData.boxtagSCML);
+		SpriterAnimation animation = data.entities.first().animations.get(1);
+		SpriterHandles handles = new SpriterHandles(animation.entity);
+		int tag = handles.getTag("StuckInMove");
+		Assert.assertEquals(0, tag);
+
+		// Tag an object on its own tagline, until 500
+		SpriterTimeline timeline = animation.timelines.first();
+		// Objects are matched by name, this file uses prefixed object names
+		timeline.name = animation.entity.objectInfos.get(timeline.objectId).name;
+		int object = handles.getObject(timeline.name);
+		SpriterTaglineKey tagged = new SpriterTaglineKey();
+		SpriterTag objectTag = new SpriterTag();
+		objectTag.tagId = tag;
+		tagged.tags.add(objectTag);
+		SpriterTaglineKey untagged = new SpriterTaglineKey();
+		untagged.id = 1;
+		untagged.time = 500f;
+		timeline.meta = new SpriterMeta();
+		timeline.meta.tagline = new SpriterTagline();
+		timeline.meta.tagline.keys.add(tagged);
+		timeline.meta.tagline.keys.add(untagged);
+
+		FrameDataUpdateConfiguration configuration = new FrameDataUpdateConfiguration();
+		FrameData frameData = new FrameData();
+
+		FrameData.update(frameData, configuration, animation, 100f, deltaTime);
+		Assert.assertTrue(frameData.hasTag(tag));
+		Assert.assertTrue(frameData.hasObjectTag(object, tag));
+		Assert.assertEquals("StuckInMove", frameData.animationTags.first());
+		Assert.assertEquals("StuckInMove", frameData.objectTags.get(timeline.name).first());
+
+		FrameData.update(frameData, configuration, animation, 550f, deltaTime);
+		Assert.assertTrue(frameData.hasTag(tag));
+		Assert.assertFalse(frameData.hasObjectTag(object, tag));
+
+		FrameData.update(frameData, configuration, animation, 600f, deltaTime);
+		Assert.assertFalse(frameData.hasTag(tag));
+
+		configuration.tagNames = false;
+		FrameData.update(frameData, configuration, animation, 100f, deltaTime);
+		Assert.assertTrue(frameData.hasTag(tag));
+		Assert.assertTrue(frameData.hasObjectTag(object, tag));
+		Assert.assertEquals(0, frameData.animationTags.size);
+		Assert.assertEquals(0, frameData.objectTags.size);
+	}
+
+	@Test
+	public void drawSequence() throws IOException {
+		SpriterAnimation animation = load(SpriterTestData.boxtagSCML).entities.first().animations.get(1);
+		FrameDataUpdateConfiguration configuration = new FrameDataUpdateConfiguration();
+		configuration.invisible = true;
+		FrameData frameData = new FrameData();
+
+		for (SpriterMainlineKey key : animation.mainline.keys) {
+			FrameData.update(frameData, configuration, animation, key.time, deltaTime);
+
+			SpriterDrawSequence sequence = key.drawSequence;
+			Assert.assertNotNull(sequence);
+			Assert.assertEquals(frameData.spriteData.size, sequence.spriteEnd);
+			Assert.assertEquals(frameData.pointData.size, sequence.pointEnd - sequence.spriteEnd);
+			Assert.assertEquals(frameData.boxData.size, sequence.size - sequence.pointEnd);
+
+			// Sprites keep z-order of mainline key
+			int sprite = 0;
+			for (SpriterObjectRef ref : key.objectRefs)
+				if (animation.timelines.get(ref.timelineId).objectType == SpriterObjectType.Sprite)
+					Assert.assertEquals(ref.timelineId, sequence.timelineIds[sprite++]);
+
+			FrameData.update(frameData, configuration, animation, key.time, deltaTime);
+			Assert.assertSame(sequence, key.drawSequence);
+		}
+	}
+
+	@Test
+	public void stepInterpolation() throws IOException {
+		SpriterAnimation animation = load(SpriterTestData.greyguySCML).entities.first().animations.get(1);
+		FrameDataUpdateConfiguration configuration = new FrameDataUpdateConfiguration();
+
+		FrameData previous = new FrameData();
+		FrameData current = new FrameData();
+		FrameData expected = new FrameData();
+		SpriterObject interpolated = new SpriterObject();
+
+		float step = 1000f / 20f;
+		for (float time = 0f; time + step < animation.length; time += step) {
+			FrameData.update(previous, configuration, animation, time, step);
+			FrameData.update(current, configuration, animation, time + step, step);
+			FrameData.update(expected, configuration, animation, time + step / 2f, step);
+
+			for (int i = 0; i < current.spriteData.size; ++i) {
+				int match = FrameData.getMatchingSprite(previous, current, i);
+				if (match < 0)
+					continue;
+
+				SpriterObject before = previous.spriteData.get(match);
+				SpriterObject after = current.spriteData.get(i);
+
+				FrameData.interpolate(before, after, 0f, interpolated);
+				Assert.assertEquals(before.x, interpolated.x, 0.001f);
+				FrameData.interpolate(before, after, 1f, interpolated);
+				Assert.assertEquals(after.x, interpolated.x, 0.001f);
+				Assert.assertEquals(after.file, interpolated.file);
+
+				if (expected.spriteData.size == current.spriteData.size) {
+					FrameData.interpolate(before, after, 0.5f, interpolated);
+					Assert.assertEquals(expected.spriteData.get(i).x, interpolated.x, 10f);
+					Assert.assertEquals(expected.spriteData.get(i).y, interpolated.y, 10f);
+				}
+			}
+		}
+
+		// Fixed-step animator draws as many sprites as a regular one
+		SpriterData data = SpriterTestAssetProvider.attach(load(SpriterTestData.greyguySCML));
+		SpriterAnimator fixed = new SpriterAnimator(data.entities.first());
+		SpriterAnimator regular = new SpriterAnimator(data.entities.first());
+		fixed.setFixedStep(true);
+		fixed.play(animation.name);
+		regular.play(animation.name);
+		NoOpBatch fixedBatch = new NoOpBatch();
+		NoOpBatch regularBatch = new NoOpBatch();
+		for (int i = 0; i < 60; ++i) {
+			fixed.update(step / 1000f);
+			regular.update(step / 1000f);
+			for (float alpha = 0f; alpha < 1f; alpha += 1f / 3f) {
+				fixed.draw(fixedBatch, alpha);
+				regular.draw(regularBatch);
+			}
+		}
+		Assert.assertTrue(fixed.isFixedStep());
+		Assert.assertEquals(regularBatch.drawCalls, fixedBatch.drawCalls);
+
+		// Events of every step are delivered, however many steps per draw
+		SpriterData generated = SpriterTestAssetProvider.attach(new SpriterDataGenerator().generate());
+		SpriterAnimator stepped = new SpriterAnimator(generated.entities.first());
+		HeadlessSpriterAnimator reference = new HeadlessSpriterAnimator(generated.entities.first());
+		final int[] events = new int[2];
+		stepped.addAnimationListener(new SpriterAnimationAdapter() {
+			@Override
+			public void onEventTriggered(SpriterAnimator animator, String name) {
+				events[0]++;
+			}
+		});
+		reference.addAnimationListener(new SpriterAnimationAdapter() {
+			@Override
+			public void onEventTriggered(SpriterAnimator animator, String name) {
+				events[1]++;
+			}
+		});
+		stepped.setFixedStep(true);
+		stepped.play(0);
+		reference.play(0);
+		for (int i = 0; i < 120; ++i) {
+			stepped.update(step / 1000f);
+			reference.update(step / 1000f);
+			if (i % 2 == 1)
+				stepped.draw(new NoOpBatch(), 0.5f);
+		}
+		Assert.assertTrue(events[1] > 0);
+		Assert.assertEquals(events[1], events[0]);
+
+		// Short way round
+		SpriterObject before = new SpriterObject();
+		SpriterObject after = new SpriterObject();
+		before.angle = 350f;
+		after.angle = 10f;
+		FrameData.interpolate(before, after, 0.5f, interpolated);
+		Assert.assertEquals(0f, interpolated.angle % 360f, 0.001f);
+		FrameData.interpolate(after, before, 0.25f, interpolated);
+		Assert.assertEquals(5f, interpolated.angle % 360f, 0.001f);
+	}
+
+	@Test
+	public void skipInvisible() throws IOException {
+		SpriterData data = load(SpriterTestData.boxtagSCML);
+		SpriterAnimation animation = data.entities.first().animations.get(1);
+
+		FrameDataUpdateConfiguration all = new FrameDataUpdateConfiguration();
+		all.invisible = true;
+		FrameData expected = new FrameData();
+		FrameData actual = new FrameData();
+
+		for (float time = 0f; time < animation.length; time += 50f) {
+			FrameData.update(expected, all, animation, time, deltaTime);
+			FrameData.update(actual, new FrameDataUpdateConfiguration(), animation, time, deltaTime);
+
+			int visible = 0;
+			for (SpriterObject sprite : expected.spriteData)
+				if (sprite.alpha > 0f)
+					Assert.assertEquals(sprite.toString(), actual.spriteData.get(visible++).toString());
+			Assert.assertEquals(visible, actual.spriteData.size);
+		}
+
+		// Hide one file through a character map
+		HeadlessSpriterAnimator animator = new HeadlessSpriterAnimator(data.entities.first());
+		animator.play(animation);
+		animator.update(deltaTime);
+		int before = animator.getCurrentFrameData().spriteData.size;
+
+		SpriterCharacterMap characterMap = new SpriterCharacterMap();
+		SpriterMapInstruction hide = new SpriterMapInstruction();
+		hide.file = new SpriterFileInfo(animator.getCurrentFrameData().spriteData.first().file);
+		hide.target = new SpriterFileInfo();
+		characterMap.maps.add(hide);
+		animator.addCharacterMap(characterMap);
+		animator.update(0f);
+
+		Assert.assertTrue(animator.getFrameUpdateConfiguration().hiddenFiles.contains(hide.file));
+		Assert.assertEquals(before - 1, animator.getCurrentFrameData().spriteData.size);
+
+		animator.removeCharacterMap(characterMap);
+		animator.update(0f);
+		Assert.assertEquals(0, animator.getFrameUpdateConfiguration().hiddenFiles.size);
+		Assert.assertEquals(before, animator.getCurrentFrameData().spriteData.size);
+	}
+
+	private static void reverseTimelines(SpriterAnimation animation) {
+		int last = animation.timelines.size - 1;
+		animation.timelines.reverse();
+		for (int i = 0; i <= last; ++i)
+			animation.timelines.get(i).id = i;
+		for (SpriterMainlineKey key : animation.mainline.keys) {
+			for (SpriterRef ref : key.boneRefs)
+				ref.timelineId = last - ref.timelineId;
+			for (SpriterObjectRef ref : key.objectRefs)
+				ref.timelineId = last - ref.timelineId;
+		}
+	}
+
+	private SpriterData load(String scml) throws IOException {
+		return new ScmlReader().load(new InputStreamReader(getClass().getResourceAsStream(scml)));
+	}
+
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterEventline;
+import net.spookygames.gdx.spriter.data.SpriterKey;
+
+public class HeadlessSpriterAnimatorTest {
+
+	private static final float deltaTime = 1f / 60f;
+
+	@Test
+	public void updateWithoutAssetProvider() {
+		SpriterData data = new SpriterDataGenerator().generate();
+		Assert.assertNull(data.assetProvider);
+
+		HeadlessSpriterAnimator animator = new HeadlessSpriterAnimator(data.entities.first());
+		final int[] events = new int[1];
+		animator.addAnimationListener(new SpriterAnimationAdapter() {
+			@Override
+			public void onEventTriggered(SpriterAnimator animator, String event) {
+				events[0]++;
+			}
+		});
+
+		SpriterAnimation animation = animator.getEntity().animations.first();
+		animator.play(animation);
+
+		float elapsed = 0f;
+		while (elapsed < 2f * animation.length / 1000f) {
+			animator.update(deltaTime);
+			elapsed += deltaTime;
+		}
+
+		Assert.assertTrue(events[0] > 0);
+		Assert.assertTrue(animator.getCurrentFrameData().sounds.size == 0);
+		Assert.assertTrue(animator.getBoundingBox().area() > 0f);
+	}
+
+	@Test
+	public void seekCountsCrossedEvents() {
+		SpriterData data = new SpriterDataGenerator().generate();
+		HeadlessSpriterAnimator animator = new HeadlessSpriterAnimator(data.entities.first());
+		SpriterAnimation animation = animator.getEntity().animations.first();
+		animation.looping = true;
+
+		final int[] finished = new int[1];
+		animator.addAnimationListener(new SpriterAnimationAdapter() {
+			@Override
+			public void onAnimationFinished(SpriterAnimator animator, SpriterAnimation animation) {
+				finished[0]++;
+			}
+		});
+
+		animator.play(animation);
+		SpriterSeekResult result = animator.seek(1000.5f * animation.length / 1000f, new SpriterSeekResult());
+
+		Assert.assertSame(animation, result.animation);
+		Assert.assertEquals(1000, result.loops);
+		Assert.assertEquals(1, finished[0]);
+		Assert.assertEquals(animation.length / 2f, animator.getTime(), 1f);
+		Assert.assertTrue(result.eventKeys.size > 0);
+		for (int i = 0; i < result.eventKeys.size; ++i) {
+			float time = result.eventKeys.get(i).time;
+			if (time < animation.length / 2f - 1f)
+				Assert.assertEquals(1001, result.eventCounts.get(i));
+			else if (time > animation.length / 2f + 1f)
+				Assert.assertEquals(1000, result.eventCounts.get(i));
+		}
+
+		// Back to start, crossing every key once more
+		animator.seek(-animator.getTime() / 1000f, result);
+		for (int i = 0; i < result.eventCounts.size; ++i)
+			Assert.assertEquals(1, result.eventCounts.get(i));
+
+		// Large delta updates trigger each crossed key once, with a count
+		int keys = 0;
+		for (int i = 0; i < animation.eventlines.size; ++i)
+			keys += animation.eventlines.get(i).keys.size;
+		animator.setTime(0f);
+		animator.update(3f * animation.length / 1000f);
+		FrameData frameData = animator.getCurrentFrameData();
+		Assert.assertEquals(keys, frameData.events.size);
+		for (int i = 0; i < frameData.eventCounts.size; ++i)
+			Assert.assertEquals(3, frameData.eventCounts.get(i));
+
+		// Not moving triggers nothing
+		animator.update(0f);
+		Assert.assertEquals(0, animator.getCurrentFrameData().events.size);
+	}
+
+	@Test
+	public void seekReportsTransitionTarget() {
+		SpriterData data = new SpriterDataGenerator().generate();
+		HeadlessSpriterAnimator animator = new HeadlessSpriterAnimator(data.entities.first());
+		SpriterAnimation current = animator.getEntity().animations.get(0);
+		SpriterAnimation next = animator.getEntity().animations.get(1);
+		current.looping = true;
+		next.looping = true;
+
+		animator.play(current);
+		animator.transition(next, 1000000f);
+		SpriterSeekResult result = animator.seek(current.length / 1000f, new SpriterSeekResult());
+
+		Assert.assertSame(current, result.animation);
+		Assert.assertSame(next, result.nextAnimation);
+		for (SpriterEventline eventline : next.eventlines) {
+			for (SpriterKey key : eventline.keys) {
+				int index = result.eventKeys.indexOf(key, true);
+				Assert.assertTrue(index >= 0);
+				Assert.assertTrue(result.eventCounts.get(index) >= 1);
+			}
+		}
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void drawIsUnsupported() {
+		SpriterData data = new SpriterDataGenerator().generate();
+		HeadlessSpriterAnimator animator = new HeadlessSpriterAnimator(data.entities.first());
+		animator.play(animator.getEntity().animations.first());
+		animator.update(deltaTime);
+		animator.draw(new NoOpBatch());
+	}
+
+}
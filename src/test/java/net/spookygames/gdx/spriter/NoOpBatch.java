@@ -0,0 +1,222 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.NumberUtils;
+
+/**
+ * {@link Batch} that keeps track of its color and counts draw calls but does
+ * not render anything, hence needs no graphics backend.
+ */
+public class NoOpBatch implements Batch {
+
+	private final Color color = new Color(1, 1, 1, 1);
+	private final Matrix4 projectionMatrix = new Matrix4();
+	private final Matrix4 transformMatrix = new Matrix4();
+	private boolean drawing = false;
+	private boolean blending = true;
+	private int blendSrcFunc = 0;
+	private int blendDstFunc = 0;
+
+	public int drawCalls = 0;
+
+	@Override
+	public void dispose() {
+	}
+
+	@Override
+	public void begin() {
+		drawing = true;
+	}
+
+	@Override
+	public void end() {
+		drawing = false;
+	}
+
+	@Override
+	public void setColor(Color tint) {
+		color.set(tint);
+	}
+
+	@Override
+	public void setColor(float r, float g, float b, float a) {
+		color.set(r, g, b, a);
+	}
+
+	@Override
+	public void setColor(float color) {
+		int intBits = NumberUtils.floatToIntColor(color);
+		this.color.r = (intBits & 0xff) / 255f;
+		this.color.g = ((intBits >>> 8) & 0xff) / 255f;
+		this.color.b = ((intBits >>> 16) & 0xff) / 255f;
+		this.color.a = ((intBits >>> 24) & 0xff) / 255f;
+	}
+
+	@Override
+	public Color getColor() {
+		return color;
+	}
+
+	@Override
+	public float getPackedColor() {
+		return color.toFloatBits();
+	}
+
+	@Override
+	public void draw(Texture texture, float x, float y, float originX, float originY, float width, float height,
+			float scaleX, float scaleY, float rotation, int srcX, int srcY, int srcWidth, int srcHeight, boolean flipX,
+			boolean flipY) {
+		drawCalls++;
+	}
+
+	@Override
+	public void draw(Texture texture, float x, float y, float width, float height, int srcX, int srcY, int srcWidth,
+			int srcHeight, boolean flipX, boolean flipY) {
+		drawCalls++;
+	}
+
+	@Override
+	public void draw(Texture texture, float x, float y, int srcX, int srcY, int srcWidth, int srcHeight) {
+		drawCalls++;
+	}
+
+	@Override
+	public void draw(Texture texture, float x, float y, float width, float height, float u, float v, float u2,
+			float v2) {
+		drawCalls++;
+	}
+
+	@Override
+	public void draw(Texture texture, float x, float y) {
+		drawCalls++;
+	}
+
+	@Override
+	public void draw(Texture texture, float x, float y, float width, float height) {
+		drawCalls++;
+	}
+
+	@Override
+	public void draw(Texture texture, float[] spriteVertices, int offset, int count) {
+		drawCalls++;
+	}
+
+	@Override
+	public void draw(TextureRegion region, float x, float y) {
+		drawCalls++;
+	}
+
+	@Override
+	public void draw(TextureRegion region, float x, float y, float width, float height) {
+		drawCalls++;
+	}
+
+	@Override
+	public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+			float scaleX, float scaleY, float rotation) {
+		drawCalls++;
+	}
+
+	@Override
+	public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+			float scaleX, float scaleY, float rotation, boolean clockwise) {
+		drawCalls++;
+	}
+
+	@Override
+	public void draw(TextureRegion region, float width, float height, Affine2 transform) {
+		drawCalls++;
+	}
+
+	@Override
+	public void flush() {
+	}
+
+	@Override
+	public void disableBlending() {
+		blending = false;
+	}
+
+	@Override
+	public void enableBlending() {
+		blending = true;
+	}
+
+	@Override
+	public void setBlendFunction(int srcFunc, int dstFunc) {
+		blendSrcFunc = srcFunc;
+		blendDstFunc = dstFunc;
+	}
+
+	@Override
+	public int getBlendSrcFunc() {
+		return blendSrcFunc;
+	}
+
+	@Override
+	public int getBlendDstFunc() {
+		return blendDstFunc;
+	}
+
+	@Override
+	public Matrix4 getProjectionMatrix() {
+		return projectionMatrix;
+	}
+
+	@Override
+	public Matrix4 getTransformMatrix() {
+		return transformMatrix;
+	}
+
+	@Override
+	public void setProjectionMatrix(Matrix4 projection) {
+		projectionMatrix.set(projection);
+	}
+
+	@Override
+	public void setTransformMatrix(Matrix4 transform) {
+		transformMatrix.set(transform);
+	}
+
+	@Override
+	public void setShader(ShaderProgram shader) {
+	}
+
+	@Override
+	public boolean isBlendingEnabled() {
+		return blending;
+	}
+
+	@Override
+	public boolean isDrawing() {
+		return drawing;
+	}
+
+}
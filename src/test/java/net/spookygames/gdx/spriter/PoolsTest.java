@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.badlogic.gdx.utils.Array;
+
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterSpatial;
+import net.spookygames.gdx.spriter.io.ScmlReader;
+
+public class PoolsTest {
+
+	private static final float deltaTime = 1f / 60f;
+
+	@After
+	public void disableLeakTracking() {
+		Pools.setLeakTracking(false);
+		Pools.setMaximumSize(Integer.MAX_VALUE);
+	}
+
+	@Test
+	public void noLeakWhilePlaying() throws IOException {
+		SpriterAnimator animator = SpriterTestAssetProvider.animator(load(SpriterTestData.greyguySCML));
+		animator.play("walk");
+		assertNoLeak(animator);
+	}
+
+	@Test
+	public void noLeakWhileBlending() throws IOException {
+		SpriterAnimator animator = SpriterTestAssetProvider.animator(load(SpriterTestData.greyguySCML));
+		animator.blend("idle", "walk", 0.5f);
+		assertNoLeak(animator);
+	}
+
+	@Test
+	public void noLeakWithNestedEntities() throws IOException {
+		SpriterDataGenerator generator = new SpriterDataGenerator();
+		generator.entities = 2;
+		generator.nestingDepth = 1;
+		SpriterAnimator animator = SpriterTestAssetProvider.animator(generator.generate());
+		animator.play(animator.getEntity().animations.first());
+		assertNoLeak(animator);
+	}
+
+	@Test
+	public void leakTracking() {
+		Pools.setLeakTracking(true);
+		SpriterSpatial spatial = Pools.spatials.obtain();
+		Assert.assertEquals(1, Pools.getLeaks(new Array<Throwable>()).size);
+		Pools.spatials.free(spatial);
+		Assert.assertEquals(0, Pools.getLeaks(new Array<Throwable>()).size);
+	}
+
+	@Test
+	public void maximumSizeAndTrim() {
+		Pools.TrackedPool<SpriterSpatial> pool = Pools.spatials;
+		Array<SpriterSpatial> spatials = new Array<SpriterSpatial>();
+		for (int i = 0; i < 10; ++i)
+			spatials.add(pool.obtain());
+		pool.setMaximumSize(4);
+		pool.freeAll(spatials);
+		Assert.assertEquals(4, pool.getFree());
+		Assert.assertEquals(3, pool.trim(1));
+		Assert.assertEquals(1, pool.getFree());
+	}
+
+	private void assertNoLeak(SpriterAnimator animator) {
+		for (int i = 0; i < 10; ++i)
+			animator.update(deltaTime);
+
+		Pools.setLeakTracking(true);
+		Pools.resetStatistics();
+		int spatials = Pools.spatials.getOutstanding();
+		int objects = Pools.objects.getOutstanding();
+
+		for (int i = 0; i < 100; ++i)
+			animator.update(deltaTime);
+
+		Assert.assertTrue(Pools.objects.getObtained() > 0);
+		Assert.assertEquals(spatials, Pools.spatials.getOutstanding());
+		Assert.assertEquals(objects, Pools.objects.getOutstanding());
+		Assert.assertTrue(Pools.getLeaks(new Array<Throwable>()).size <= objects + Pools.varValues.getOutstanding()
+				+ Pools.varValuesMaps.getOutstanding() + Pools.stringArrays.getOutstanding()
+				+ Pools.sounds.getOutstanding());
+	}
+
+	private SpriterData load(String scml) throws IOException {
+		return new ScmlReader().load(new InputStreamReader(getClass().getResourceAsStream(scml)));
+	}
+
+}
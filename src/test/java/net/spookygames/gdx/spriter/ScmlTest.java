@@ -29,9 +29,19 @@ import java.io.Reader;
 import org.junit.Assert;
 import org.junit.Test;
 
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterCurveType;
 import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterEntity;
+import net.spookygames.gdx.spriter.data.SpriterObject;
+import net.spookygames.gdx.spriter.io.LazySpriterAnimationSource;
 import net.spookygames.gdx.spriter.io.ScmlReader;
 import net.spookygames.gdx.spriter.io.ScmlWriter;
+import net.spookygames.gdx.spriter.io.SpriterConstantFolder;
+import net.spookygames.gdx.spriter.io.SpriterContentOpener;
+import net.spookygames.gdx.spriter.io.SpriterDataCompactor;
+import net.spookygames.gdx.spriter.io.SpriterKeyPacker;
+import net.spookygames.gdx.spriter.io.SpriterKeyReducer;
 
 public class ScmlTest {
 
@@ -104,4 +114,258 @@ public class ScmlTest {
 
 		SpriterTestUtils.assertContentEquals(reference, output);
 	}
+
+	@Test
+	public void readScmlLazily() throws IOException {
+		for (String scml : SpriterTestData.scml) {
+			ScmlReader reader = new ScmlReader();
+
+			SpriterData reference = reader.load(new InputStreamReader(getClass().getResourceAsStream(scml)));
+
+			reader.setLazyAnimationLoading(true);
+			SpriterData data = reader.load(new InputStreamReader(getClass().getResourceAsStream(scml)));
+
+			LazySpriterAnimationSource source = (LazySpriterAnimationSource) data.animationSource;
+			Assert.assertNotNull(source);
+			Assert.assertEquals(0, source.getLoadedCount());
+
+			for (SpriterEntity entity : data.entities) {
+				for (SpriterAnimation animation : entity.animations) {
+					Assert.assertNotNull(animation.name);
+					Assert.assertNull(animation.mainline);
+				}
+			}
+
+			source.prefetchAll();
+
+			Assert.assertEquals(reference.toString(), data.toString());
+
+			SpriterAnimation animation = data.entities.first().animations.first();
+			source.unload(animation);
+			Assert.assertFalse(source.isLoaded(animation));
+			Assert.assertNull(animation.mainline);
+
+			source.load(animation);
+			Assert.assertTrue(source.isLoaded(animation));
+			Assert.assertEquals(reference.toString(), data.toString());
+		}
+	}
+
+	@Test
+	public void readScmlLazilyReopened() throws IOException {
+		for (final String scml : SpriterTestData.scml) {
+			ScmlReader reader = new ScmlReader();
+
+			SpriterData reference = reader.load(new InputStreamReader(getClass().getResourceAsStream(scml)));
+
+			final int[] opened = new int[1];
+			reader.setLazyAnimationLoading(true);
+			SpriterData data = reader.load(new SpriterContentOpener() {
+				@Override
+				public Reader open() {
+					opened[0]++;
+					return new InputStreamReader(getClass().getResourceAsStream(scml));
+				}
+			});
+			Assert.assertEquals(1, opened[0]);
+
+			// Every body is read from a freshly opened content
+			LazySpriterAnimationSource source = (LazySpriterAnimationSource) data.animationSource;
+			source.prefetchAll();
+			int animations = 0;
+			for (SpriterEntity entity : data.entities)
+				animations += entity.animations.size;
+			Assert.assertEquals(1 + animations, opened[0]);
+
+			Assert.assertEquals(reference.toString(), data.toString());
+		}
+	}
+
+	@Test
+	public void readScmlCompacted() throws IOException {
+		SpriterDataCompactor compactor = new SpriterDataCompactor();
+
+		for (String scml : SpriterTestData.scml) {
+			ScmlReader reader = new ScmlReader();
+
+			SpriterData reference = reader.load(new InputStreamReader(getClass().getResourceAsStream(scml)));
+
+			reader.setCompactor(compactor);
+			SpriterData data = reader.load(new InputStreamReader(getClass().getResourceAsStream(scml)));
+
+			Assert.assertEquals(reference.toString(), data.toString());
+
+			reader.setLazyAnimationLoading(true);
+			data = reader.load(new InputStreamReader(getClass().getResourceAsStream(scml)));
+			((LazySpriterAnimationSource) data.animationSource).prefetchAll();
+
+			Assert.assertEquals(reference.toString(), data.toString());
+		}
+
+		Assert.assertTrue(compactor.getSharedStrings() > 0);
+		Assert.assertTrue(compactor.getSharedFileInfos() > 0);
+		Assert.assertTrue(compactor.getSharedPayloads() > 0);
+		Assert.assertTrue(compactor.getBytesSaved() > 0);
+	}
+
+	@Test
+	public void readScmlPacked() throws IOException {
+		FrameDataUpdateConfiguration configuration = new FrameDataUpdateConfiguration();
+		FrameData expected = new FrameData();
+		FrameData actual = new FrameData();
+
+		for (String scml : SpriterTestData.scml) {
+			ScmlReader reader = new ScmlReader();
+			ScmlWriter writer = new ScmlWriter();
+
+			SpriterData reference = reader.load(new InputStreamReader(getClass().getResourceAsStream(scml)));
+
+			SpriterKeyPacker packer = new SpriterKeyPacker();
+			reader.setKeyPacker(packer);
+			SpriterData data = reader.load(new InputStreamReader(getClass().getResourceAsStream(scml)));
+
+			Assert.assertTrue(packer.getPackedKeys() > 0);
+			Assert.assertTrue(packer.getBytesPerKeyAfter() < packer.getBytesPerKeyBefore());
+
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			writer.write(data, output);
+			reader.setKeyPacker(null);
+			SpriterData written = reader.load(new InputStreamReader(new ByteArrayInputStream(output.toByteArray())));
+
+			Assert.assertEquals(reference.toString(), written.toString());
+
+			for (int e = 0; e < reference.entities.size; e++) {
+				for (int a = 0; a < reference.entities.get(e).animations.size; a++) {
+					SpriterAnimation expectedAnimation = reference.entities.get(e).animations.get(a);
+					SpriterAnimation actualAnimation = data.entities.get(e).animations.get(a);
+					for (float time = 0f; time < expectedAnimation.length; time += 10f) {
+						FrameData.update(expected, configuration, expectedAnimation, time, 0f);
+						FrameData.update(actual, configuration, actualAnimation, time, 0f);
+						Assert.assertEquals(expected.toString(), actual.toString());
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void readScmlFolded() throws IOException {
+		FrameDataUpdateConfiguration configuration = new FrameDataUpdateConfiguration();
+		FrameData expected = new FrameData();
+		FrameData actual = new FrameData();
+
+		for (String scml : SpriterTestData.scml) {
+			ScmlReader reader = new ScmlReader();
+
+			SpriterData reference = reader.load(new InputStreamReader(getClass().getResourceAsStream(scml)));
+
+			SpriterConstantFolder folder = new SpriterConstantFolder();
+			reader.setKeyPacker(new SpriterKeyPacker());
+			reader.setConstantFolder(folder);
+			SpriterData packed = reader.load(new InputStreamReader(getClass().getResourceAsStream(scml)));
+			reader.setKeyPacker(null);
+			SpriterData data = reader.load(new InputStreamReader(getClass().getResourceAsStream(scml)));
+
+			Assert.assertTrue(folder.getConstantSegments() > 0);
+			Assert.assertTrue(folder.getConstantSegments() <= folder.getSegments());
+			Assert.assertTrue(folder.getConstantTimelines() <= folder.getTimelines());
+
+			for (int e = 0; e < reference.entities.size; e++) {
+				for (int a = 0; a < reference.entities.get(e).animations.size; a++) {
+					SpriterAnimation expectedAnimation = reference.entities.get(e).animations.get(a);
+					SpriterAnimation actualAnimation = data.entities.get(e).animations.get(a);
+					SpriterAnimation packedAnimation = packed.entities.get(e).animations.get(a);
+					float ratio = folder.getFoldedRatio(actualAnimation);
+					Assert.assertTrue(ratio >= 0f && ratio <= 1f);
+					Assert.assertEquals(ratio, folder.getFoldedRatio(packedAnimation), 0.0001f);
+					for (float time = 0f; time < expectedAnimation.length; time += 10f) {
+						FrameData.update(expected, configuration, expectedAnimation, time, 0f);
+						FrameData.update(actual, configuration, actualAnimation, time, 0f);
+						Assert.assertEquals(expected.toString(), actual.toString());
+						FrameData.update(actual, configuration, packedAnimation, time, 0f);
+						Assert.assertEquals(expected.toString(), actual.toString());
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void writeReducedScml() throws IOException {
+		FrameDataUpdateConfiguration configuration = new FrameDataUpdateConfiguration();
+		FrameData expected = new FrameData();
+		FrameData actual = new FrameData();
+
+		for (String scml : SpriterTestData.scml) {
+			ScmlReader reader = new ScmlReader();
+
+			SpriterData reference = reader.load(new InputStreamReader(getClass().getResourceAsStream(scml)));
+			SpriterData data = reader.load(new InputStreamReader(getClass().getResourceAsStream(scml)));
+
+			SpriterKeyReducer reducer = new SpriterKeyReducer();
+			reducer.reduce(data);
+
+			Assert.assertTrue(reducer.getKeysAfter() <= reducer.getKeysBefore());
+			Assert.assertTrue(reducer.getMaxPositionError() <= reducer.getPositionTolerance());
+			Assert.assertTrue(reducer.getMaxAngleError() <= reducer.getAngleTolerance());
+			Assert.assertTrue(reducer.getMaxScaleError() <= reducer.getScaleTolerance());
+			Assert.assertTrue(reducer.getMaxAlphaError() <= reducer.getAlphaTolerance());
+
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			new ScmlWriter().write(data, output);
+			SpriterData written = reader.load(new InputStreamReader(new ByteArrayInputStream(output.toByteArray())));
+
+			Assert.assertEquals(data.toString(), written.toString());
+
+			for (int e = 0; e < reference.entities.size; e++) {
+				for (int a = 0; a < reference.entities.get(e).animations.size; a++) {
+					SpriterAnimation expectedAnimation = reference.entities.get(e).animations.get(a);
+					SpriterAnimation actualAnimation = written.entities.get(e).animations.get(a);
+					for (float time = 0f; time < expectedAnimation.length; time += 10f) {
+						FrameData.update(expected, configuration, expectedAnimation, time, 0f);
+						FrameData.update(actual, configuration, actualAnimation, time, 0f);
+						Assert.assertEquals(expected.spriteData.size, actual.spriteData.size);
+						for (int i = 0; i < expected.spriteData.size; i++) {
+							SpriterObject expectedSprite = expected.spriteData.get(i);
+							SpriterObject actualSprite = actual.spriteData.get(i);
+							Assert.assertEquals(expectedSprite.file, actualSprite.file);
+							Assert.assertEquals(expectedSprite.x, actualSprite.x, 5f);
+							Assert.assertEquals(expectedSprite.y, actualSprite.y, 5f);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void writeGeneratedScml() throws IOException {
+		SpriterDataGenerator generator = new SpriterDataGenerator();
+		generator.entities = 2;
+		generator.nestingDepth = 1;
+		generator.curveWeights = SpriterDataGenerator.curveWeights(SpriterCurveType.values());
+
+		Assert.assertEquals(generator.generate().toString(), generator.generate().toString());
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		generator.write(output);
+
+		ScmlReader reader = new ScmlReader();
+		SpriterData data = reader.load(new InputStreamReader(new ByteArrayInputStream(output.toByteArray())));
+
+		ByteArrayOutputStream rewritten = new ByteArrayOutputStream();
+		new ScmlWriter().write(data, rewritten);
+
+		Assert.assertEquals(output.toString("UTF-8"), rewritten.toString("UTF-8"));
+
+		FrameDataUpdateConfiguration configuration = new FrameDataUpdateConfiguration();
+		FrameData frameData = new FrameData();
+		SpriterEntity nesting = data.entities.first();
+		for (SpriterAnimation animation : nesting.animations) {
+			for (float time = 0f; time < animation.length; time += 10f) {
+				FrameData.update(frameData, configuration, animation, time, 10f);
+				Assert.assertTrue(frameData.spriteData.size > generator.objects);
+			}
+		}
+	}
 }
@@ -27,7 +27,10 @@ import java.io.Reader;
 import org.junit.Assert;
 import org.junit.Test;
 
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
 import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterEntity;
+import net.spookygames.gdx.spriter.io.LazySpriterAnimationSource;
 import net.spookygames.gdx.spriter.io.SconReader;
 
 public class SconTest {
@@ -61,4 +64,40 @@ public class SconTest {
 		String actual = sconData.toString();
 		Assert.assertEquals(ref, actual);
 	}
+
+	@Test
+	public void readSconLazily() throws IOException {
+		for (String scon : SpriterTestData.scon) {
+			SconReader reader = new SconReader();
+
+			SpriterData reference = reader.load(new InputStreamReader(getClass().getResourceAsStream(scon)));
+
+			reader.setLazyAnimationLoading(true);
+			SpriterData data = reader.load(new InputStreamReader(getClass().getResourceAsStream(scon)));
+
+			LazySpriterAnimationSource source = (LazySpriterAnimationSource) data.animationSource;
+			Assert.assertNotNull(source);
+			Assert.assertEquals(0, source.getLoadedCount());
+
+			for (SpriterEntity entity : data.entities) {
+				for (SpriterAnimation animation : entity.animations) {
+					Assert.assertNotNull(animation.name);
+					Assert.assertNull(animation.mainline);
+				}
+			}
+
+			source.prefetchAll();
+
+			Assert.assertEquals(reference.toString(), data.toString());
+
+			SpriterAnimation animation = data.entities.first().animations.first();
+			source.unload(animation);
+			Assert.assertFalse(source.isLoaded(animation));
+			Assert.assertNull(animation.mainline);
+
+			source.load(animation);
+			Assert.assertTrue(source.isLoaded(animation));
+			Assert.assertEquals(reference.toString(), data.toString());
+		}
+	}
 }
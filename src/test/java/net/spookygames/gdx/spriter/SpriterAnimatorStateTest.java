@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.badlogic.gdx.utils.Array;
+
+import net.spookygames.gdx.spriter.data.SpriterCharacterMap;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterEntity;
+import net.spookygames.gdx.spriter.io.ScmlReader;
+
+public class SpriterAnimatorStateTest {
+
+	private static final int frames = 8;
+
+	@Test
+	public void resimulate() throws IOException {
+		SpriterData data = new ScmlReader()
+				.load(new InputStreamReader(getClass().getResourceAsStream(SpriterTestData.greyguySCML)));
+		SpriterEntity entity = data.entities.first();
+		SpriterAnimator animator = new HeadlessSpriterAnimator(entity);
+		animator.setPosition(12f, -3f);
+		animator.setScale(1.5f, 0.75f);
+		animator.setSpeed(1.3f);
+		animator.play("idle");
+
+		SpriterAnimatorState state = new SpriterAnimatorState();
+		Array<String> expected = new Array<String>();
+		Array<String> actual = new Array<String>();
+
+		for (int step = 0; step < 200; ++step) {
+			float deltaTime = 1f / (40f + step % 30);
+			animator.update(deltaTime);
+
+			if (step % 50 == 10)
+				animator.transition(step % 100 == 10 ? "walk" : "idle", 300f);
+
+			if (step % 20 != 0)
+				continue;
+
+			// Record a few frames then roll back and resimulate them
+			animator.snapshot(state);
+			expected.clear();
+			actual.clear();
+
+			for (int i = 0; i < frames; ++i) {
+				animator.update(deltaTime * (i + 1));
+				expected.add(animator.getCurrentFrameData().toString());
+			}
+
+			SpriterAnimatorState end = animator.snapshot(new SpriterAnimatorState());
+			animator.restore(state);
+
+			for (int i = 0; i < frames; ++i) {
+				animator.update(deltaTime * (i + 1));
+				actual.add(animator.getCurrentFrameData().toString());
+			}
+
+			Assert.assertEquals(expected, actual);
+			Assert.assertEquals(end.toString(), animator.snapshot(new SpriterAnimatorState()).toString());
+		}
+	}
+
+	@Test
+	public void rejectForeignCharacterMap() throws IOException {
+		SpriterData data = new ScmlReader()
+				.load(new InputStreamReader(getClass().getResourceAsStream(SpriterTestData.greyguySCML)));
+		SpriterAnimator animator = new HeadlessSpriterAnimator(data.entities.first());
+		animator.play("idle");
+		animator.update(0.1f);
+
+		SpriterAnimatorState state = animator.snapshot(new SpriterAnimatorState());
+		String expected = state.toString();
+
+		SpriterCharacterMap foreign = new SpriterCharacterMap();
+		foreign.name = "foreign";
+		animator.addCharacterMap(foreign);
+
+		try {
+			animator.snapshot(state);
+			Assert.fail("Snapshot of a foreign character map should be rejected");
+		} catch (IllegalStateException e) {
+			// Expected
+		}
+
+		// Rejected snapshot leaves previous state untouched and restorable
+		Assert.assertEquals(expected, state.toString());
+		animator.restore(state);
+		Assert.assertEquals(0, animator.getCharacterMaps().size);
+		Assert.assertEquals(expected, animator.snapshot(new SpriterAnimatorState()).toString());
+	}
+
+}
@@ -0,0 +1,411 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterCharacterMap;
+import net.spookygames.gdx.spriter.data.SpriterCurveType;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterEntity;
+import net.spookygames.gdx.spriter.data.SpriterEventline;
+import net.spookygames.gdx.spriter.data.SpriterFile;
+import net.spookygames.gdx.spriter.data.SpriterFileInfo;
+import net.spookygames.gdx.spriter.data.SpriterFolder;
+import net.spookygames.gdx.spriter.data.SpriterKey;
+import net.spookygames.gdx.spriter.data.SpriterMainline;
+import net.spookygames.gdx.spriter.data.SpriterMainlineKey;
+import net.spookygames.gdx.spriter.data.SpriterMapInstruction;
+import net.spookygames.gdx.spriter.data.SpriterObject;
+import net.spookygames.gdx.spriter.data.SpriterObjectInfo;
+import net.spookygames.gdx.spriter.data.SpriterObjectRef;
+import net.spookygames.gdx.spriter.data.SpriterObjectType;
+import net.spookygames.gdx.spriter.data.SpriterRef;
+import net.spookygames.gdx.spriter.data.SpriterSpatial;
+import net.spookygames.gdx.spriter.data.SpriterTimeline;
+import net.spookygames.gdx.spriter.data.SpriterTimelineKey;
+import net.spookygames.gdx.spriter.io.ScmlWriter;
+
+/**
+ * Deterministic generator of synthetic {@link SpriterData}, meant to exercise
+ * loaders and animators at scales real files do not reach.
+ * 
+ * Every animation of every entity has the same structure: a bone hierarchy,
+ * sprite objects parented to bones and a mainline whose keys reference the
+ * keys of every timeline at the same time. Entity n optionally nests entity n
+ * + 1, up to {@link #nestingDepth}. Two generators with the same parameters
+ * produce the same data.
+ */
+public class SpriterDataGenerator {
+
+	/**
+	 * Seed of the pseudo-random sequence.
+	 */
+	public long seed = 42L;
+
+	/**
+	 * Number of entities.
+	 */
+	public int entities = 1;
+
+	/**
+	 * Number of animations per entity.
+	 */
+	public int animations = 4;
+
+	/**
+	 * Number of bones per animation.
+	 */
+	public int bones = 8;
+
+	/**
+	 * Number of sprite objects per animation.
+	 */
+	public int objects = 8;
+
+	/**
+	 * Number of image files, in a single folder.
+	 */
+	public int files = 16;
+
+	/**
+	 * Number of keys per timeline, mainline included.
+	 */
+	public int keys = 8;
+
+	/**
+	 * Relative weights of curve types for timeline keys, indexed by
+	 * {@link SpriterCurveType#ordinal()}. Defaults to linear only.
+	 */
+	public float[] curveWeights = curveWeights(SpriterCurveType.Linear);
+
+	/**
+	 * Number of eventlines per animation.
+	 */
+	public int eventlines = 1;
+
+	/**
+	 * Number of keys per eventline.
+	 */
+	public int eventKeys = 2;
+
+	/**
+	 * Number of character maps per entity.
+	 */
+	public int characterMaps = 2;
+
+	/**
+	 * Depth of entity nesting, entity n displaying entity n + 1 as an object.
+	 * Clamped to the number of entities minus one.
+	 */
+	public int nestingDepth = 0;
+
+	private RandomXS128 random;
+
+	/**
+	 * Build weights for {@link #curveWeights} giving equal chances to given
+	 * curve types.
+	 * 
+	 * @param types
+	 *            Curve types to pick from
+	 * @return Weights for curve types
+	 */
+	public static float[] curveWeights(SpriterCurveType... types) {
+		float[] weights = new float[SpriterCurveType.values().length];
+		for (SpriterCurveType type : types)
+			weights[type.ordinal()] = 1f;
+		return weights;
+	}
+
+	/**
+	 * Generate a new {@link SpriterData} from current parameters.
+	 * 
+	 * @return Generated data
+	 */
+	public SpriterData generate() {
+		random = new RandomXS128(seed);
+
+		SpriterData data = new SpriterData();
+		data.version = "1.0";
+		data.generator = "BrashMonkey Spriter";
+		data.generatorVersion = "r11";
+
+		SpriterFolder folder = new SpriterFolder();
+		folder.id = 0;
+		folder.name = "images";
+		for (int f = 0; f < files; f++) {
+			SpriterFile file = new SpriterFile();
+			file.id = f;
+			file.name = "images/image_" + f + ".png";
+			file.width = 16 + random.nextInt(112);
+			file.height = 16 + random.nextInt(112);
+			file.pivotX = 0f;
+			file.pivotY = 1f;
+			folder.files.add(file);
+		}
+		data.folders.add(folder);
+
+		int depth = Math.max(0, Math.min(nestingDepth, entities - 1));
+
+		for (int e = 0; e < entities; e++) {
+			SpriterEntity entity = new SpriterEntity();
+			entity.id = e;
+			entity.name = "entity_" + e;
+			entity.data = data;
+
+			for (int b = 0; b < bones; b++) {
+				SpriterObjectInfo info = new SpriterObjectInfo();
+				info.id = b;
+				info.name = "bone_" + b;
+				info.objectType = SpriterObjectType.Bone;
+				info.width = 50 + random.nextInt(150);
+				info.height = 10;
+				entity.objectInfos.add(info);
+			}
+
+			for (int c = 0; c < characterMaps; c++)
+				entity.characterMaps.add(generateCharacterMap(c));
+
+			for (int a = 0; a < animations; a++)
+				entity.animations.add(generateAnimation(entity, a, e < depth ? e + 1 : -1));
+
+			data.entities.add(entity);
+		}
+
+		return data;
+	}
+
+	/**
+	 * Generate a new {@link SpriterData} from current parameters and write it
+	 * in scml format to given output.
+	 * 
+	 * @param output
+	 *            Output to write to
+	 * @throws IOException
+	 *             If an I/O error occurs
+	 */
+	public void write(OutputStream output) throws IOException {
+		new ScmlWriter().write(generate(), output);
+	}
+
+	private SpriterCharacterMap generateCharacterMap(int id) {
+		SpriterCharacterMap map = new SpriterCharacterMap();
+		map.id = id;
+		map.name = "map_" + id;
+		for (int f = 0; f < files; f++) {
+			if (random.nextInt(4) != 0)
+				continue;
+			SpriterMapInstruction instruction = new SpriterMapInstruction();
+			instruction.file = fileInfo(f);
+			// One in eight mappings hides its file
+			instruction.target = random.nextInt(8) == 0 ? fileInfo(-1) : fileInfo(random.nextInt(files));
+			map.maps.add(instruction);
+		}
+		return map;
+	}
+
+	private SpriterAnimation generateAnimation(SpriterEntity entity, int id, int nestedEntity) {
+		SpriterAnimation animation = new SpriterAnimation();
+		animation.id = id;
+		animation.name = "animation_" + id;
+		animation.entity = entity;
+		animation.length = keys * (50 + random.nextInt(10) * 10);
+		animation.looping = random.nextInt(4) != 0;
+
+		int objectCount = objects + (nestedEntity >= 0 ? 1 : 0);
+
+		int[] boneParents = new int[bones];
+		for (int b = 0; b < bones; b++)
+			boneParents[b] = b == 0 ? -1 : random.nextInt(b);
+
+		int[] objectParents = new int[objectCount];
+		for (int o = 0; o < objectCount; o++)
+			objectParents[o] = bones == 0 ? -1 : random.nextInt(bones);
+
+		animation.mainline = new SpriterMainline();
+		for (int k = 0; k < keys; k++) {
+			SpriterMainlineKey key = new SpriterMainlineKey();
+			key.id = k;
+			key.time = keyTime(animation, k);
+
+			for (int b = 0; b < bones; b++) {
+				SpriterRef ref = new SpriterRef();
+				ref.id = b;
+				ref.parentId = boneParents[b];
+				ref.timelineId = b;
+				ref.keyId = k;
+				key.boneRefs.add(ref);
+			}
+
+			for (int o = 0; o < objectCount; o++) {
+				SpriterObjectRef ref = new SpriterObjectRef();
+				ref.id = o;
+				ref.parentId = objectParents[o];
+				ref.timelineId = bones + o;
+				ref.keyId = k;
+				ref.zIndex = o;
+				key.objectRefs.add(ref);
+			}
+
+			animation.mainline.keys.add(key);
+		}
+
+		for (int b = 0; b < bones; b++) {
+			SpriterTimeline timeline = new SpriterTimeline();
+			timeline.id = b;
+			timeline.name = "bone_" + b;
+			timeline.objectType = SpriterObjectType.Bone;
+			timeline.objectId = b;
+			for (int k = 0; k < keys; k++) {
+				SpriterTimelineKey key = generateTimelineKey(animation, k);
+				key.boneInfo = new SpriterSpatial();
+				fillSpatial(key.boneInfo, b == 0 ? 0f : 100f);
+				timeline.keys.add(key);
+			}
+			animation.timelines.add(timeline);
+		}
+
+		for (int o = 0; o < objectCount; o++) {
+			boolean nested = o == objects;
+			SpriterTimeline timeline = new SpriterTimeline();
+			timeline.id = bones + o;
+			timeline.name = nested ? "entity_" + nestedEntity : "object_" + o;
+			timeline.objectType = nested ? SpriterObjectType.Entity : SpriterObjectType.Sprite;
+			int file = random.nextInt(files);
+			for (int k = 0; k < keys; k++) {
+				SpriterTimelineKey key = generateTimelineKey(animation, k);
+				SpriterObject object = new SpriterObject();
+				fillSpatial(object, 50f);
+				if (nested) {
+					object.entityId = nestedEntity;
+					object.animationId = random.nextInt(animations);
+					object.t = (float) k / keys;
+					object.file = fileInfo(-1);
+				} else {
+					// Objects mostly keep their image
+					if (random.nextInt(4) == 0)
+						file = random.nextInt(files);
+					object.file = fileInfo(file);
+				}
+				key.objectInfo = object;
+				timeline.keys.add(key);
+			}
+			animation.timelines.add(timeline);
+		}
+
+		for (int e = 0; e < eventlines; e++) {
+			SpriterEventline eventline = new SpriterEventline();
+			eventline.id = e;
+			eventline.name = "event_" + e;
+			for (int k = 0; k < eventKeys; k++) {
+				SpriterKey key = new SpriterKey();
+				key.id = k;
+				key.time = quantize(animation.length * (k + random.nextFloat()) / eventKeys);
+				eventline.keys.add(key);
+			}
+			animation.eventlines.add(eventline);
+		}
+
+		return animation;
+	}
+
+	private SpriterTimelineKey generateTimelineKey(SpriterAnimation animation, int index) {
+		SpriterTimelineKey key = new SpriterTimelineKey();
+		key.id = index;
+		key.time = keyTime(animation, index);
+		key.spin = random.nextInt(8) == 0 ? -1 : 1;
+		key.curveType = pickCurveType();
+		switch (key.curveType) {
+		case Quadratic:
+			key.c1 = quantize(random.nextFloat());
+			break;
+		case Cubic:
+			key.c2 = quantize(random.nextFloat());
+			key.c1 = quantize(random.nextFloat());
+			break;
+		case Quartic:
+			key.c3 = quantize(random.nextFloat());
+			key.c2 = quantize(random.nextFloat());
+			key.c1 = quantize(random.nextFloat());
+			break;
+		case Quintic:
+			key.c4 = quantize(random.nextFloat());
+			key.c3 = quantize(random.nextFloat());
+			key.c2 = quantize(random.nextFloat());
+			key.c1 = quantize(random.nextFloat());
+			break;
+		case Bezier:
+			key.c4 = quantize(random.nextFloat());
+			key.c3 = quantize(random.nextFloat());
+			key.c2 = quantize(random.nextFloat());
+			key.c1 = quantize(random.nextFloat());
+			break;
+		default:
+			break;
+		}
+		return key;
+	}
+
+	private void fillSpatial(SpriterSpatial spatial, float range) {
+		spatial.x = quantize((random.nextFloat() * 2f - 1f) * range);
+		spatial.y = quantize((random.nextFloat() * 2f - 1f) * range);
+		spatial.angle = quantize(random.nextFloat() * 360f);
+		spatial.scaleX = quantize(0.5f + random.nextFloat());
+		spatial.scaleY = quantize(0.5f + random.nextFloat());
+		spatial.alpha = random.nextInt(4) == 0 ? quantize(random.nextFloat()) : 1f;
+	}
+
+	private SpriterCurveType pickCurveType() {
+		SpriterCurveType[] types = SpriterCurveType.values();
+		float total = 0f;
+		for (float weight : curveWeights)
+			total += weight;
+		float pick = random.nextFloat() * total;
+		for (int i = 0; i < curveWeights.length; i++) {
+			pick -= curveWeights[i];
+			if (pick < 0f)
+				return types[i];
+		}
+		return SpriterCurveType.Linear;
+	}
+
+	private float keyTime(SpriterAnimation animation, int index) {
+		return (float) Math.floor(animation.length * index / keys);
+	}
+
+	private static float quantize(float value) {
+		// Keep values short in files
+		return Math.round(value * 1000f) / 1000f;
+	}
+
+	private static SpriterFileInfo fileInfo(int file) {
+		SpriterFileInfo info = new SpriterFileInfo();
+		info.folderId = file < 0 ? -1 : 0;
+		info.fileId = file;
+		return info;
+	}
+
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import java.io.File;
+import java.net.URISyntaxException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.io.LazySpriterAnimationSource;
+import net.spookygames.gdx.spriter.io.SpriterConstantFolder;
+import net.spookygames.gdx.spriter.loader.SpriterDataLoader;
+import net.spookygames.gdx.spriter.loader.SpriterDataLoader.SpriterDataParameter;
+
+public class SpriterDataLoaderTest {
+
+	// Absolute files, no Gdx.files needed
+	private final FileHandleResolver resolver = new FileHandleResolver() {
+		@Override
+		public FileHandle resolve(String fileName) {
+			return new FileHandle(fileName);
+		}
+	};
+
+	@Test
+	public void loadLazily() throws URISyntaxException {
+		SpriterDataParameter param = new SpriterDataParameter();
+		param.lazy = true;
+		SpriterData data = load(param);
+
+		Assert.assertTrue(data.animationSource instanceof LazySpriterAnimationSource);
+		LazySpriterAnimationSource source = (LazySpriterAnimationSource) data.animationSource;
+		Assert.assertEquals(0, source.getLoadedCount());
+
+		SpriterAnimator animator = new HeadlessSpriterAnimator(data.entities.first());
+		animator.play("idle");
+		Assert.assertEquals(1, source.getLoadedCount());
+	}
+
+	@Test
+	public void loadFolded() throws URISyntaxException {
+		SpriterDataParameter param = new SpriterDataParameter();
+		param.constantFolder = new SpriterConstantFolder();
+		load(param);
+
+		Assert.assertTrue(param.constantFolder.getTimelines() > 0);
+	}
+
+	@Test
+	public void loadLazilyAndFolded() throws URISyntaxException {
+		SpriterDataParameter param = new SpriterDataParameter();
+		param.lazy = true;
+		param.constantFolder = new SpriterConstantFolder();
+		SpriterData data = load(param);
+		Assert.assertEquals(0, param.constantFolder.getTimelines());
+
+		// Bodies are folded as they are read
+		SpriterAnimator animator = new HeadlessSpriterAnimator(data.entities.first());
+		animator.play("idle");
+		Assert.assertTrue(param.constantFolder.getTimelines() > 0);
+	}
+
+	private SpriterData load(SpriterDataParameter param) throws URISyntaxException {
+		String fileName = new File(getClass().getResource(SpriterTestData.greyguySCML).toURI()).getPath();
+		FileHandle file = resolver.resolve(fileName);
+
+		SpriterDataLoader loader = new SpriterDataLoader(resolver);
+		loader.getDependencies(fileName, file, param);
+		return loader.load(null, fileName, file, param);
+	}
+
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterEntity;
+import net.spookygames.gdx.spriter.data.SpriterObjectType;
+import net.spookygames.gdx.spriter.data.SpriterTimeline;
+import net.spookygames.gdx.spriter.io.LazySpriterAnimationSource;
+import net.spookygames.gdx.spriter.io.ScmlReader;
+import net.spookygames.gdx.spriter.io.ScmlWriter;
+import net.spookygames.gdx.spriter.io.SconReader;
+import net.spookygames.gdx.spriter.io.SpriterReader;
+
+public class SpriterHandlesTest {
+
+	private static final float deltaTime = 1f / 60f;
+
+	@Test
+	public void animationsAndEvents() {
+		SpriterData data = new SpriterDataGenerator().generate();
+		SpriterEntity entity = data.entities.first();
+		HeadlessSpriterAnimator animator = new HeadlessSpriterAnimator(entity);
+		SpriterHandles handles = animator.getHandles();
+
+		SpriterHandles other = new HeadlessSpriterAnimator(entity).getHandles();
+		Assert.assertNotSame(handles, other);
+		Assert.assertEquals(handles.getEvent("event_0"), other.getEvent("event_0"));
+		Assert.assertEquals(-1, handles.getAnimation("unknown"));
+		for (int i = 0; i < entity.animations.size; ++i)
+			Assert.assertEquals(i, handles.getAnimation(entity.animations.get(i).name));
+
+		final int event = handles.getEvent("event_0");
+		Assert.assertTrue(event >= 0);
+		Assert.assertEquals("event_0", handles.getEventName(event));
+
+		final int[] triggered = new int[2];
+		animator.addAnimationListener(new SpriterAnimationAdapter() {
+			@Override
+			public void onEventTriggered(SpriterAnimator animator, String name) {
+				triggered[0]++;
+			}
+		});
+		animator.addEventListener(new SpriterEventListener() {
+			@Override
+			public void onEventTriggered(SpriterAnimator animator, int handle, int count) {
+				Assert.assertEquals(event, handle);
+				triggered[1]++;
+			}
+		});
+
+		animator.play(0);
+		Assert.assertSame(entity.animations.first(), animator.getCurrentAnimation());
+		for (float elapsed = 0f; elapsed < 2f * animator.getLength() / 1000f; elapsed += deltaTime)
+			animator.update(deltaTime);
+
+		Assert.assertTrue(triggered[1] > 0);
+		Assert.assertEquals(triggered[0], triggered[1]);
+	}
+
+	@Test
+	public void boxesAndVariables() throws IOException {
+		SpriterData data = new ScmlReader()
+				.load(new InputStreamReader(getClass().getResourceAsStream(SpriterTestData.boxtagSCML)));
+		HeadlessSpriterAnimator animator = new HeadlessSpriterAnimator(data.entities.first());
+		SpriterHandles handles = animator.getHandles();
+
+		int box = handles.getBox("Player_AttackBox");
+		int variable = handles.getVariable("Xvelocity");
+		Assert.assertTrue(box >= 0);
+		Assert.assertEquals(0, variable);
+		Assert.assertEquals(-1, handles.getVariable("unknown"));
+
+		animator.play(handles.getAnimation("punch"));
+		for (float elapsed = 0f; elapsed < 0.5f; elapsed += deltaTime) {
+			animator.update(deltaTime);
+
+			Assert.assertSame(animator.getCurrentFrameData().animationVars.get("Xvelocity"),
+					animator.getVariable(variable));
+			SpriterHitbox hitbox = animator.getHitbox(box);
+			if (hitbox != null)
+				Assert.assertEquals("Player_AttackBox", hitbox.name);
+		}
+		Assert.assertNotNull(animator.getVariable(variable));
+	}
+
+	@Test
+	public void lazyAnimations() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new SpriterDataGenerator().write(output);
+		ScmlReader reader = new ScmlReader();
+		reader.setLazyAnimationLoading(true);
+		SpriterData data = reader.load(new InputStreamReader(new ByteArrayInputStream(output.toByteArray())));
+		LazySpriterAnimationSource source = (LazySpriterAnimationSource) data.animationSource;
+
+		HeadlessSpriterAnimator animator = new HeadlessSpriterAnimator(data.entities.first());
+		SpriterHandles handles = animator.getHandles();
+		Assert.assertEquals(0, source.getLoadedCount());
+		Assert.assertEquals(0, handles.getAnimation(data.entities.first().animations.first().name));
+		Assert.assertEquals(0, handles.getEvent("event_0"));
+
+		final int[] triggered = new int[1];
+		animator.addEventListener(new SpriterEventListener() {
+			@Override
+			public void onEventTriggered(SpriterAnimator animator, int handle, int count) {
+				Assert.assertEquals("event_0", animator.getHandles().getEventName(handle));
+				triggered[0]++;
+			}
+		});
+
+		animator.play(0);
+		Assert.assertEquals(1, source.getLoadedCount());
+		for (float elapsed = 0f; elapsed < 2f * animator.getLength() / 1000f; elapsed += deltaTime)
+			animator.update(deltaTime);
+
+		Assert.assertTrue(triggered[0] > 0);
+		Assert.assertEquals(1, source.getLoadedCount());
+	}
+
+	@Test
+	public void lazyNames() throws IOException {
+		SpriterData data = new SpriterDataGenerator().generate();
+		SpriterAnimation animation = data.entities.first().animations.peek();
+		SpriterTimeline point = new SpriterTimeline();
+		point.id = animation.timelines.size;
+		point.name = "tip & <tail>";
+		point.objectType = SpriterObjectType.Point;
+		animation.timelines.add(point);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new ScmlWriter().write(data, output);
+		String scml = new String(output.toByteArray());
+
+		assertSameHandles(new ScmlReader(), scml);
+		Assert.assertEquals(0, getHandles(new ScmlReader(), scml, true).getPoint("tip & <tail>"));
+	}
+
+	@Test
+	public void lazySconNames() throws IOException {
+		String scon = "{\"entity\": [{\"id\": 0, \"name\": \"entity\", \"animation\": ["
+				+ "{\"id\": 0, \"name\": \"first\", \"length\": 100, \"mainline\": {\"key\": []},"
+				+ " \"timeline\": [{\"id\": 0, \"name\": \"sprite\", \"key\": []},"
+				+ " {\"id\": 1, \"name\": \"p\\u0031\", \"object_type\": \"point\", \"key\": []}],"
+				+ " \"eventline\": [{\"id\": 0, \"name\": \"hit\", \"key\": []}]},"
+				+ "{\"id\": 1, \"name\": \"second\", \"length\": 100, \"mainline\": {\"key\": []},"
+				+ " \"eventline\": [{\"id\": 0, \"key\": [], \"name\": \"st\\\"ep\"},"
+				+ " {\"id\": 1, \"name\": \"hit\", \"key\": []}],"
+				+ " \"timeline\": [{\"id\": 0, \"object_type\": \"Point\", \"name\": \"tip\", \"key\": []}]}"
+				+ "]}]}";
+
+		assertSameHandles(new SconReader(), scon);
+
+		SpriterHandles handles = getHandles(new SconReader(), scon, true);
+		Assert.assertEquals(2, handles.getEventCount());
+		Assert.assertEquals(1, handles.getEvent("st\"ep"));
+		Assert.assertEquals(2, handles.getPointCount());
+		Assert.assertEquals(0, handles.getPoint("p1"));
+		Assert.assertEquals(1, handles.getPoint("tip"));
+	}
+
+	private static void assertSameHandles(SpriterReader reader, String content) throws IOException {
+		SpriterHandles eager = getHandles(reader, content, false);
+		SpriterHandles lazy = getHandles(reader, content, true);
+
+		Assert.assertEquals(eager.getEventCount(), lazy.getEventCount());
+		for (int i = 0; i < eager.getEventCount(); ++i)
+			Assert.assertEquals(eager.getEventName(i), lazy.getEventName(i));
+
+		Assert.assertEquals(eager.getPointCount(), lazy.getPointCount());
+		for (int i = 0; i < eager.getPointCount(); ++i)
+			Assert.assertEquals(eager.getPointName(i), lazy.getPointName(i));
+	}
+
+	private static SpriterHandles getHandles(SpriterReader reader, String content, boolean lazy) throws IOException {
+		reader.setLazyAnimationLoading(lazy);
+		SpriterData data = reader.load(content);
+		SpriterHandles handles = new SpriterHandles(data.entities.first());
+		if (lazy)
+			Assert.assertEquals(0, ((LazySpriterAnimationSource) data.animationSource).getLoadedCount());
+		return handles;
+	}
+
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterObject;
+import net.spookygames.gdx.spriter.io.ScmlReader;
+
+public class SpriterHitboxGridTest {
+
+	@Test
+	public void hitboxes() throws IOException {
+		SpriterData data = load(SpriterTestData.boxtagSCML);
+		SpriterAnimator animator = animator(data, 100f, 50f);
+
+		Array<SpriterHitbox> hitboxes = animator.getHitboxes();
+		Assert.assertEquals(1, hitboxes.size);
+
+		SpriterHitbox hitbox = hitboxes.first();
+		SpriterObject box = animator.getCurrentFrameData().boxData.get(hitbox.boxId);
+		Assert.assertSame(animator, hitbox.animator);
+		Assert.assertEquals(animator.getEntity().objectInfos.get(hitbox.boxId).name, hitbox.name);
+
+		// Same corner as SpriterAnimator.drawBox with an unrotated box
+		Assert.assertEquals(100f + box.x, hitbox.minX, 0.01f);
+		Assert.assertEquals(50f + box.y, hitbox.maxY, 0.01f);
+		Assert.assertTrue(hitbox.contains((hitbox.minX + hitbox.maxX) / 2f, (hitbox.minY + hitbox.maxY) / 2f));
+	}
+
+	@Test
+	public void queries() throws IOException {
+		SpriterData data = load(SpriterTestData.boxtagSCML);
+		SpriterAnimator first = animator(data, 0f, 0f);
+		SpriterAnimator second = animator(data, 10000f, 0f);
+
+		SpriterHitboxGrid grid = new SpriterHitboxGrid(64f);
+		grid.add(first);
+		grid.add(second);
+		grid.update();
+
+		SpriterHitbox hitbox = first.getHitboxes().first();
+		float centerX = (hitbox.minX + hitbox.maxX) / 2f;
+		float centerY = (hitbox.minY + hitbox.maxY) / 2f;
+
+		Array<SpriterHitbox> result = new Array<SpriterHitbox>();
+		Assert.assertEquals(0, grid.query(hitbox, result).size);
+		Assert.assertEquals(1, grid.query(centerX, centerY, result).size);
+		Assert.assertSame(hitbox, result.first());
+
+		// Move second animator onto the first one
+		second.setPosition(5f, 0f);
+		grid.update();
+
+		result.clear();
+		Assert.assertEquals(1, grid.query(hitbox, result).size);
+		Assert.assertSame(second, result.first().animator);
+
+		result.clear();
+		Assert.assertEquals(2, grid.query(new Rectangle(centerX - 1f, centerY - 1f, 2f, 2f), result).size);
+
+		grid.remove(second);
+		result.clear();
+		Assert.assertEquals(0, grid.query(hitbox, result).size);
+	}
+
+	private static SpriterAnimator animator(SpriterData data, float x, float y) {
+		SpriterAnimator animator = SpriterTestAssetProvider.animator(data);
+		animator.setPosition(x, y);
+		animator.play("punch");
+		animator.update(0.3f);
+		return animator;
+	}
+
+	private SpriterData load(String scml) throws IOException {
+		return new ScmlReader().load(new InputStreamReader(getClass().getResourceAsStream(scml)));
+	}
+
+}
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterMainlineKey;
+import net.spookygames.gdx.spriter.data.SpriterObject;
+import net.spookygames.gdx.spriter.data.SpriterObjectRef;
+import net.spookygames.gdx.spriter.data.SpriterObjectType;
+import net.spookygames.gdx.spriter.data.SpriterSpatial;
+import net.spookygames.gdx.spriter.io.LazySpriterAnimationSource;
+import net.spookygames.gdx.spriter.io.ScmlReader;
+import net.spookygames.gdx.spriter.io.SpriterKeyPacker;
+
+public class SpriterPoseBatchTest {
+
+	private static final int instances = 64;
+
+	@Test
+	public void sample() throws IOException {
+		SpriterData data = load();
+		for (SpriterAnimation animation : data.entities.first().animations)
+			assertSameAsFrameData(animation);
+	}
+
+	@Test
+	public void samplePacked() throws IOException {
+		SpriterData data = load();
+		new SpriterKeyPacker().pack(data);
+		for (SpriterAnimation animation : data.entities.first().animations)
+			assertSameAsFrameData(animation);
+	}
+
+	@Test
+	public void sampleLazy() throws IOException {
+		ScmlReader reader = new ScmlReader();
+		reader.setLazyAnimationLoading(true);
+		SpriterData data = reader
+				.load(new InputStreamReader(getClass().getResourceAsStream(SpriterTestData.greyguySCML)));
+		LazySpriterAnimationSource source = (LazySpriterAnimationSource) data.animationSource;
+
+		for (SpriterAnimation animation : data.entities.first().animations) {
+			Assert.assertFalse(source.isLoaded(animation));
+			assertSameAsFrameData(animation);
+			Assert.assertTrue(source.isLoaded(animation));
+		}
+	}
+
+	@Test
+	public void sampleWithTransforms() throws IOException {
+		SpriterAnimation animation = load().entities.first().animations.first();
+
+		float[] times = times(animation);
+		SpriterSpatial[] transforms = new SpriterSpatial[instances];
+		for (int i = 0; i < instances; ++i) {
+			SpriterSpatial transform = new SpriterSpatial();
+			transform.x = i * 100f;
+			transform.y = -i;
+			transform.angle = i * 5f;
+			transform.scaleX = i % 2 == 0 ? 1f : -1f;
+			transforms[i] = transform;
+		}
+
+		SpriterPoseBatch local = new SpriterPoseBatch();
+		local.sample(animation, times, instances);
+		SpriterPoseBatch world = new SpriterPoseBatch();
+		world.sample(animation, times, transforms, instances);
+
+		for (int i = 0; i < instances; ++i) {
+			for (SpriterObjectRef ref : local.mainlineKeys[i].objectRefs) {
+				int index = local.index(ref.timelineId, i);
+				SpriterObject expected = new SpriterObject();
+				expected.x = local.x[index];
+				expected.y = local.y[index];
+				expected.angle = local.angle[index];
+				expected.scaleX = local.scaleX[index];
+				expected.scaleY = local.scaleY[index];
+				expected.alpha = local.alpha[index];
+				FrameData.applyParentTransform(expected, transforms[i]);
+
+				// Composition order differs, within sine table precision
+				Assert.assertEquals(expected.x, world.x[index], 0.1f);
+				Assert.assertEquals(expected.y, world.y[index], 0.1f);
+				Assert.assertEquals(180f, (expected.angle - world.angle[index] + 900f) % 360f, 0.01f);
+				Assert.assertEquals(expected.scaleX, world.scaleX[index], 0.0001f);
+				Assert.assertEquals(expected.scaleY, world.scaleY[index], 0.0001f);
+			}
+		}
+	}
+
+	private void assertSameAsFrameData(SpriterAnimation animation) {
+		FrameDataUpdateConfiguration configuration = new FrameDataUpdateConfiguration();
+		FrameData frameData = new FrameData();
+		SpriterPoseBatch batch = new SpriterPoseBatch();
+		float[] times = times(animation);
+
+		batch.sample(animation, times, instances);
+		Assert.assertEquals(instances, batch.size);
+		Assert.assertEquals(animation.timelines.size, batch.timelines);
+
+		for (int i = 0; i < instances; ++i) {
+			FrameData.update(frameData, configuration, animation, times[i], 0f);
+			SpriterMainlineKey key = batch.mainlineKeys[i];
+
+			int sprite = 0;
+			for (SpriterObjectRef ref : key.objectRefs) {
+				if (animation.timelines.get(ref.timelineId).objectType != SpriterObjectType.Sprite)
+					continue;
+
+				SpriterObject expected = frameData.spriteData.get(sprite++);
+				int index = batch.index(ref.timelineId, i);
+				Assert.assertTrue(batch.isActive(ref.timelineId, i));
+				Assert.assertEquals(expected.x, batch.x[index], 0.001f);
+				Assert.assertEquals(expected.y, batch.y[index], 0.001f);
+				Assert.assertEquals(expected.angle, batch.angle[index], 0.001f);
+				Assert.assertEquals(expected.scaleX, batch.scaleX[index], 0.0001f);
+				Assert.assertEquals(expected.scaleY, batch.scaleY[index], 0.0001f);
+				Assert.assertEquals(expected.alpha, batch.alpha[index], 0.0001f);
+				Assert.assertEquals(expected.file, batch.files[index]);
+			}
+			Assert.assertEquals(frameData.spriteData.size, sprite);
+		}
+	}
+
+	private static float[] times(SpriterAnimation animation) {
+		float[] times = new float[instances];
+		for (int i = 0; i < instances; ++i)
+			times[i] = animation.length * i / instances;
+		return times;
+	}
+
+	private SpriterData load() throws IOException {
+		return new ScmlReader()
+				.load(new InputStreamReader(getClass().getResourceAsStream(SpriterTestData.greyguySCML)));
+	}
+
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.badlogic.gdx.utils.Array;
+
+import net.spookygames.gdx.spriter.data.SpriterAnimation;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.io.ScmlReader;
+
+public class SpriterSamplingCacheTest {
+
+	@Test
+	public void crowd() throws IOException {
+		SpriterData data = new ScmlReader()
+				.load(new InputStreamReader(getClass().getResourceAsStream(SpriterTestData.greyguySCML)));
+		SpriterSamplingCache cache = new SpriterSamplingCache();
+
+		Array<SpriterAnimator> crowd = new Array<SpriterAnimator>();
+		for (int i = 0; i < 100; ++i) {
+			SpriterAnimator animator = new HeadlessSpriterAnimator(data.entities.first());
+			animator.setSamplingCache(cache);
+			animator.setPosition(i * 10f, 0f);
+			animator.play("walk");
+			crowd.add(animator);
+		}
+
+		SpriterAnimator reference = new HeadlessSpriterAnimator(data.entities.first());
+		reference.play("walk");
+		SpriterAnimation animation = reference.getCurrentAnimation();
+
+		for (int frame = 0; frame < 20; ++frame) {
+			// Times aligned on animation interval
+			float time = (frame * animation.interval) % animation.length;
+
+			cache.clear();
+			for (SpriterAnimator animator : crowd) {
+				animator.setTime(time);
+				animator.update(0f);
+			}
+			reference.setTime(time);
+			reference.update(0f);
+
+			Assert.assertEquals(1, cache.getSize());
+			String expected = reference.getCurrentFrameData().toString();
+			for (SpriterAnimator animator : crowd)
+				Assert.assertEquals(expected, animator.getCurrentFrameData().toString());
+		}
+
+		Assert.assertEquals(20, cache.getMisses());
+		Assert.assertEquals(0.99f, cache.getHitRatio(), 0.0001f);
+	}
+
+	@Test
+	public void copyOnWrite() throws IOException {
+		SpriterData data = new ScmlReader()
+				.load(new InputStreamReader(getClass().getResourceAsStream(SpriterTestData.greyguySCML)));
+		SpriterSamplingCache cache = new SpriterSamplingCache();
+
+		SpriterAnimator modified = new HeadlessSpriterAnimator(data.entities.first());
+		SpriterAnimator shared = new HeadlessSpriterAnimator(data.entities.first());
+		SpriterAnimator reference = new HeadlessSpriterAnimator(data.entities.first());
+		modified.setSamplingCache(cache);
+		shared.setSamplingCache(cache);
+		modified.play("walk");
+		shared.play("walk");
+		reference.play("walk");
+
+		cache.clear();
+		modified.update(0f);
+		shared.update(0f);
+		reference.update(0f);
+
+		Assert.assertEquals(1, cache.getMisses());
+		Assert.assertEquals(reference.getBoundingBox(), shared.getBoundingBox());
+
+		// Modifying one animator's pose leaves the shared one untouched
+		modified.getCurrentFrameData().spriteData.first().x += 100f;
+		shared.update(0f);
+		reference.update(0f);
+		Assert.assertEquals(reference.getBoundingBox(), shared.getBoundingBox());
+		Assert.assertEquals(reference.getCurrentFrameData().toString(), shared.getCurrentFrameData().toString());
+		Assert.assertFalse(reference.getCurrentFrameData().toString()
+				.equals(modified.getCurrentFrameData().toString()));
+	}
+
+}
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.utils.LongMap;
+
+import net.spookygames.gdx.spriter.data.SpriterAssetProvider;
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.data.SpriterFile;
+import net.spookygames.gdx.spriter.data.SpriterFileInfo;
+
+/**
+ * {@link SpriterAssetProvider} serving texture-less {@link Sprite}s sized after
+ * Spriter files and silent {@link Sound}s, hence needs no graphics nor audio
+ * backend.
+ */
+public class SpriterTestAssetProvider implements SpriterAssetProvider {
+
+	private final SpriterData data;
+	private final LongMap<Sprite> sprites = new LongMap<Sprite>();
+	private final Sound sound = new SilentSound();
+
+	public int playedSounds = 0;
+
+	public SpriterTestAssetProvider(SpriterData data) {
+		this.data = data;
+	}
+
+	@Override
+	public Sprite getSprite(SpriterFileInfo file) {
+		long key = ((long) file.folderId << 32) | (file.fileId & 0xffffffffL);
+		Sprite sprite = sprites.get(key);
+		if (sprite == null) {
+			SpriterFile spriterFile = data.folders.get(file.folderId).files.get(file.fileId);
+			sprite = new Sprite();
+			sprite.setSize(spriterFile.width, spriterFile.height);
+			sprites.put(key, sprite);
+		}
+		return sprite;
+	}
+
+	@Override
+	public Sound getSound(SpriterFileInfo file) {
+		return sound;
+	}
+
+	public static SpriterData attach(SpriterData data) {
+		data.assetProvider = new SpriterTestAssetProvider(data);
+		return data;
+	}
+
+	/**
+	 * Create a {@link SpriterAnimator} for the first entity of given data,
+	 * attaching a {@code SpriterTestAssetProvider} unless one already is.
+	 */
+	public static SpriterAnimator animator(SpriterData data) {
+		if (!(data.assetProvider instanceof SpriterTestAssetProvider))
+			attach(data);
+		return new SpriterAnimator(data.entities.first());
+	}
+
+	private class SilentSound implements Sound {
+
+		@Override
+		public long play() {
+			playedSounds++;
+			return 0;
+		}
+
+		@Override
+		public long play(float volume) {
+			return play();
+		}
+
+		@Override
+		public long play(float volume, float pitch, float pan) {
+			return play();
+		}
+
+		@Override
+		public long loop() {
+			return play();
+		}
+
+		@Override
+		public long loop(float volume) {
+			return play();
+		}
+
+		@Override
+		public long loop(float volume, float pitch, float pan) {
+			return play();
+		}
+
+		@Override
+		public void stop() {
+		}
+
+		@Override
+		public void pause() {
+		}
+
+		@Override
+		public void resume() {
+		}
+
+		@Override
+		public void dispose() {
+		}
+
+		@Override
+		public void stop(long soundId) {
+		}
+
+		@Override
+		public void pause(long soundId) {
+		}
+
+		@Override
+		public void resume(long soundId) {
+		}
+
+		@Override
+		public void setLooping(long soundId, boolean looping) {
+		}
+
+		@Override
+		public void setPitch(long soundId, float pitch) {
+		}
+
+		@Override
+		public void setVolume(long soundId, float volume) {
+		}
+
+		@Override
+		public void setPan(long soundId, float pan, float volume) {
+		}
+
+		@Override
+		public void setPriority(long soundId, int priority) {
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2015-2016 Spooky Games
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty. In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgement in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+
+
+package net.spookygames.gdx.spriter;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.FloatArray;
+
+import net.spookygames.gdx.spriter.data.SpriterData;
+import net.spookygames.gdx.spriter.io.ScmlReader;
+
+public class SpriterVertexCacheTest {
+
+	private static final float deltaTime = 1f / 60f;
+
+	@Test
+	public void cachedPoseIsTranslated() throws IOException {
+		SpriterData data = load();
+		SpriterVertexCache cache = new SpriterVertexCache(1000f / 60f, 1 << 20);
+
+		SpriterAnimator first = animator(data, cache, 0f, 0f);
+		SpriterAnimator second = animator(data, cache, 100f, 50f);
+
+		VertexBatch batch = new VertexBatch();
+		first.draw(batch);
+		Assert.assertEquals(1, cache.getMisses());
+		Assert.assertEquals(1, cache.getSize());
+		FloatArray expected = new FloatArray(batch.vertices);
+
+		batch.vertices.clear();
+		second.draw(batch);
+		Assert.assertEquals(1, cache.getHits());
+		Assert.assertEquals(expected.size, batch.vertices.size);
+
+		for (int i = 0; i < expected.size; i += 5) {
+			Assert.assertEquals(expected.get(i) + 100f, batch.vertices.get(i), 0.001f);
+			Assert.assertEquals(expected.get(i + 1) + 50f, batch.vertices.get(i + 1), 0.001f);
+			Assert.assertEquals(expected.get(i + 2), batch.vertices.get(i + 2), 0f);
+		}
+	}
+
+	@Test
+	public void loopingAnimationHitsAndEvicts() throws IOException {
+		SpriterData data = load();
+		SpriterVertexCache cache = new SpriterVertexCache(1000f / 30f, 1 << 20);
+		SpriterAnimator animator = animator(data, cache, 0f, 0f);
+		SpriterAnimator reference = animator(data, null, 0f, 0f);
+
+		NoOpBatch batch = new NoOpBatch();
+		NoOpBatch referenceBatch = new NoOpBatch();
+		for (int i = 0; i < 600; ++i) {
+			animator.update(deltaTime);
+			animator.draw(batch);
+			reference.update(deltaTime);
+			reference.draw(referenceBatch);
+		}
+
+		Assert.assertEquals(referenceBatch.drawCalls, batch.drawCalls);
+		Assert.assertTrue(cache.getHitRatio() > 0.5f);
+		Assert.assertEquals(0, cache.getEvictions());
+
+		long usage = cache.getMemoryUsage();
+		cache.setMemoryBudget(usage / 2);
+		Assert.assertTrue(cache.getEvictions() > 0);
+		Assert.assertTrue(cache.getMemoryUsage() <= usage / 2);
+	}
+
+	private static SpriterAnimator animator(SpriterData data, SpriterVertexCache cache, float x, float y) {
+		SpriterAnimator animator = SpriterTestAssetProvider.animator(data);
+		animator.setVertexCache(cache);
+		animator.setPosition(x, y);
+		animator.play("idle");
+		animator.update(0.1f);
+		return animator;
+	}
+
+	private SpriterData load() throws IOException {
+		return new ScmlReader()
+				.load(new InputStreamReader(getClass().getResourceAsStream(SpriterTestData.greyguySCML)));
+	}
+
+	private static class VertexBatch extends NoOpBatch {
+		final FloatArray vertices = new FloatArray();
+
+		@Override
+		public void draw(Texture texture, float[] spriteVertices, int offset, int count) {
+			super.draw(texture, spriteVertices, offset, count);
+			vertices.addAll(spriteVertices, offset, count);
+		}
+	}
+
+}